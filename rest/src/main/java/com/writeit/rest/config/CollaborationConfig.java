@@ -0,0 +1,29 @@
+package com.writeit.rest.config;
+
+import com.writeit.rest.content.CollaborationWebSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registers the collaborative editing channel. Browsers may connect from the same origins the
+ * CORS configuration allows.
+ */
+@Configuration
+@EnableWebSocket
+public class CollaborationConfig implements WebSocketConfigurer {
+
+    private final CollaborationWebSocketHandler collaborationHandler;
+
+    public CollaborationConfig(CollaborationWebSocketHandler collaborationHandler) {
+        this.collaborationHandler = collaborationHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(collaborationHandler,
+                CollaborationWebSocketHandler.DOCUMENTS_PATH + "*", CollaborationWebSocketHandler.SECTIONS_PATH + "*")
+            .setAllowedOrigins("http://localhost:3000", "http://localhost:5173");
+    }
+}
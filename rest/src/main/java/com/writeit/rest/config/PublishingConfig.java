@@ -0,0 +1,29 @@
+package com.writeit.rest.config;
+
+import com.writeit.rest.content.PublishChannel;
+import com.writeit.rest.content.PublishChannelAdapter;
+import com.writeit.rest.content.StubPublishChannelAdapter;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Channel adapters for the publish job queue. Medium and KDP are served by local stubs until real
+ * integrations exist; an adapter bean for the same channel replaces the stub.
+ */
+@Configuration
+public class PublishingConfig {
+
+    @Bean
+    public PublishChannelAdapter mediumPublishAdapter(@Value("${writeit.publishing.stub.latency:PT0S}") Duration latency,
+                                                      @Value("${writeit.publishing.stub.failures-per-job:0}") int failures) {
+        return new StubPublishChannelAdapter(PublishChannel.MEDIUM, "https://medium.com/@writeit/mock-", latency, failures);
+    }
+
+    @Bean
+    public PublishChannelAdapter kdpPublishAdapter(@Value("${writeit.publishing.stub.latency:PT0S}") Duration latency,
+                                                   @Value("${writeit.publishing.stub.failures-per-job:0}") int failures) {
+        return new StubPublishChannelAdapter(PublishChannel.KDP, "https://kdp.amazon.com/en_US/title-setup/mock-", latency, failures);
+    }
+}
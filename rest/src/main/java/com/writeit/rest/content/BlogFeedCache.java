@@ -0,0 +1,329 @@
+package com.writeit.rest.content;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * The Atom feed and sitemap of the Write It blog as ready-to-send byte buffers, plain and gzipped.
+ * Every post is rendered once into an XML fragment; publishing, editing or deleting a post
+ * re-renders only its own fragment and splices the documents back together from the stored
+ * fragments, so serving them never touches the database. Changes made inside a transaction are
+ * applied once it commits, and the feed is refilled from the database outside the cache's lock.
+ */
+@Component
+public class BlogFeedCache {
+
+    static final int SITEMAP_LIMIT = 50_000;
+    private static final int SUMMARY_LENGTH = 280;
+    private static final DateTimeFormatter SITEMAP_DATE = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+    private static final Comparator<FeedKey> NEWEST_FIRST = Comparator.comparing(FeedKey::publishedAt).reversed()
+        .thenComparing(Comparator.comparing(FeedKey::documentId).reversed());
+
+    private final DocumentRepository documentRepository;
+    private final String baseUrl;
+    private final int feedSize;
+    private final TreeMap<FeedKey, FeedEntry> feedEntries = new TreeMap<>(NEWEST_FIRST);
+    private final Map<Long, FeedKey> feedKeys = new HashMap<>();
+    private final TreeMap<Long, byte[]> sitemapEntries = new TreeMap<>(Comparator.reverseOrder());
+    private volatile Rendered feed;
+    private volatile Rendered sitemap;
+    private long generation;
+
+    public BlogFeedCache(DocumentRepository documentRepository,
+                         @Value("${writeit.blog.base-url:http://localhost:8080}") String baseUrl,
+                         @Value("${writeit.blog.feed.max-entries:50}") int feedSize) {
+        this.documentRepository = documentRepository;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.feedSize = Math.max(1, feedSize);
+        synchronized (this) {
+            assemble(true, true);
+        }
+    }
+
+    public Rendered feed() {
+        return feed;
+    }
+
+    public Rendered sitemap() {
+        return sitemap;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        generation++;
+        feedEntries.clear();
+        feedKeys.clear();
+        sitemapEntries.clear();
+        for (DocumentSummary post : documentRepository.findPublishedSummaries(Limit.of(SITEMAP_LIMIT))) {
+            sitemapEntries.put(post.id(), sitemapEntry(post.writeItSlug(), latest(post.updatedAt(), post.publishedAt())));
+        }
+        fillFeed(publishedPosts());
+        assemble(true, true);
+    }
+
+    /**
+     * Adds or replaces the entries of a published post, or removes them if it is no longer
+     * published, once the current transaction commits.
+     */
+    public void update(Document document) {
+        Transactions.afterCommit(() -> apply(document));
+    }
+
+    public void remove(Long documentId) {
+        Transactions.afterCommit(() -> evict(documentId));
+    }
+
+    private void apply(Document document) {
+        if (!document.isPublishedToWriteIt() || document.getWriteItSlug() == null || document.getPublishedAt() == null) {
+            evict(document.getId());
+            return;
+        }
+        synchronized (this) {
+            put(document);
+        }
+    }
+
+    private void put(Document document) {
+        generation++;
+        byte[] sitemapEntry = sitemapEntry(document.getWriteItSlug(), latest(document.getUpdatedAt(), document.getPublishedAt()));
+        boolean sitemapChanged = !Arrays.equals(sitemapEntry, sitemapEntries.put(document.getId(), sitemapEntry));
+        if (sitemapEntries.size() > SITEMAP_LIMIT) {
+            sitemapEntries.pollLastEntry();
+        }
+
+        FeedKey key = new FeedKey(document.getPublishedAt(), document.getId());
+        FeedKey previousKey = feedKeys.remove(document.getId());
+        if (previousKey != null) {
+            feedEntries.remove(previousKey);
+        }
+        boolean feedChanged = previousKey != null;
+        if (feedEntries.size() < feedSize || NEWEST_FIRST.compare(key, feedEntries.lastKey()) < 0) {
+            feedEntries.put(key, feedEntry(document));
+            feedKeys.put(document.getId(), key);
+            feedChanged = true;
+            if (feedEntries.size() > feedSize) {
+                feedKeys.remove(feedEntries.pollLastEntry().getKey().documentId());
+            }
+        }
+        assemble(feedChanged, sitemapChanged);
+    }
+
+    private void evict(Long documentId) {
+        synchronized (this) {
+            generation++;
+            boolean sitemapChanged = sitemapEntries.remove(documentId) != null;
+            FeedKey key = feedKeys.remove(documentId);
+            if (key != null) {
+                feedEntries.remove(key);
+            }
+            assemble(key != null, sitemapChanged);
+            if (key == null) {
+                return;
+            }
+        }
+        refillFeed();
+    }
+
+    /**
+     * Pulls the next older post into a freed feed slot. The query runs without the lock and its
+     * result is only used if no other change was applied meanwhile.
+     */
+    private void refillFeed() {
+        while (true) {
+            long seen;
+            synchronized (this) {
+                seen = generation;
+            }
+            List<Document> posts = publishedPosts();
+            synchronized (this) {
+                if (generation == seen) {
+                    fillFeed(posts);
+                    assemble(true, false);
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<Document> publishedPosts() {
+        List<Long> ids = documentRepository.findPublishedSummaries(Limit.of(feedSize)).stream().map(DocumentSummary::id).toList();
+        return documentRepository.findAllById(ids);
+    }
+
+    private void fillFeed(List<Document> posts) {
+        feedEntries.clear();
+        feedKeys.clear();
+        for (Document post : posts) {
+            FeedKey key = new FeedKey(post.getPublishedAt(), post.getId());
+            feedEntries.put(key, feedEntry(post));
+            feedKeys.put(post.getId(), key);
+        }
+    }
+
+    private void assemble(boolean feedChanged, boolean sitemapChanged) {
+        if (feedChanged) {
+            Instant updated = feedEntries.values().stream().map(FeedEntry::updated).max(Comparator.naturalOrder()).orElse(Instant.EPOCH);
+            String head = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <feed xmlns="http://www.w3.org/2005/Atom">
+                <title>Write It</title>
+                <id>%s/blog</id>
+                <link href="%s/blog"/>
+                <link rel="self" href="%s/api/v1/blog/feed.xml"/>
+                <updated>%s</updated>
+                """.formatted(XhtmlConverter.escape(baseUrl), XhtmlConverter.escape(baseUrl), XhtmlConverter.escape(baseUrl),
+                updated.truncatedTo(ChronoUnit.SECONDS));
+            feed = Rendered.of(head, feedEntries.values().stream().map(FeedEntry::bytes).toList(), "</feed>\n", updated);
+        }
+        if (sitemapChanged) {
+            String head = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+                """;
+            sitemap = Rendered.of(head, sitemapEntries.values(), "</urlset>\n", Instant.now());
+        }
+    }
+
+    private FeedEntry feedEntry(Document post) {
+        String url = XhtmlConverter.escape(postUrl(post.getWriteItSlug()));
+        Instant updated = latest(post.getUpdatedAt(), post.getPublishedAt());
+        String entry = """
+            <entry>
+            <title>%s</title>
+            <link href="%s"/>
+            <id>urn:writeit:document:%d</id>
+            <published>%s</published>
+            <updated>%s</updated>
+            <summary>%s</summary>
+            </entry>
+            """.formatted(XhtmlConverter.escape(post.getTitle()), url, post.getId(),
+            post.getPublishedAt().truncatedTo(ChronoUnit.SECONDS), updated.truncatedTo(ChronoUnit.SECONDS),
+            XhtmlConverter.escape(summary(post.getContent())));
+        return new FeedEntry(entry.getBytes(StandardCharsets.UTF_8), updated);
+    }
+
+    private byte[] sitemapEntry(String slug, Instant lastModified) {
+        return ("<url><loc>" + XhtmlConverter.escape(postUrl(slug)) + "</loc><lastmod>" + SITEMAP_DATE.format(lastModified)
+            + "</lastmod></url>\n")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String postUrl(String slug) {
+        return baseUrl + "/blog/" + slug;
+    }
+
+    /**
+     * The first {@value #SUMMARY_LENGTH} characters of the post's text, without markup.
+     */
+    static String summary(String html) {
+        if (html == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder(SUMMARY_LENGTH + 1);
+        boolean inTag = false;
+        boolean space = false;
+        for (int i = 0; i < html.length() && text.length() <= SUMMARY_LENGTH; i++) {
+            char c = html.charAt(i);
+            if (inTag) {
+                inTag = c != '>';
+                space |= !inTag;
+            } else if (c == '<') {
+                inTag = true;
+            } else if (Character.isWhitespace(c)) {
+                space = true;
+            } else {
+                if (space && !text.isEmpty()) {
+                    text.append(' ');
+                }
+                space = false;
+                if (c == '&') {
+                    int end = html.indexOf(';', i);
+                    String entity = end > i && end - i <= 6 ? html.substring(i, end + 1) : "";
+                    String decoded = switch (entity) {
+                        case "&amp;" -> "&";
+                        case "&lt;" -> "<";
+                        case "&gt;" -> ">";
+                        case "&quot;" -> "\"";
+                        case "&#39;", "&apos;" -> "'";
+                        case "&nbsp;" -> " ";
+                        default -> null;
+                    };
+                    if (decoded != null) {
+                        text.append(decoded);
+                        i = end;
+                        continue;
+                    }
+                }
+                text.append(c);
+            }
+        }
+        if (text.length() > SUMMARY_LENGTH) {
+            int cut = text.lastIndexOf(" ", SUMMARY_LENGTH);
+            text.setLength(cut > SUMMARY_LENGTH / 2 ? cut : SUMMARY_LENGTH);
+            text.append('\u2026');
+        }
+        return text.toString();
+    }
+
+    private static Instant latest(Instant first, Instant second) {
+        if (first == null) {
+            return second == null ? Instant.EPOCH : second;
+        }
+        return second == null || first.isAfter(second) ? first : second;
+    }
+
+    private record FeedKey(Instant publishedAt, Long documentId) {
+    }
+
+    private record FeedEntry(byte[] bytes, Instant updated) {
+    }
+
+    /**
+     * A complete document, plain and gzipped. The two encodings are different representations
+     * and get different entity tags.
+     */
+    public record Rendered(byte[] body, byte[] gzip, String etag, Instant lastModified) {
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+
+        static Rendered of(String head, Iterable<byte[]> fragments, String tail, Instant lastModified) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            out.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+            for (byte[] fragment : fragments) {
+                out.writeBytes(fragment);
+            }
+            out.writeBytes(tail.getBytes(StandardCharsets.UTF_8));
+            byte[] body = out.toByteArray();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192)) {
+                gzip.write(body);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(body.length) + "\"";
+            return new Rendered(body, compressed.toByteArray(), etag, lastModified.truncatedTo(ChronoUnit.SECONDS));
+        }
+    }
+}
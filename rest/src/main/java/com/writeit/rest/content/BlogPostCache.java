@@ -0,0 +1,149 @@
+package com.writeit.rest.content;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded LRU cache of published blog posts keyed by slug. Each entry holds the post already
+ * serialized to JSON and rendered to an HTML page from the {@link HtmlSanitizer sanitized}
+ * content, plus the validators used for conditional requests. Entries are rendered at publish
+ * time or on first view and evicted whenever the document changes.
+ */
+@Component
+public class BlogPostCache {
+
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("d MMMM uuuu").withZone(ZoneOffset.UTC);
+
+    private final DocumentRepository documentRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<String, CachedPost> postsBySlug;
+    private final Map<Long, String> slugByDocument = new HashMap<>();
+    private long evictions;
+
+    public BlogPostCache(DocumentRepository documentRepository, ObjectMapper objectMapper,
+                         @Value("${writeit.blog.cache.max-entries:1000}") int maxEntries) {
+        this.documentRepository = documentRepository;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.postsBySlug = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPost> eldest) {
+                if (size() <= BlogPostCache.this.maxEntries) {
+                    return false;
+                }
+                slugByDocument.remove(eldest.getValue().documentId());
+                return true;
+            }
+        };
+    }
+
+    public Optional<CachedPost> find(String slug) {
+        long generation;
+        synchronized (this) {
+            CachedPost cached = postsBySlug.get(slug);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            generation = evictions;
+        }
+        Optional<Document> post = documentRepository.findByWriteItSlugAndPublishedToWriteItTrue(slug);
+        if (post.isEmpty()) {
+            return Optional.empty();
+        }
+        CachedPost rendered = render(post.get());
+        synchronized (this) {
+            if (generation == evictions) {
+                store(rendered);
+            }
+        }
+        return Optional.of(rendered);
+    }
+
+    /**
+     * Renders a freshly published post so the first visitor is already served from memory.
+     */
+    public void publish(Document document) {
+        CachedPost rendered = render(document);
+        synchronized (this) {
+            evictLocked(document.getId());
+            store(rendered);
+        }
+    }
+
+    public synchronized void evict(Long documentId) {
+        evictLocked(documentId);
+    }
+
+    private void evictLocked(Long documentId) {
+        evictions++;
+        String slug = slugByDocument.remove(documentId);
+        if (slug != null) {
+            postsBySlug.remove(slug);
+        }
+    }
+
+    private void store(CachedPost post) {
+        postsBySlug.put(post.slug(), post);
+        slugByDocument.put(post.documentId(), post.slug());
+    }
+
+    private CachedPost render(Document document) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(document);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize blog post " + document.getId(), ex);
+        }
+        Instant lastModified = latest(document.getUpdatedAt(), document.getPublishedAt()).truncatedTo(ChronoUnit.SECONDS);
+        String version = document.getId() + "-" + document.getRevision();
+        return new CachedPost(document.getId(), document.getWriteItSlug(), json, html(document).getBytes(StandardCharsets.UTF_8),
+            "\"" + version + "\"", "\"" + version + "-html\"", lastModified);
+    }
+
+    private String html(Document document) {
+        String title = XhtmlConverter.escape(document.getTitle());
+        Instant publishedAt = document.getPublishedAt();
+        String date = publishedAt == null
+            ? ""
+            : "<p><time datetime=\"" + publishedAt + "\">" + DISPLAY_DATE.format(publishedAt) + "</time></p>\n";
+        String body = MediaVariant.DISPLAY.rewriteImages(XhtmlConverter.toXhtml(HtmlSanitizer.sanitize(document.getContent())));
+        return """
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+            <meta charset="utf-8">
+            <meta name="viewport" content="width=device-width, initial-scale=1">
+            <title>%s</title>
+            </head>
+            <body>
+            <article>
+            <h1>%s</h1>
+            %s%s
+            </article>
+            </body>
+            </html>
+            """.formatted(title, title, date, body);
+    }
+
+    private static Instant latest(Instant first, Instant second) {
+        if (first == null) {
+            return second == null ? Instant.EPOCH : second;
+        }
+        return second == null || first.isAfter(second) ? first : second;
+    }
+
+    public record CachedPost(Long documentId, String slug, byte[] json, byte[] html, String jsonEtag, String htmlEtag,
+                             Instant lastModified) {}
+}
@@ -0,0 +1,48 @@
+package com.writeit.rest.content;
+
+/**
+ * An inclusive byte range of a representation, parsed from a single-range {@code Range} header.
+ */
+public record ByteRange(long start, long end) {
+
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * The range requested by {@code header} within {@code size} bytes: null when the whole
+     * representation should be sent (no header, a multi-range or malformed request), or
+     * {@link #UNSATISFIABLE} when the range lies outside it.
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).strip();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).strip();
+            String last = spec.substring(dash + 1).strip();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start < 0 || !last.isEmpty() && Long.parseLong(last) < start) {
+                return null;
+            }
+            return start >= size ? UNSATISFIABLE : new ByteRange(start, end);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.writeit.rest.content;
+
+public enum ChangeEntity {
+    DOCUMENT,
+    CHAPTER,
+    SECTION,
+    SNIPPET,
+    MEDIA
+}
@@ -0,0 +1,179 @@
+package com.writeit.rest.content;
+
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records which documents, chapters, sections, snippets and media rows changed, for
+ * {@code GET /sync}. The log keeps one row per entity holding the sequence number of its latest
+ * change, so it grows with the library rather than with the number of edits; deletions leave a
+ * tombstone row. Each write takes the next value of {@code change_log_seq} inside the caller's
+ * transaction. A sequence number is only handed out to readers once every lower one has
+ * committed or rolled back (see {@link #watermark()}), so a client that advances its token never
+ * skips a change committed late.
+ */
+@Component
+public class ChangeLog {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long completed = -1;
+
+    public ChangeLog(EntityManager entityManager, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void changed(ChangeEntity entity, Long id) {
+        if (id != null) {
+            changed(entity, List.of(id));
+        }
+    }
+
+    public void changed(ChangeEntity entity, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> append(entity, owners(entity, ids), false));
+        }
+    }
+
+    /**
+     * Records the deletion of a row. Must be called before the row is deleted, in the same
+     * transaction, so its owner can still be read. Deleting a document also records its
+     * chapters, sections and media as deleted.
+     */
+    public void deleted(ChangeEntity entity, Long id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Long> owners = owners(entity, List.of(id));
+            if (owners.isEmpty()) {
+                return;
+            }
+            append(entity, owners, true);
+            if (entity == ChangeEntity.DOCUMENT) {
+                Long userId = owners.get(id);
+                append(ChangeEntity.CHAPTER, ownedBy(userId, jdbcTemplate.queryForList(
+                    "SELECT id FROM chapters WHERE document_id = ?", Long.class, id)), true);
+                append(ChangeEntity.SECTION, ownedBy(userId, jdbcTemplate.queryForList(
+                    "SELECT s.id FROM sections s JOIN chapters c ON c.id = s.chapter_id WHERE c.document_id = ?", Long.class, id)), true);
+                append(ChangeEntity.MEDIA, ownedBy(userId, jdbcTemplate.queryForList(
+                    "SELECT id FROM media_files WHERE document_id = ?", Long.class, id)), true);
+            }
+        });
+    }
+
+    /**
+     * Changes of {@code userId}'s entities with a sequence number in {@code (since, upTo]}, oldest
+     * first.
+     */
+    public List<Change> changesSince(Long userId, long since, long upTo, int limit) {
+        return jdbcTemplate.query(
+            "SELECT entity_type, entity_id, seq, deleted FROM change_log WHERE user_id = ? AND seq > ? AND seq <= ? ORDER BY seq LIMIT ?",
+            (rs, rowNum) -> new Change(ChangeEntity.valueOf(rs.getString(1)), rs.getLong(2), rs.getLong(3), rs.getBoolean(4)),
+            userId, since, upTo, limit);
+    }
+
+    /**
+     * The highest sequence number below which every change has been committed or abandoned.
+     * In-flight numbers are tracked per process, which matches the single-instance deployment
+     * the other in-memory caches already assume.
+     */
+    public synchronized long watermark() {
+        if (completed < 0) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM change_log", Long.class);
+            completed = max == null ? 0 : max;
+        }
+        return inFlight.isEmpty() ? completed : Math.min(completed, inFlight.first() - 1);
+    }
+
+    private void append(ChangeEntity entity, Map<Long, Long> owners, boolean deleted) {
+        if (owners.isEmpty()) {
+            return;
+        }
+        long seq = allocate();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(seq);
+            }
+        });
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> updates = new ArrayList<>(owners.size());
+        owners.forEach((id, userId) -> updates.add(new Object[] {seq, userId, deleted, now, entity.name(), id}));
+        int[] updated = jdbcTemplate.batchUpdate(
+            "UPDATE change_log SET seq = ?, user_id = ?, deleted = ?, changed_at = ? WHERE entity_type = ? AND entity_id = ?", updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] row = updates.get(i);
+                inserts.add(new Object[] {row[4], row[5], seq, row[1], deleted, now});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO change_log (entity_type, entity_id, seq, user_id, deleted, changed_at) VALUES (?, ?, ?, ?, ?, ?)", inserts);
+        }
+    }
+
+    private synchronized long allocate() {
+        Long seq = jdbcTemplate.queryForObject("SELECT NEXTVAL('change_log_seq')", Long.class);
+        inFlight.add(seq);
+        return seq;
+    }
+
+    private synchronized void complete(long seq) {
+        inFlight.remove(seq);
+        completed = Math.max(completed, seq);
+    }
+
+    /**
+     * The owning user of each existing row. Goes through the entity manager so that rows still
+     * pending in the persistence context are flushed first.
+     */
+    private Map<Long, Long> owners(ChangeEntity entity, Collection<Long> ids) {
+        String query = switch (entity) {
+            case DOCUMENT -> "select d.id, d.userId from Document d where d.id in :ids";
+            case SNIPPET -> "select s.id, s.userId from Snippet s where s.id in :ids";
+            case CHAPTER -> "select c.id, d.userId from Chapter c, Document d where d.id = c.documentId and c.id in :ids";
+            case SECTION -> """
+                select s.id, d.userId from Section s, Chapter c, Document d
+                where c.id = s.chapterId and d.id = c.documentId and s.id in :ids
+                """;
+            case MEDIA -> "select m.id, d.userId from MediaFile m, Document d where d.id = m.documentId and m.id in :ids";
+        };
+        Map<Long, Long> owners = new LinkedHashMap<>();
+        List<Long> all = List.copyOf(ids);
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + CHUNK_SIZE));
+            for (Object[] row : entityManager.createQuery(query, Object[].class).setParameter("ids", chunk).getResultList()) {
+                owners.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return owners;
+    }
+
+    private static Map<Long, Long> ownedBy(Long userId, List<Long> ids) {
+        Map<Long, Long> owners = new LinkedHashMap<>();
+        ids.forEach(id -> owners.put(id, userId));
+        return owners;
+    }
+
+    public record Change(ChangeEntity entity, long id, long seq, boolean deleted) {
+    }
+}
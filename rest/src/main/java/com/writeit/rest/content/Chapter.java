@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -12,7 +13,8 @@ import jakarta.persistence.Table;
 public class Chapter {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chapters_seq")
+    @SequenceGenerator(name = "chapters_seq", sequenceName = "chapters_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "document_id", nullable = false)
@@ -22,7 +24,7 @@ public class Chapter {
     private String title;
 
     @Column(nullable = false)
-    private int position;
+    private Integer position;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -30,6 +32,6 @@ public class Chapter {
     public void setDocumentId(Long documentId) { this.documentId = documentId; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
-    public int getPosition() { return position; }
-    public void setPosition(int position) { this.position = position; }
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
 }
@@ -1,7 +1,9 @@
 package com.writeit.rest.content;
 
 import jakarta.validation.Valid;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -9,6 +11,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -16,9 +20,16 @@ import org.springframework.web.bind.annotation.RestController;
 public class ChapterController {
 
     private final ChapterRepository chapterRepository;
+    private final OutlineOrdering outlineOrdering;
+    private final ChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
 
-    public ChapterController(ChapterRepository chapterRepository) {
+    public ChapterController(ChapterRepository chapterRepository, OutlineOrdering outlineOrdering, ChangeLog changeLog,
+                             PlatformTransactionManager transactionManager) {
         this.chapterRepository = chapterRepository;
+        this.outlineOrdering = outlineOrdering;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @GetMapping("/documents/{documentId}/chapters")
@@ -30,7 +41,14 @@ public class ChapterController {
     public Chapter create(@PathVariable("documentId") Long documentId, @RequestBody @Valid Chapter chapter) {
         chapter.setId(null);
         chapter.setDocumentId(documentId);
-        return chapterRepository.save(chapter);
+        return transactionTemplate.execute(status -> {
+            if (chapter.getPosition() == null) {
+                chapter.setPosition(outlineOrdering.append(OutlineOrdering.Scope.CHAPTERS, documentId));
+            }
+            Chapter saved = chapterRepository.save(chapter);
+            changeLog.changed(ChangeEntity.CHAPTER, saved.getId());
+            return saved;
+        });
     }
 
     @PatchMapping("/documents/{documentId}/chapters/reorder")
@@ -38,16 +56,28 @@ public class ChapterController {
         @PathVariable("documentId") Long documentId,
         @RequestBody @Valid List<ChapterReorderItem> reorderItems
     ) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (ChapterReorderItem item : reorderItems) {
+            positions.put(item.chapterId(), item.position());
+        }
+        outlineOrdering.reorder(OutlineOrdering.Scope.CHAPTERS, documentId, positions);
         List<Chapter> chapters = chapterRepository.findByDocumentIdOrderByPositionAsc(documentId);
         if (chapters.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        for (ChapterReorderItem item : reorderItems) {
-            chapters.stream()
-                .filter(chapter -> chapter.getId().equals(item.chapterId()))
-                .findFirst()
-                .ifPresent(chapter -> chapter.setPosition(item.position()));
+        return ResponseEntity.ok(chapters);
+    }
+
+    @PatchMapping("/documents/{documentId}/chapters/{chapterId}/move")
+    public ResponseEntity<OutlinePosition> move(
+        @PathVariable("documentId") Long documentId,
+        @PathVariable("chapterId") Long chapterId,
+        @RequestBody OutlineMoveRequest request
+    ) {
+        Integer position = outlineOrdering.move(OutlineOrdering.Scope.CHAPTERS, documentId, chapterId, request.afterId());
+        if (position == null) {
+            return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(chapterRepository.saveAll(chapters));
+        return ResponseEntity.ok(new OutlinePosition(chapterId, position));
     }
 }
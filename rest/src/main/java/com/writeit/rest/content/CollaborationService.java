@@ -0,0 +1,314 @@
+package com.writeit.rest.content;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * Coordinates real-time editing of documents and sections. The first editor to connect loads the
+ * text into a {@link CollaborationSession}; edits are rebased, applied in memory and broadcast to
+ * the other editors, and every dirty session is written back once per
+ * {@code writeit.collab.flush-interval}, so the number of database writes follows the number of
+ * open documents rather than the number of keystrokes. The last editor to leave flushes the
+ * session and closes it. A flush only replaces the text the session last stored; if the document
+ * or section was written elsewhere in the meantime, that write is rebased into the session and
+ * broadcast like an edit before the merged text is stored.
+ */
+@Service
+public class CollaborationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CollaborationService.class);
+    private static final int MAX_MERGES = 3;
+
+    private final DocumentService documentService;
+    private final SectionRepository sectionRepository;
+    private final ChapterRepository chapterRepository;
+    private final DocumentSearchIndex searchIndex;
+    private final ChangeLog changeLog;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int historySize;
+    private final ConcurrentMap<Target, CollaborationSession> sessions = new ConcurrentHashMap<>();
+
+    public CollaborationService(DocumentService documentService, SectionRepository sectionRepository,
+                                ChapterRepository chapterRepository, DocumentSearchIndex searchIndex, ChangeLog changeLog,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                @Value("${writeit.collab.history-size:1000}") int historySize) {
+        this.documentService = documentService;
+        this.sectionRepository = sectionRepository;
+        this.chapterRepository = chapterRepository;
+        this.searchIndex = searchIndex;
+        this.changeLog = changeLog;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.historySize = historySize;
+    }
+
+    /**
+     * Adds {@code editor} to the session of {@code target}, opening it if needed, and sends the
+     * editor the current text. Returns false if the target does not exist.
+     */
+    public boolean join(Target target, WebSocketSession editor) {
+        while (true) {
+            CollaborationSession session = sessions.get(target);
+            if (session == null) {
+                CollaborationSession opened = open(target);
+                if (opened == null) {
+                    return false;
+                }
+                session = sessions.putIfAbsent(target, opened);
+                if (session == null) {
+                    session = opened;
+                }
+            }
+            synchronized (session) {
+                if (session.addEditor(editor)) {
+                    send(editor, CollabMessage.snapshot(editor.getId(), session.revision(), session.content(),
+                        session.editorCount()));
+                    return true;
+                }
+            }
+            // The last editor left and closed it after its final flush; open the stored text again.
+            sessions.remove(target, session);
+        }
+    }
+
+    public void leave(Target target, WebSocketSession editor) {
+        CollaborationSession session = sessions.get(target);
+        if (session != null && session.removeEditor(editor.getId())) {
+            flushAndClose(session);
+        }
+    }
+
+    /**
+     * Applies an editor's operations, acknowledges them with the new revision and broadcasts the
+     * rebased operations to the other editors. Rejected operations are answered with the reason
+     * and a fresh snapshot to resynchronise from.
+     */
+    public void receive(Target target, WebSocketSession editor, CollabMessage message) {
+        CollaborationSession session = sessions.get(target);
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            CollaborationSession.Applied applied;
+            try {
+                if (message.revision() == null || message.operations() == null) {
+                    throw new IllegalArgumentException("revision and operations are required");
+                }
+                applied = session.apply(message.revision(), message.operations());
+            } catch (ResponseStatusException | IllegalArgumentException ex) {
+                String reason = ex instanceof ResponseStatusException status ? status.getReason() : ex.getMessage();
+                send(editor, CollabMessage.reject(message.opId(), reason));
+                send(editor, CollabMessage.snapshot(editor.getId(), session.revision(), session.content(),
+                    session.editorCount()));
+                return;
+            }
+            send(editor, CollabMessage.ack(message.opId(), applied.revision()));
+            if (applied.operations().isEmpty()) {
+                return;
+            }
+            CollabMessage broadcast = CollabMessage.operations(editor.getId(), applied.revision(), applied.operations());
+            for (WebSocketSession other : session.editors()) {
+                if (!other.getId().equals(editor.getId())) {
+                    send(other, broadcast);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${writeit.collab.flush-interval:PT1S}")
+    public void flushAll() {
+        for (CollaborationSession session : sessions.values()) {
+            // A session left without editors by a failed final flush is closed once it saves.
+            flushAndClose(session);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushAll();
+    }
+
+    private CollaborationSession open(Target target) {
+        if (target.kind() == Kind.DOCUMENT) {
+            return documentService.getById(target.id())
+                .map(document -> new CollaborationSession(target, document.getContent(), document.getWordCount(), historySize))
+                .orElse(null);
+        }
+        return sectionRepository.findById(target.id())
+            .map(section -> new CollaborationSession(target, section.getContent(),
+                ContentMetrics.countWords(section.getContent()), historySize))
+            .orElse(null);
+    }
+
+    /**
+     * Flushes {@code session} and, if it is left without editors or unsaved edits, closes it and
+     * removes it from the open sessions. Nothing here runs inside a map callback, so the database
+     * and the editors' sockets never hold up other documents.
+     */
+    private void flushAndClose(CollaborationSession session) {
+        synchronized (session.flushLock()) {
+            if (flush(session) && session.closeIfIdle()) {
+                sessions.remove(session.target(), session);
+            }
+        }
+    }
+
+    /**
+     * Writes the session's text back if it changed, first merging any text stored outside the
+     * session. Returns false if the write failed and is left for the next interval.
+     */
+    private boolean flush(CollaborationSession session) {
+        CollaborationSession.Pending pending = session.takePending();
+        if (pending == null) {
+            return true;
+        }
+        try {
+            for (int merges = 0; merges < MAX_MERGES; merges++) {
+                Optional<String> external = store(session.target(), pending);
+                if (external.isEmpty()) {
+                    session.markSaved(pending);
+                    return true;
+                }
+                merge(session, external.get());
+                pending = session.takePending();
+                if (pending == null) {
+                    return true;
+                }
+            }
+            session.markDirty();
+            log.warn("Collaborative edits of {} kept conflicting with other writes, retrying next interval", session.target());
+            return false;
+        } catch (RuntimeException ex) {
+            session.markDirty();
+            log.warn("Failed to save collaborative edits of {} at revision {}, retrying next interval",
+                session.target(), pending.revision(), ex);
+            return false;
+        }
+    }
+
+    /**
+     * Stores {@code pending} if the stored text is still the one it replaces; otherwise returns
+     * the stored text.
+     */
+    private Optional<String> store(Target target, CollaborationSession.Pending pending) {
+        if (target.kind() == Kind.DOCUMENT) {
+            return documentService.replaceContent(target.id(), pending.saved(), pending.content(), pending.wordCount());
+        }
+        return saveSection(target.id(), pending.saved(), pending.content());
+    }
+
+    /**
+     * Rebases {@code external} into the session and broadcasts it to every editor. If the edits
+     * since the last save can no longer be rebased, the session is reset to {@code external}.
+     */
+    private void merge(CollaborationSession session, String external) {
+        synchronized (session) {
+            try {
+                CollaborationSession.Applied applied = session.mergeExternal(external);
+                if (!applied.operations().isEmpty()) {
+                    CollabMessage broadcast = CollabMessage.operations(null, applied.revision(), applied.operations());
+                    session.editors().forEach(editor -> send(editor, broadcast));
+                }
+            } catch (ResponseStatusException ex) {
+                log.warn("Replacing unsaved collaborative edits of {} with text stored elsewhere: {}",
+                    session.target(), ex.getReason());
+                session.reset(external);
+                for (WebSocketSession editor : session.editors()) {
+                    send(editor, CollabMessage.snapshot(editor.getId(), session.revision(), session.content(),
+                        session.editorCount()));
+                }
+            }
+        }
+    }
+
+    private Optional<String> saveSection(Long id, String expected, String content) {
+        return transactionTemplate.execute(status -> {
+            Section section = sectionRepository.findForUpdate(id).orElse(null);
+            if (section == null) {
+                return Optional.empty();
+            }
+            String stored = section.getContent() == null ? "" : section.getContent();
+            if (!stored.equals(expected)) {
+                return Optional.of(stored);
+            }
+            section.setContent(content);
+            Section saved = sectionRepository.save(section);
+            chapterRepository.findById(saved.getChapterId())
+                .ifPresent(chapter -> searchIndex.indexSection(chapter.getDocumentId(), saved));
+            changeLog.changed(ChangeEntity.SECTION, id);
+            return Optional.empty();
+        });
+    }
+
+    private void send(WebSocketSession editor, CollabMessage message) {
+        if (!editor.isOpen()) {
+            return;
+        }
+        try {
+            editor.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Could not send to editor {}", editor.getId(), ex);
+        }
+    }
+
+    public enum Kind {
+        DOCUMENT,
+        SECTION
+    }
+
+    public record Target(Kind kind, Long id) {
+    }
+
+    /**
+     * A message on the collaboration channel. Clients send {@code ops} with the revision their
+     * operations were written against; the server answers with {@code snapshot}, {@code ack},
+     * {@code ops} from other editors and {@code reject}.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CollabMessage(
+        String type,
+        String clientId,
+        String opId,
+        Long revision,
+        String content,
+        Integer editors,
+        List<TextOperation> operations,
+        String message
+    ) {
+        static CollabMessage snapshot(String clientId, long revision, String content, int editors) {
+            return new CollabMessage("snapshot", clientId, null, revision, content, editors, null, null);
+        }
+
+        static CollabMessage ack(String opId, long revision) {
+            return new CollabMessage("ack", null, opId, revision, null, null, null, null);
+        }
+
+        static CollabMessage operations(String clientId, long revision, List<TextOperation> operations) {
+            return new CollabMessage("ops", clientId, null, revision, null, null, operations, null);
+        }
+
+        static CollabMessage reject(String opId, String message) {
+            return new CollabMessage("reject", null, opId, null, null, null, null, message);
+        }
+    }
+}
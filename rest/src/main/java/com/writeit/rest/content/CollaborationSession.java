@@ -0,0 +1,195 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * The live state of one document or section being edited together: the current text, its
+ * revision, the operations of the last {@code historySize} revisions for rebasing late edits,
+ * and the connected editors. Edits change only this in-memory copy; it is marked dirty and
+ * written back by {@link CollaborationService} on its flush interval. The session also remembers
+ * the text last known to be stored and the revision it matches, so a write made outside the
+ * session can be rebased into it with {@link #mergeExternal} instead of being overwritten.
+ */
+class CollaborationSession {
+
+    private final CollaborationService.Target target;
+    private final StringBuilder content;
+    private final int historySize;
+    private final ArrayDeque<List<TextOperation>> history = new ArrayDeque<>();
+    private final Map<String, WebSocketSession> editors = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private int wordCount;
+    private long revision;
+    private boolean dirty;
+    private String saved;
+    private long savedRevision;
+    private boolean closed;
+
+    CollaborationSession(CollaborationService.Target target, String content, int wordCount, int historySize) {
+        this.target = target;
+        this.content = new StringBuilder(content == null ? "" : content);
+        this.wordCount = wordCount;
+        this.historySize = Math.max(1, historySize);
+        this.saved = this.content.toString();
+    }
+
+    CollaborationService.Target target() {
+        return target;
+    }
+
+    /**
+     * Held while the session is written back, so only one flush stores it at a time. Edits only
+     * take the session's own monitor and are not held up by the database.
+     */
+    Object flushLock() {
+        return flushLock;
+    }
+
+    synchronized long revision() {
+        return revision;
+    }
+
+    synchronized String content() {
+        return content.toString();
+    }
+
+    /**
+     * Rebases {@code operations}, written against {@code baseRevision}, over the revisions applied
+     * since and applies them as the next revision.
+     */
+    synchronized Applied apply(long baseRevision, List<TextOperation> operations) {
+        long oldest = revision - history.size();
+        if (baseRevision > revision || baseRevision < oldest) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Revision " + baseRevision + " is not within " + oldest + ".." + revision);
+        }
+        List<TextOperation> rebased = OperationalTransform.normalize(operations);
+        Iterator<List<TextOperation>> later = history.iterator();
+        for (long skipped = oldest; skipped < baseRevision; skipped++) {
+            later.next();
+        }
+        while (later.hasNext()) {
+            rebased = OperationalTransform.transform(rebased, later.next());
+        }
+        OperationalTransform.validate(rebased, content.length());
+        for (TextOperation operation : rebased) {
+            wordCount += ContentPatcher.apply(content, operation);
+        }
+        wordCount = Math.max(0, wordCount);
+        revision++;
+        history.addLast(List.copyOf(rebased));
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        dirty |= !rebased.isEmpty();
+        return new Applied(revision, rebased);
+    }
+
+    /**
+     * Returns the content to persist and clears the dirty flag, or null if nothing changed since
+     * the last call.
+     */
+    synchronized Pending takePending() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        return new Pending(content.toString(), wordCount, revision, saved);
+    }
+
+    /**
+     * Records that {@code pending} has been stored.
+     */
+    synchronized void markSaved(Pending pending) {
+        saved = pending.content();
+        savedRevision = pending.revision();
+    }
+
+    /**
+     * Applies the change from the last stored text to {@code external}, written outside the
+     * session, as the next revision, rebased over the edits made since that text was stored.
+     * Throws {@link HttpStatus#CONFLICT} if those edits are no longer in the history.
+     */
+    synchronized Applied mergeExternal(String external) {
+        if (savedRevision < 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The stored text is not a revision of this session");
+        }
+        Applied applied = apply(savedRevision, OperationalTransform.diff(saved, external));
+        // The stored text is not a revision of the session until the merge is saved.
+        saved = external;
+        savedRevision = -1;
+        return applied;
+    }
+
+    /**
+     * Replaces the text with {@code stored} as a new revision that cannot be rebased over, and
+     * drops the unsaved edits.
+     */
+    synchronized void reset(String stored) {
+        content.setLength(0);
+        content.append(stored);
+        wordCount = ContentMetrics.countWords(stored);
+        revision++;
+        history.clear();
+        dirty = false;
+        saved = stored;
+        savedRevision = revision;
+    }
+
+    synchronized void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Adds {@code editor} unless the session was closed, in which case the caller opens a new one.
+     */
+    synchronized boolean addEditor(WebSocketSession editor) {
+        if (closed) {
+            return false;
+        }
+        editors.put(editor.getId(), editor);
+        return true;
+    }
+
+    synchronized boolean removeEditor(String editorId) {
+        editors.remove(editorId);
+        return editors.isEmpty();
+    }
+
+    /**
+     * Closes the session if it has no editors and nothing left to store.
+     */
+    synchronized boolean closeIfIdle() {
+        if (!editors.isEmpty() || dirty) {
+            return false;
+        }
+        closed = true;
+        return true;
+    }
+
+    synchronized int editorCount() {
+        return editors.size();
+    }
+
+    synchronized Collection<WebSocketSession> editors() {
+        return new ArrayList<>(editors.values());
+    }
+
+    record Applied(long revision, List<TextOperation> operations) {
+    }
+
+    /**
+     * Text to store, expected to replace {@code saved}.
+     */
+    record Pending(String content, int wordCount, long revision, String saved) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.writeit.rest.content;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * The WebSocket endpoint of {@link CollaborationService}, mapped to
+ * {@code /api/v1/collab/documents/{id}} and {@code /api/v1/collab/sections/{id}}.
+ */
+@Component
+public class CollaborationWebSocketHandler extends TextWebSocketHandler {
+
+    public static final String DOCUMENTS_PATH = "/api/v1/collab/documents/";
+    public static final String SECTIONS_PATH = "/api/v1/collab/sections/";
+    private static final CloseStatus NOT_FOUND = new CloseStatus(4404, "Not found");
+    private static final String TARGET = "collab.target";
+    private static final String EDITOR = "collab.editor";
+    private static final int SEND_TIME_LIMIT_MILLIS = 10_000;
+
+    private final CollaborationService collaborationService;
+    private final ObjectMapper objectMapper;
+    private final int maxMessageBytes;
+
+    public CollaborationWebSocketHandler(CollaborationService collaborationService, ObjectMapper objectMapper,
+                                         @Value("${writeit.collab.max-message-size:512KB}") DataSize maxMessageSize) {
+        this.collaborationService = collaborationService;
+        this.objectMapper = objectMapper;
+        this.maxMessageBytes = (int) maxMessageSize.toBytes();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        CollaborationService.Target target = target(session.getUri());
+        if (target == null) {
+            session.close(NOT_FOUND);
+            return;
+        }
+        session.setTextMessageSizeLimit(maxMessageBytes);
+        // Broadcasts come from other editors' threads; the decorator serialises and buffers them.
+        WebSocketSession editor = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS, 2 * maxMessageBytes);
+        session.getAttributes().put(TARGET, target);
+        session.getAttributes().put(EDITOR, editor);
+        if (!collaborationService.join(target, editor)) {
+            session.getAttributes().remove(TARGET);
+            session.close(NOT_FOUND);
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        CollaborationService.Target target = (CollaborationService.Target) session.getAttributes().get(TARGET);
+        if (target == null) {
+            return;
+        }
+        CollaborationService.CollabMessage received;
+        try {
+            received = objectMapper.readValue(message.getPayload(), CollaborationService.CollabMessage.class);
+        } catch (JsonProcessingException ex) {
+            session.close(CloseStatus.BAD_DATA.withReason("Malformed message"));
+            return;
+        }
+        if ("ops".equals(received.type())) {
+            collaborationService.receive(target, (WebSocketSession) session.getAttributes().get(EDITOR), received);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        CollaborationService.Target target = (CollaborationService.Target) session.getAttributes().get(TARGET);
+        if (target != null) {
+            collaborationService.leave(target, (WebSocketSession) session.getAttributes().get(EDITOR));
+        }
+    }
+
+    static CollaborationService.Target target(URI uri) {
+        String path = uri == null ? "" : uri.getPath();
+        CollaborationService.Kind kind;
+        String id;
+        if (path.startsWith(DOCUMENTS_PATH)) {
+            kind = CollaborationService.Kind.DOCUMENT;
+            id = path.substring(DOCUMENTS_PATH.length());
+        } else if (path.startsWith(SECTIONS_PATH)) {
+            kind = CollaborationService.Kind.SECTION;
+            id = path.substring(SECTIONS_PATH.length());
+        } else {
+            return null;
+        }
+        try {
+            return new CollaborationService.Target(kind, Long.valueOf(id));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.writeit.rest.content;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Stores large text bodies deflated in their BYTEA column. A compressed value is {@link #HEADER}
+ * followed by the zlib-deflated UTF-8 bytes; anything else is plain UTF-8, so rows written before
+ * compression was enabled, and values below the threshold, read back unchanged. The header starts
+ * with 0xFF, which never begins UTF-8 text. Values written as {@link #LEGACY_MARKER} plus Base64
+ * while the columns were still TEXT are read as well. Values are only inflated when a query
+ * actually selects the column.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    static final byte[] HEADER = {(byte) 0xFF, 'z', '2'};
+    static final String LEGACY_MARKER = "\u0001z1:";
+
+    private final boolean enabled;
+    private final int minLength;
+
+    public CompressedTextConverter(@Value("${writeit.storage.compression.enabled:false}") boolean enabled,
+                                   @Value("${writeit.storage.compression.min-length:2048}") int minLength) {
+        this.enabled = enabled;
+        this.minLength = minLength;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] plain = text.getBytes(StandardCharsets.UTF_8);
+        // Plain text that happens to start with the legacy marker is always compressed so it reads back intact.
+        boolean mustCompress = text.startsWith(LEGACY_MARKER);
+        if (!mustCompress && (!enabled || text.length() < minLength)) {
+            return plain;
+        }
+        byte[] compressed = compress(plain);
+        return mustCompress || compressed.length < plain.length ? compressed : plain;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (isCompressed(stored)) {
+            return decompress(stored, HEADER.length, stored.length - HEADER.length);
+        }
+        String text = new String(stored, StandardCharsets.UTF_8);
+        if (text.startsWith(LEGACY_MARKER)) {
+            byte[] deflated = Base64.getDecoder().decode(text.substring(LEGACY_MARKER.length()));
+            return decompress(deflated, 0, deflated.length);
+        }
+        return text;
+    }
+
+    static boolean isCompressed(byte[] stored) {
+        return stored != null && stored.length >= HEADER.length
+            && Arrays.equals(stored, 0, HEADER.length, HEADER, 0, HEADER.length);
+    }
+
+    static byte[] compress(byte[] input) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 64);
+            out.writeBytes(HEADER);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static String decompress(byte[] input, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Corrupt compressed text", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+}
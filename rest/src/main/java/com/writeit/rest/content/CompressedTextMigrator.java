@@ -0,0 +1,134 @@
+package com.writeit.rest.content;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compresses bodies that were stored before compression was enabled. Each run takes the next
+ * batch of plain rows above the threshold, and of rows still in the legacy Base64 form, from
+ * every table in id order, deflates them in memory and writes them back in one JDBC batch. A row
+ * is only replaced while it still holds the bytes that were read, so a concurrent edit always
+ * wins; the edit itself is stored compressed anyway.
+ */
+@Component
+public class CompressedTextMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressedTextMigrator.class);
+    private static final byte[] LEGACY_MARKER = CompressedTextConverter.LEGACY_MARKER.getBytes(StandardCharsets.UTF_8);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CompressedTextConverter converter;
+    private final boolean enabled;
+    private final int minLength;
+    private final int batchSize;
+    private final Map<Table, Long> lastIds = new EnumMap<>(Table.class);
+    private long rows;
+    private long bytesBefore;
+    private long bytesAfter;
+
+    public CompressedTextMigrator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  @Value("${writeit.storage.compression.enabled:false}") boolean compressionEnabled,
+                                  @Value("${writeit.storage.compression.migrator.enabled:true}") boolean migratorEnabled,
+                                  @Value("${writeit.storage.compression.min-length:2048}") int minLength,
+                                  @Value("${writeit.storage.compression.migrator.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.converter = new CompressedTextConverter(true, minLength);
+        this.enabled = compressionEnabled && migratorEnabled;
+        this.minLength = minLength;
+        this.batchSize = Math.max(1, batchSize);
+        for (Table table : Table.values()) {
+            lastIds.put(table, 0L);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${writeit.storage.compression.migrator.interval:PT5S}",
+        fixedDelayString = "${writeit.storage.compression.migrator.interval:PT5S}")
+    public void migrate() {
+        if (enabled && !isFinished()) {
+            migrateBatch();
+        }
+    }
+
+    public synchronized boolean isFinished() {
+        return lastIds.isEmpty();
+    }
+
+    /**
+     * Compresses the next batch of each table that still has plain rows and returns the number
+     * of rows rewritten.
+     */
+    public synchronized int migrateBatch() {
+        boolean running = !lastIds.isEmpty();
+        int rewritten = 0;
+        for (Table table : Table.values()) {
+            Long after = lastIds.get(table);
+            if (after != null) {
+                rewritten += transactionTemplate.execute(status -> migrate(table, after));
+            }
+        }
+        if (running && lastIds.isEmpty()) {
+            log.info("Compressed {} stored bodies from {} to {} bytes", rows, bytesBefore, bytesAfter);
+        }
+        return rewritten;
+    }
+
+    private int migrate(Table table, long after) {
+        List<Row> batch = jdbcTemplate.query(
+            "select id, content from " + table.name + " where id > ? and substring(content from 1 for 1) <> ?"
+                + " and (octet_length(content) >= ? or substring(content from 1 for ?) = ?) order by id limit ?",
+            (rs, rowNum) -> new Row(rs.getLong(1), rs.getBytes(2)),
+            after, new byte[] {CompressedTextConverter.HEADER[0]}, minLength, LEGACY_MARKER.length, LEGACY_MARKER,
+            batchSize);
+        if (batch.size() < batchSize) {
+            lastIds.remove(table);
+        } else {
+            lastIds.put(table, batch.get(batch.size() - 1).id());
+        }
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            byte[] stored = converter.convertToDatabaseColumn(converter.convertToEntityAttribute(row.content()));
+            if (CompressedTextConverter.isCompressed(stored)) {
+                updates.add(new Object[] {stored, row.id(), row.content()});
+                bytesBefore += row.content().length;
+                bytesAfter += stored.length;
+            }
+        }
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int rewritten = 0;
+        for (int count : jdbcTemplate.batchUpdate("update " + table.name + " set content = ? where id = ? and content = ?", updates)) {
+            rewritten += Math.max(count, 0);
+        }
+        rows += rewritten;
+        return rewritten;
+    }
+
+    enum Table {
+        DOCUMENTS("documents"),
+        SECTIONS("sections"),
+        DOCUMENT_VERSIONS("document_versions");
+
+        private final String name;
+
+        Table(String name) {
+            this.name = name;
+        }
+    }
+
+    private record Row(long id, byte[] content) {
+    }
+}
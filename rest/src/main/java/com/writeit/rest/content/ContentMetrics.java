@@ -1,17 +1,41 @@
 package com.writeit.rest.content;
 
+/**
+ * Text statistics computed in a single scan over the characters of the content, without
+ * regex or per-word allocation. Words are runs of characters other than the regex {@code \s}
+ * set, which keeps the counts identical to splitting on whitespace. Markup inside tags counts
+ * towards words but not towards sentences, and block tags such as {@code <p>} start a new
+ * paragraph just like a blank line does.
+ */
 public final class ContentMetrics {
 
     private static final int WORDS_PER_MINUTE = 200;
+    private static final String[] BLOCK_TAGS = {"p", "div", "li", "blockquote", "pre", "h1", "h2", "h3", "h4", "h5", "h6"};
+    private static final Summary EMPTY = new Summary(0, 0, 0, 0, 0);
 
     private ContentMetrics() {
     }
 
     public static int countWords(String content) {
-        if (content == null || content.isBlank()) {
-            return 0;
+        return analyze(content).words();
+    }
+
+    /**
+     * Counts words in {@code content[from, to)} by separators alone. Used to re-count the span
+     * around an edit, so the range should start and end at a separator or at the text bounds.
+     */
+    public static int countWords(CharSequence content, int from, int to) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = from; i < to; i++) {
+            if (isSeparator(content.charAt(i))) {
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                words++;
+            }
         }
-        return content.trim().split("\\s+").length;
+        return words;
     }
 
     public static int estimateReadingTimeMinutes(int words) {
@@ -20,4 +44,109 @@ public final class ContentMetrics {
         }
         return (int) Math.ceil((double) words / WORDS_PER_MINUTE);
     }
+
+    public static Summary analyze(CharSequence content) {
+        if (content == null) {
+            return EMPTY;
+        }
+        int length = content.length();
+        int words = 0;
+        int sentences = 0;
+        int paragraphs = 0;
+        long wordLetters = 0;
+        boolean blank = true;
+        boolean inWord = false;
+        boolean inTag = false;
+        boolean sentenceOpen = false;
+        boolean sentenceEnding = false;
+        boolean paragraphOpen = false;
+        int newlines = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = content.charAt(i);
+            if (isSeparator(c)) {
+                inWord = false;
+                if (sentenceEnding) {
+                    sentences++;
+                    sentenceOpen = false;
+                    sentenceEnding = false;
+                }
+                if (c == '\n' && ++newlines == 2 && paragraphOpen) {
+                    paragraphs++;
+                    paragraphOpen = false;
+                }
+                continue;
+            }
+            newlines = 0;
+            blank &= Character.isWhitespace(c);
+            if (!inWord) {
+                inWord = true;
+                words++;
+            }
+            if (inTag) {
+                inTag = c != '>';
+                continue;
+            }
+            if (c == '<' && i + 1 < length && HtmlText.isTagStart(content.charAt(i + 1))) {
+                inTag = true;
+                if (isBlockTag(content, i + 1)) {
+                    if (sentenceOpen) {
+                        sentences++;
+                        sentenceOpen = false;
+                        sentenceEnding = false;
+                    }
+                    if (paragraphOpen) {
+                        paragraphs++;
+                        paragraphOpen = false;
+                    }
+                }
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                wordLetters++;
+                sentenceOpen = true;
+                sentenceEnding = false;
+                paragraphOpen = true;
+            } else if (c == '.' || c == '!' || c == '?') {
+                sentenceEnding = sentenceOpen;
+            }
+        }
+        if (blank) {
+            return EMPTY;
+        }
+        if (sentenceOpen) {
+            sentences++;
+        }
+        if (paragraphOpen) {
+            paragraphs++;
+        }
+        double averageWordLength = words == 0 ? 0 : (double) wordLetters / words;
+        return new Summary(words, sentences, paragraphs, averageWordLength, estimateReadingTimeMinutes(words));
+    }
+
+    static boolean isSeparator(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    private static boolean isBlockTag(CharSequence content, int nameStart) {
+        for (String tag : BLOCK_TAGS) {
+            int end = nameStart + tag.length();
+            if (end <= content.length() && regionMatches(content, nameStart, tag)
+                && (end == content.length() || !Character.isLetterOrDigit(content.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(CharSequence content, int from, String tag) {
+        for (int i = 0; i < tag.length(); i++) {
+            if (Character.toLowerCase(content.charAt(from + i)) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public record Summary(int words, int sentences, int paragraphs, double averageWordLength, int readingTimeMinutes) {}
 }
@@ -0,0 +1,45 @@
+package com.writeit.rest.content;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Applies positional text operations to document content and reports how the word count
+ * changed. Only the span between the separators surrounding an edit is re-counted, so the cost
+ * follows the size of the edit rather than the size of the document.
+ */
+public final class ContentPatcher {
+
+    private ContentPatcher() {
+    }
+
+    /**
+     * Applies {@code operation} to {@code content} in place and returns the change in word count.
+     * Offsets refer to the content as left by the previous operation.
+     */
+    public static int apply(StringBuilder content, TextOperation operation) {
+        int start = operation.offset();
+        int removed = operation.type() == TextOperationType.INSERT ? 0 : operation.length();
+        String inserted = operation.type() == TextOperationType.DELETE || operation.text() == null ? "" : operation.text();
+        if (start < 0 || removed < 0 || start > content.length() || removed > content.length() - start) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Operation " + operation.type() + " at " + start + "+" + removed + " is outside the content");
+        }
+        if (operation.type() != TextOperationType.DELETE && operation.text() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, operation.type() + " requires text");
+        }
+
+        int left = start;
+        while (left > 0 && !ContentMetrics.isSeparator(content.charAt(left - 1))) {
+            left--;
+        }
+        int right = start + removed;
+        while (right < content.length() && !ContentMetrics.isSeparator(content.charAt(right))) {
+            right++;
+        }
+        int before = ContentMetrics.countWords(content, left, right);
+        content.replace(start, start + removed, inserted);
+        int after = ContentMetrics.countWords(content, left, right - removed + inserted.length());
+        return after - before;
+    }
+}
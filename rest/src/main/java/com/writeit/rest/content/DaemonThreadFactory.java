@@ -0,0 +1,25 @@
+package com.writeit.rest.content;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Names pool threads {@code <prefix><n>} and makes them daemons, so a pool that is still busy
+ * never keeps the JVM from exiting.
+ */
+final class DaemonThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    DaemonThreadFactory(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
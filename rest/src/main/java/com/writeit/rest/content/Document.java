@@ -1,6 +1,7 @@
 package com.writeit.rest.content;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -10,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.Instant;
 
 @Entity
@@ -27,7 +29,8 @@ public class Document {
     @Column(nullable = false)
     private DocumentType type;
 
-    @Column(columnDefinition = "TEXT")
+    @Column(columnDefinition = "BYTEA")
+    @Convert(converter = CompressedTextConverter.class)
     private String content;
 
     @Column(name = "user_id", nullable = false)
@@ -54,12 +57,36 @@ public class Document {
     @Column(name = "published_at")
     private Instant publishedAt;
 
+    @Version
+    @Column(name = "revision", nullable = false)
+    private long revision;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    Document copy() {
+        Document copy = new Document();
+        copy.id = id;
+        copy.title = title;
+        copy.type = type;
+        copy.content = content;
+        copy.userId = userId;
+        copy.wordCount = wordCount;
+        copy.readingTimeMinutes = readingTimeMinutes;
+        copy.tags = tags;
+        copy.category = category;
+        copy.publishedToWriteIt = publishedToWriteIt;
+        copy.writeItSlug = writeItSlug;
+        copy.publishedAt = publishedAt;
+        copy.revision = revision;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
     @PrePersist
     void prePersist() {
         Instant now = Instant.now();
@@ -96,6 +123,8 @@ public class Document {
     public void setWriteItSlug(String writeItSlug) { this.writeItSlug = writeItSlug; }
     public Instant getPublishedAt() { return publishedAt; }
     public void setPublishedAt(Instant publishedAt) { this.publishedAt = publishedAt; }
+    public long getRevision() { return revision; }
+    void setRevision(long revision) { this.revision = revision; }
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
 }
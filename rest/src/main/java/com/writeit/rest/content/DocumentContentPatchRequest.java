@@ -0,0 +1,12 @@
+package com.writeit.rest.content;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+public record DocumentContentPatchRequest(
+    @NotNull Long baseRevision,
+    @NotEmpty List<@Valid TextOperation> operations
+) {
+}
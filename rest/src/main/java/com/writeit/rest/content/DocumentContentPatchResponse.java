@@ -0,0 +1,4 @@
+package com.writeit.rest.content;
+
+public record DocumentContentPatchResponse(Long id, long revision, int wordCount, int readingTimeMinutes, int contentLength) {
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -27,15 +28,27 @@ public class DocumentController {
     }
 
     @GetMapping
-    public List<Document> listByUser(@RequestParam("userId") Long userId,
-                                     @RequestParam(value = "query", required = false) String query,
-                                     @RequestParam(value = "tag", required = false) String tag) {
-        return documentService.listByUser(userId, query, tag);
+    public CursorPage<DocumentSummary> listByUser(@RequestParam("userId") Long userId,
+                                                  @RequestParam(value = "query", required = false) String query,
+                                                  @RequestParam(value = "tag", required = false) List<String> tags,
+                                                  @RequestParam(value = "anyTag", required = false) List<String> anyTags,
+                                                  @RequestParam(value = "category", required = false) String category,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return documentService.listByUser(userId, query, TagFilter.of(tags, anyTags, category), cursor, limit);
+    }
+
+    @GetMapping("/facets")
+    public TagFacets facets(@RequestParam("userId") Long userId,
+                            @RequestParam(value = "tag", required = false) List<String> tags,
+                            @RequestParam(value = "anyTag", required = false) List<String> anyTags,
+                            @RequestParam(value = "category", required = false) String category) {
+        return documentService.facets(userId, TagFilter.of(tags, anyTags, category));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Document> getById(@PathVariable("id") Long id) {
-        return documentRepository.findById(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return documentService.getById(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -46,18 +59,27 @@ public class DocumentController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Document> update(@PathVariable("id") Long id, @RequestBody @Valid DocumentRequest request) {
-        if (!documentRepository.existsById(id)) {
+        if (!documentService.exists(id)) {
             return ResponseEntity.notFound().build();
         }
         return ResponseEntity.ok(documentService.update(id, request));
     }
 
+    @PatchMapping("/{id}/content")
+    public ResponseEntity<DocumentContentPatchResponse> patchContent(@PathVariable("id") Long id,
+                                                                     @RequestBody @Valid DocumentContentPatchRequest request) {
+        if (!documentRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(documentService.patchContent(id, request));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable("id") Long id) {
         if (!documentRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
-        documentRepository.deleteById(id);
+        documentService.delete(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -70,10 +92,21 @@ public class DocumentController {
     }
 
     @GetMapping("/{id}/versions")
-    public ResponseEntity<List<DocumentVersion>> listVersions(@PathVariable("id") Long id) {
+    public ResponseEntity<List<DocumentVersionResponse>> listVersions(
+        @PathVariable("id") Long id,
+        @RequestParam(value = "includeContent", defaultValue = "false") boolean includeContent
+    ) {
         if (!documentRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(documentService.listVersions(id));
+        return ResponseEntity.ok(documentService.listVersions(id, includeContent));
+    }
+
+    @GetMapping("/{id}/versions/{versionNumber}")
+    public ResponseEntity<DocumentVersionResponse> getVersion(@PathVariable("id") Long id,
+                                                              @PathVariable("versionNumber") int versionNumber) {
+        return documentService.getVersion(id, versionNumber)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
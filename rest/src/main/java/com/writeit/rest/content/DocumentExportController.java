@@ -1,59 +1,71 @@
 package com.writeit.rest.content;
 
-import java.nio.charset.StandardCharsets;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Base64;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/documents")
 public class DocumentExportController {
 
     private final DocumentRepository documentRepository;
+    private final DocumentExportService exportService;
+    private final DocumentWriteBuffer writeBuffer;
 
-    public DocumentExportController(DocumentRepository documentRepository) {
+    public DocumentExportController(DocumentRepository documentRepository, DocumentExportService exportService,
+                                    DocumentWriteBuffer writeBuffer) {
         this.documentRepository = documentRepository;
+        this.exportService = exportService;
+        this.writeBuffer = writeBuffer;
     }
 
     @GetMapping("/{id}/export")
     public ResponseEntity<ExportResponse> export(@PathVariable("id") Long id, @RequestParam("format") ExportFormat format) {
-        return documentRepository.findById(id)
-            .map(document -> ResponseEntity.ok(buildResponse(document, format)))
+        writeBuffer.flush(id);
+        return documentRepository.findHeaderById(id)
+            .map(header -> ResponseEntity.ok(buildResponse(header, format)))
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    private ExportResponse buildResponse(Document document, ExportFormat format) {
-        String safeTitle = document.getTitle().toLowerCase().replaceAll("[^a-z0-9]+", "-");
-        String content = document.getContent() == null ? "" : document.getContent();
-        return switch (format) {
-            case MARKDOWN -> new ExportResponse(
-                safeTitle + ".md",
-                "text/markdown",
-                Base64.getEncoder().encodeToString(("# " + document.getTitle() + "\n\n" + content).getBytes(StandardCharsets.UTF_8))
-            );
-            case HTML -> new ExportResponse(
-                safeTitle + ".html",
-                "text/html",
-                Base64.getEncoder().encodeToString(("<h1>" + document.getTitle() + "</h1>" + content).getBytes(StandardCharsets.UTF_8))
-            );
-            case PDF -> new ExportResponse(
-                safeTitle + ".pdf",
-                "application/pdf",
-                Base64.getEncoder().encodeToString(("PDF export placeholder for: " + document.getTitle()).getBytes(StandardCharsets.UTF_8))
-            );
-            case EPUB -> new ExportResponse(
-                safeTitle + ".epub",
-                "application/epub+zip",
-                Base64.getEncoder().encodeToString(("EPUB export placeholder for: " + document.getTitle()).getBytes(StandardCharsets.UTF_8))
-            );
-        };
+    @GetMapping("/{id}/export/download")
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable("id") Long id,
+                                                          @RequestParam("format") ExportFormat format) {
+        writeBuffer.flush(id);
+        return documentRepository.findHeaderById(id)
+            .map(header -> ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mimeType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(exportService.fileName(header, format))
+                    .build()
+                    .toString())
+                .body((StreamingResponseBody) out -> exportService.write(header, format, out)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    public enum ExportFormat { MARKDOWN, HTML, PDF, EPUB }
+    private ExportResponse buildResponse(DocumentHeader header, ExportFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            exportService.write(header, format, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new ExportResponse(
+            exportService.fileName(header, format),
+            format.mimeType(),
+            Base64.getEncoder().encodeToString(out.toByteArray())
+        );
+    }
 
     public record ExportResponse(String fileName, String mimeType, String contentBase64) {}
 }
@@ -0,0 +1,99 @@
+package com.writeit.rest.content;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+@Service
+public class DocumentExportService {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final DocumentRepository documentRepository;
+    private final ChapterRepository chapterRepository;
+    private final SectionRepository sectionRepository;
+    private final PdfExportWriter pdfWriter;
+    private final EpubExportWriter epubWriter;
+
+    public DocumentExportService(DocumentRepository documentRepository, ChapterRepository chapterRepository,
+                                 SectionRepository sectionRepository, PdfExportWriter pdfWriter,
+                                 EpubExportWriter epubWriter) {
+        this.documentRepository = documentRepository;
+        this.chapterRepository = chapterRepository;
+        this.sectionRepository = sectionRepository;
+        this.pdfWriter = pdfWriter;
+        this.epubWriter = epubWriter;
+    }
+
+    public String fileName(DocumentHeader header, ExportFormat format) {
+        return header.title().toLowerCase().replaceAll("[^a-z0-9]+", "-") + "." + format.extension();
+    }
+
+    public void write(DocumentHeader header, ExportFormat format, OutputStream out) throws IOException {
+        switch (format) {
+            case MARKDOWN -> writeMarkdown(header, out);
+            case HTML -> writeHtml(header, out);
+            case PDF -> pdfWriter.write(header, out);
+            case EPUB -> epubWriter.write(header, out);
+        }
+    }
+
+    private void writeMarkdown(DocumentHeader header, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        writer.write("# " + header.title() + "\n\n");
+        List<Chapter> chapters = chapterRepository.findByDocumentIdOrderByPositionAsc(header.id());
+        if (chapters.isEmpty()) {
+            writer.write(articleContent(header));
+        }
+        for (Chapter chapter : chapters) {
+            writer.write("## " + chapter.getTitle() + "\n\n");
+            for (Section section : sectionRepository.findByChapterIdOrderByPositionAsc(chapter.getId())) {
+                writer.write("### " + section.getTitle() + "\n\n");
+                writeContent(writer, section.getContent());
+                writer.write("\n\n");
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeHtml(DocumentHeader header, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        String title = HtmlUtils.htmlEscape(header.title());
+        writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>" + title + "</title>\n</head>\n<body>\n");
+        writer.write("<h1>" + title + "</h1>\n");
+        List<Chapter> chapters = chapterRepository.findByDocumentIdOrderByPositionAsc(header.id());
+        if (chapters.isEmpty()) {
+            writer.write(articleContent(header));
+        }
+        for (Chapter chapter : chapters) {
+            writer.write("<h2>" + HtmlUtils.htmlEscape(chapter.getTitle()) + "</h2>\n");
+            for (Section section : sectionRepository.findByChapterIdOrderByPositionAsc(chapter.getId())) {
+                writer.write("<h3>" + HtmlUtils.htmlEscape(section.getTitle()) + "</h3>\n");
+                writeContent(writer, section.getContent());
+                writer.write("\n");
+            }
+        }
+        writer.write("\n</body>\n</html>\n");
+        writer.flush();
+    }
+
+    private String articleContent(DocumentHeader header) {
+        return documentRepository.findContentById(header.id()).orElse("");
+    }
+
+    private void writeContent(Writer writer, String content) throws IOException {
+        if (content != null) {
+            writer.write(content);
+        }
+    }
+
+    private Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
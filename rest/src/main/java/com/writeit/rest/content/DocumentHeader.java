@@ -0,0 +1,4 @@
+package com.writeit.rest.content;
+
+public record DocumentHeader(Long id, String title, DocumentType type, Long userId) {
+}
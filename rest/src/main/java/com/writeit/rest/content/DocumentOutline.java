@@ -0,0 +1,6 @@
+package com.writeit.rest.content;
+
+import java.util.List;
+
+public record DocumentOutline(Long id, String title, DocumentType type, Long userId, List<OutlineChapter> chapters) {
+}
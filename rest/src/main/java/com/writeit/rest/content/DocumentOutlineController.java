@@ -0,0 +1,57 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/documents")
+public class DocumentOutlineController {
+
+    private final DocumentRepository documentRepository;
+    private final ChapterRepository chapterRepository;
+    private final SectionRepository sectionRepository;
+
+    public DocumentOutlineController(DocumentRepository documentRepository, ChapterRepository chapterRepository,
+                                     SectionRepository sectionRepository) {
+        this.documentRepository = documentRepository;
+        this.chapterRepository = chapterRepository;
+        this.sectionRepository = sectionRepository;
+    }
+
+    /**
+     * The document with its ordered chapters and sections in three queries, however large the
+     * book. Section bodies are only loaded when {@code includeContent} is set.
+     */
+    @GetMapping("/{id}/outline")
+    public ResponseEntity<DocumentOutline> outline(@PathVariable("id") Long id,
+                                                   @RequestParam(name = "includeContent", defaultValue = "false") boolean includeContent) {
+        return documentRepository.findHeaderById(id)
+            .map(header -> ResponseEntity.ok(buildOutline(header, includeContent)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private DocumentOutline buildOutline(DocumentHeader header, boolean includeContent) {
+        List<Chapter> chapters = chapterRepository.findByDocumentIdOrderByPositionAsc(header.id());
+        List<OutlineSection> sections = chapters.isEmpty() ? List.of() : includeContent
+            ? sectionRepository.findOutlineWithContentByDocumentId(header.id())
+            : sectionRepository.findOutlineByDocumentId(header.id());
+        Map<Long, List<OutlineSection>> sectionsByChapter = new HashMap<>();
+        for (OutlineSection section : sections) {
+            sectionsByChapter.computeIfAbsent(section.chapterId(), chapterId -> new ArrayList<>()).add(section);
+        }
+        List<OutlineChapter> outline = new ArrayList<>(chapters.size());
+        for (Chapter chapter : chapters) {
+            outline.add(new OutlineChapter(chapter.getId(), chapter.getTitle(), chapter.getPosition(),
+                sectionsByChapter.getOrDefault(chapter.getId(), List.of())));
+        }
+        return new DocumentOutline(header.id(), header.title(), header.type(), header.userId(), outline);
+    }
+}
@@ -1,17 +1,68 @@
 package com.writeit.rest.content;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DocumentRepository extends JpaRepository<Document, Long> {
-    List<Document> findByUserId(Long userId);
+    /**
+     * Select list of {@link DocumentSummary} projections; everything but the content column.
+     */
+    String SUMMARY = """
+        select new com.writeit.rest.content.DocumentSummary(
+            d.id, d.title, d.type, d.userId, d.wordCount, d.readingTimeMinutes, d.tags, d.category,
+            d.publishedToWriteIt, d.writeItSlug, d.publishedAt, d.revision, d.createdAt, d.updatedAt)
+        from Document d
+        """;
 
-    List<Document> findByUserIdAndTitleContainingIgnoreCase(Long userId, String query);
+    @Query(SUMMARY + """
+        where d.userId = :userId
+        order by d.updatedAt desc, d.id desc
+        """)
+    List<DocumentSummary> findSummariesByUserId(@Param("userId") Long userId, Limit limit);
 
-    List<Document> findByUserIdAndTagsContainingIgnoreCase(Long userId, String tag);
+    @Query(SUMMARY + """
+        where d.userId = :userId
+          and (d.updatedAt < :updatedAt or (d.updatedAt = :updatedAt and d.id < :id))
+        order by d.updatedAt desc, d.id desc
+        """)
+    List<DocumentSummary> findSummariesByUserIdAfter(@Param("userId") Long userId, @Param("updatedAt") Instant updatedAt,
+                                                     @Param("id") Long id, Limit limit);
 
-    List<Document> findByPublishedToWriteItTrueOrderByPublishedAtDesc();
+    @Query(SUMMARY + "where d.id in :ids")
+    List<DocumentSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.writeit.rest.content.DocumentTagRow(d.id, d.userId, d.category, d.updatedAt) from Document d")
+    List<DocumentTagRow> findTagRows();
+
+    @Query(SUMMARY + """
+        where d.publishedToWriteIt = true
+        order by d.publishedAt desc, d.id desc
+        """)
+    List<DocumentSummary> findPublishedSummaries(Limit limit);
+
+    @Query(SUMMARY + """
+        where d.publishedToWriteIt = true
+          and (d.publishedAt < :publishedAt or (d.publishedAt = :publishedAt and d.id < :id))
+        order by d.publishedAt desc, d.id desc
+        """)
+    List<DocumentSummary> findPublishedSummariesAfter(@Param("publishedAt") Instant publishedAt, @Param("id") Long id,
+                                                      Limit limit);
 
     Optional<Document> findByWriteItSlugAndPublishedToWriteItTrue(String writeItSlug);
+
+    @Query("""
+        select new com.writeit.rest.content.DocumentHeader(d.id, d.title, d.type, d.userId)
+        from Document d
+        where d.id = :id
+        """)
+    Optional<DocumentHeader> findHeaderById(@Param("id") Long id);
+
+    @Query("select d.content from Document d where d.id = :id")
+    Optional<String> findContentById(@Param("id") Long id);
 }
@@ -0,0 +1,290 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over document and section text. Units are keyed by document id,
+ * or by negated section id, and sections are attributed to their document when ranking.
+ * Changes made inside a transaction are tokenized immediately but only reach the postings once
+ * it commits, so a rollback leaves no trace in the index. Postings are kept per owner, so a
+ * query only walks the caller's terms however large the whole library grows; a section indexed
+ * before its document's owner is known is posted once the document is indexed.
+ */
+@Component
+public class DocumentSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MAX_PREFIX_TERMS = 200;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, UserPostings> postingsByUser = new HashMap<>();
+    private final Map<Long, Unit> units = new HashMap<>();
+    private final Map<Long, Long> ownerByDocument = new HashMap<>();
+    private final Map<Long, Set<Long>> sectionUnitsByDocument = new HashMap<>();
+
+    public void indexDocument(Document document) {
+        if (document.getId() == null) {
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        collect(document.getTitle(), TITLE_WEIGHT, frequencies);
+        collect(document.getContent(), 1, frequencies);
+        Long id = document.getId();
+        Long userId = document.getUserId();
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Long previousOwner = ownerByDocument.put(id, userId);
+                replaceUnit(id, id, frequencies);
+                if (!Objects.equals(previousOwner, userId)) {
+                    for (Long sectionUnit : sectionUnitsByDocument.getOrDefault(id, Set.of())) {
+                        Unit unit = units.get(sectionUnit);
+                        if (unit != null) {
+                            replaceUnit(sectionUnit, id, unit.frequencies());
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void indexSection(Long documentId, Section section) {
+        if (documentId == null || section.getId() == null) {
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        collect(section.getTitle(), TITLE_WEIGHT, frequencies);
+        collect(section.getContent(), 1, frequencies);
+        long unit = -section.getId();
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                sectionUnitsByDocument.computeIfAbsent(documentId, key -> new HashSet<>()).add(unit);
+                replaceUnit(unit, documentId, frequencies);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeDocument(Long documentId) {
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnit(documentId);
+                Set<Long> sectionUnits = sectionUnitsByDocument.remove(documentId);
+                if (sectionUnits != null) {
+                    sectionUnits.forEach(this::removeUnit);
+                }
+                ownerByDocument.remove(documentId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postingsByUser.clear();
+            units.clear();
+            ownerByDocument.clear();
+            sectionUnitsByDocument.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of the user's documents matching every query term, best match first.
+     * The last query term is matched as a prefix so results follow the user while typing, once
+     * it is {@value #MIN_TERM_LENGTH} characters long; it expands to at most
+     * {@value #MAX_PREFIX_TERMS} indexed terms.
+     */
+    public List<Long> search(Long userId, String query, int limit) {
+        List<String> terms = new ArrayList<>();
+        tokenize(query, 1, terms::add);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            UserPostings postings = postingsByUser.get(userId);
+            if (postings == null) {
+                return List.of();
+            }
+            int unitCount = Math.max(1, postings.unitCount);
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                if (term.length() < MIN_TERM_LENGTH) {
+                    continue;
+                }
+                boolean prefix = i == terms.size() - 1;
+                Map<Long, Double> termScores = scoreTerm(postings.terms, term, prefix, unitCount);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((documentId, score) -> score + termScores.get(documentId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            if (scores == null) {
+                return List.of();
+            }
+            return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(NavigableMap<String, Map<Long, Integer>> postings, String term, boolean prefix,
+                                        int unitCount) {
+        Collection<Map<Long, Integer>> matches;
+        if (prefix) {
+            matches = postings.subMap(term, true, term + Character.MAX_VALUE, false).values();
+        } else {
+            Map<Long, Integer> exact = postings.get(term);
+            matches = exact == null ? List.of() : List.of(exact);
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        int expanded = 0;
+        for (Map<Long, Integer> matchingUnits : matches) {
+            if (++expanded > MAX_PREFIX_TERMS) {
+                break;
+            }
+            double idf = Math.log(1.0 + (double) unitCount / matchingUnits.size());
+            for (Map.Entry<Long, Integer> posting : matchingUnits.entrySet()) {
+                double weight = (1.0 + Math.log(posting.getValue())) * idf;
+                scores.merge(units.get(posting.getKey()).documentId(), weight, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Posts {@code frequencies} for {@code unit} under the document's owner, or keeps them
+     * unposted until the owner is known.
+     */
+    private void replaceUnit(long unit, Long documentId, Map<String, Integer> frequencies) {
+        removeUnit(unit);
+        Long userId = ownerByDocument.get(documentId);
+        units.put(unit, new Unit(documentId, userId, frequencies));
+        if (userId == null) {
+            return;
+        }
+        UserPostings postings = postingsByUser.computeIfAbsent(userId, key -> new UserPostings());
+        postings.unitCount++;
+        frequencies.forEach((term, frequency) ->
+            postings.terms.computeIfAbsent(term, key -> new HashMap<>()).put(unit, frequency));
+    }
+
+    private void removeUnit(long unit) {
+        Unit removed = units.remove(unit);
+        if (removed == null || removed.userId() == null) {
+            return;
+        }
+        UserPostings postings = postingsByUser.get(removed.userId());
+        postings.unitCount--;
+        for (String term : removed.frequencies().keySet()) {
+            Map<Long, Integer> termUnits = postings.terms.get(term);
+            if (termUnits != null) {
+                termUnits.remove(unit);
+                if (termUnits.isEmpty()) {
+                    postings.terms.remove(term);
+                }
+            }
+        }
+        if (postings.unitCount == 0) {
+            postingsByUser.remove(removed.userId());
+        }
+    }
+
+    private static void collect(String text, int weight, Map<String, Integer> frequencies) {
+        tokenize(text, MIN_TERM_LENGTH, term -> frequencies.merge(term, weight, Integer::sum));
+    }
+
+    static void tokenize(CharSequence text, int minLength, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder term = new StringBuilder();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '<' && i + 1 < length && HtmlText.isTagStart(text.charAt(i + 1))) {
+                emit(term, minLength, sink);
+                int end = indexOf(text, '>', i + 1);
+                i = end < 0 ? length : end + 1;
+                continue;
+            }
+            if (c == '&') {
+                int end = HtmlText.entityEnd(text, i + 1, length);
+                if (end > 0) {
+                    emit(term, minLength, sink);
+                    i = end + 1;
+                    continue;
+                }
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.append(Character.toLowerCase(c));
+                }
+            } else {
+                emit(term, minLength, sink);
+            }
+            i++;
+        }
+        emit(term, minLength, sink);
+    }
+
+    private static void emit(StringBuilder term, int minLength, Consumer<String> sink) {
+        if (term.length() >= minLength) {
+            sink.accept(term.toString());
+        }
+        term.setLength(0);
+    }
+
+    private static int indexOf(CharSequence text, char target, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Unit(Long documentId, Long userId, Map<String, Integer> frequencies) {
+    }
+
+    private static final class UserPostings {
+        private final NavigableMap<String, Map<Long, Integer>> terms = new TreeMap<>();
+        private int unitCount;
+    }
+}
@@ -0,0 +1,55 @@
+package com.writeit.rest.content;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DocumentSearchIndexLoader {
+
+    private static final int PAGE_SIZE = 200;
+
+    private final DocumentSearchIndex searchIndex;
+    private final DocumentRepository documentRepository;
+    private final ChapterRepository chapterRepository;
+    private final SectionRepository sectionRepository;
+
+    public DocumentSearchIndexLoader(DocumentSearchIndex searchIndex, DocumentRepository documentRepository,
+                                     ChapterRepository chapterRepository, SectionRepository sectionRepository) {
+        this.searchIndex = searchIndex;
+        this.documentRepository = documentRepository;
+        this.chapterRepository = chapterRepository;
+        this.sectionRepository = sectionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        searchIndex.clear();
+        Page<Document> documents;
+        int page = 0;
+        do {
+            documents = documentRepository.findAll(PageRequest.of(page++, PAGE_SIZE, Sort.by("id")));
+            documents.forEach(searchIndex::indexDocument);
+        } while (documents.hasNext());
+
+        Map<Long, Long> documentByChapter = new HashMap<>();
+        Page<Chapter> chapters;
+        page = 0;
+        do {
+            chapters = chapterRepository.findAll(PageRequest.of(page++, PAGE_SIZE, Sort.by("id")));
+            chapters.forEach(chapter -> documentByChapter.put(chapter.getId(), chapter.getDocumentId()));
+        } while (chapters.hasNext());
+
+        Page<Section> sections;
+        page = 0;
+        do {
+            sections = sectionRepository.findAll(PageRequest.of(page++, PAGE_SIZE, Sort.by("id")));
+            sections.forEach(section -> searchIndex.indexSection(documentByChapter.get(section.getChapterId()), section));
+        } while (sections.hasNext());
+    }
+}
@@ -1,66 +1,265 @@
 package com.writeit.rest.content;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class DocumentService {
 
+    private static final int SEARCH_LIMIT = 50;
+    private static final int KEYFRAME_INTERVAL = 20;
+
     private final DocumentRepository documentRepository;
     private final DocumentVersionRepository versionRepository;
+    private final DocumentSearchIndex searchIndex;
+    private final DocumentWriteBuffer writeBuffer;
+    private final BlogPostCache blogPostCache;
+    private final BlogFeedCache blogFeedCache;
+    private final DocumentTagService tagService;
+    private final ChangeLog changeLog;
 
-    public DocumentService(DocumentRepository documentRepository, DocumentVersionRepository versionRepository) {
+    public DocumentService(DocumentRepository documentRepository, DocumentVersionRepository versionRepository,
+                           DocumentSearchIndex searchIndex, DocumentWriteBuffer writeBuffer,
+                           BlogPostCache blogPostCache, BlogFeedCache blogFeedCache, DocumentTagService tagService,
+                           ChangeLog changeLog) {
         this.documentRepository = documentRepository;
         this.versionRepository = versionRepository;
+        this.searchIndex = searchIndex;
+        this.writeBuffer = writeBuffer;
+        this.blogPostCache = blogPostCache;
+        this.blogFeedCache = blogFeedCache;
+        this.tagService = tagService;
+        this.changeLog = changeLog;
+    }
+
+    public Optional<Document> getById(Long id) {
+        return writeBuffer.find(id);
+    }
+
+    public boolean exists(Long id) {
+        return writeBuffer.exists(id);
     }
 
     @Transactional
     public Document create(DocumentRequest request) {
         Document document = new Document();
         applyRequest(document, request);
-        return documentRepository.save(document);
+        Document saved = documentRepository.save(document);
+        searchIndex.indexDocument(saved);
+        tagService.sync(saved);
+        changeLog.changed(ChangeEntity.DOCUMENT, saved.getId());
+        return saved;
     }
 
-    @Transactional
     public Document update(Long id, DocumentRequest request) {
+        Document saved = writeBuffer.write(id, request);
+        blogPostCache.evict(id);
+        blogFeedCache.update(saved);
+        searchIndex.indexDocument(saved);
+        tagService.sync(saved);
+        return saved;
+    }
+
+    @Transactional
+    public DocumentContentPatchResponse patchContent(Long id, DocumentContentPatchRequest request) {
+        writeBuffer.flush(id);
         Document document = documentRepository.findById(id).orElseThrow();
-        applyRequest(document, request);
-        return documentRepository.save(document);
+        if (document.getRevision() != request.baseRevision()) {
+            throw revisionConflict(document.getRevision());
+        }
+        StringBuilder content = new StringBuilder(document.getContent() == null ? "" : document.getContent());
+        int words = document.getWordCount();
+        for (TextOperation operation : request.operations()) {
+            words += ContentPatcher.apply(content, operation);
+        }
+        words = Math.max(0, words);
+        document.setContent(content.toString());
+        document.setWordCount(words);
+        document.setReadingTimeMinutes(ContentMetrics.estimateReadingTimeMinutes(words));
+        Document saved;
+        try {
+            saved = documentRepository.saveAndFlush(document);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            throw revisionConflict(null);
+        }
+        blogPostCache.evict(id);
+        blogFeedCache.update(saved);
+        searchIndex.indexDocument(saved);
+        tagService.index(saved);
+        changeLog.changed(ChangeEntity.DOCUMENT, id);
+        return new DocumentContentPatchResponse(saved.getId(), saved.getRevision(), saved.getWordCount(),
+            saved.getReadingTimeMinutes(), content.length());
+    }
+
+    /**
+     * Stores content merged by a collaboration session, whose word count is already maintained
+     * incrementally, if the stored content is still {@code expected}. Otherwise nothing is written
+     * and the stored content is returned for the session to merge. Does nothing if the document
+     * has been deleted; a write committed concurrently fails on the document's version.
+     */
+    @Transactional
+    public Optional<String> replaceContent(Long id, String expected, String content, int wordCount) {
+        writeBuffer.flush(id);
+        Document document = documentRepository.findById(id).orElse(null);
+        if (document == null) {
+            return Optional.empty();
+        }
+        String stored = document.getContent() == null ? "" : document.getContent();
+        if (!stored.equals(expected)) {
+            return Optional.of(stored);
+        }
+        document.setContent(content);
+        document.setWordCount(wordCount);
+        document.setReadingTimeMinutes(ContentMetrics.estimateReadingTimeMinutes(wordCount));
+        Document saved = documentRepository.saveAndFlush(document);
+        blogPostCache.evict(id);
+        blogFeedCache.update(saved);
+        searchIndex.indexDocument(saved);
+        tagService.index(saved);
+        changeLog.changed(ChangeEntity.DOCUMENT, id);
+        return Optional.empty();
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        writeBuffer.discard(id);
+        changeLog.deleted(ChangeEntity.DOCUMENT, id);
+        documentRepository.deleteById(id);
+        blogPostCache.evict(id);
+        blogFeedCache.remove(id);
+        searchIndex.removeDocument(id);
+        tagService.remove(id);
     }
 
     @Transactional
     public SnapshotResponse createSnapshot(Long documentId) {
+        writeBuffer.flush(documentId);
         Document document = documentRepository.findById(documentId).orElseThrow();
-        int lastVersion = versionRepository.findTopByDocumentIdOrderByVersionNumberDesc(documentId)
-            .map(DocumentVersion::getVersionNumber)
-            .orElse(0);
+        Optional<DocumentVersion> latest = versionRepository.findTopByDocumentIdOrderByVersionNumberDesc(documentId);
+        int lastVersion = latest.map(DocumentVersion::getVersionNumber).orElse(0);
+        String content = document.getContent();
 
         DocumentVersion version = new DocumentVersion();
         version.setDocumentId(documentId);
         version.setVersionNumber(lastVersion + 1);
         version.setTitle(document.getTitle());
-        version.setContent(document.getContent());
+        version.setContentLength(content == null ? 0 : content.length());
+        version.setStorageKind(VersionStorageKind.FULL);
+        version.setContent(content);
+
+        if (latest.isPresent() && content != null) {
+            VersionChain chain = reconstruct(documentId, lastVersion);
+            if (chain.length() + 1 < KEYFRAME_INTERVAL) {
+                String delta = VersionDeltaCodec.diff(chain.content(), content);
+                if (delta != null && delta.length() < content.length()) {
+                    version.setStorageKind(VersionStorageKind.DELTA);
+                    version.setContent(delta);
+                }
+            }
+        }
 
         versionRepository.save(version);
         return new SnapshotResponse(documentId, version.getVersionNumber());
     }
 
-    public List<DocumentVersion> listVersions(Long documentId) {
-        return versionRepository.findByDocumentIdOrderByVersionNumberDesc(documentId);
+    public List<DocumentVersionResponse> listVersions(Long documentId, boolean includeContent) {
+        if (!includeContent) {
+            return versionRepository.findSummariesByDocumentId(documentId).stream()
+                .map(DocumentVersionResponse::withoutContent)
+                .toList();
+        }
+        List<DocumentVersionResponse> versions = new ArrayList<>();
+        String content = null;
+        for (DocumentVersion version : versionRepository.findByDocumentIdOrderByVersionNumberAsc(documentId)) {
+            content = materialize(version, content);
+            versions.add(DocumentVersionResponse.withContent(version, content));
+        }
+        Collections.reverse(versions);
+        return versions;
+    }
+
+    public Optional<DocumentVersionResponse> getVersion(Long documentId, int versionNumber) {
+        VersionChain chain = reconstruct(documentId, versionNumber);
+        return chain.target() == null
+            ? Optional.empty()
+            : Optional.of(DocumentVersionResponse.withContent(chain.target(), chain.content()));
     }
 
-    public List<Document> listByUser(Long userId, String query, String tag) {
+    public CursorPage<DocumentSummary> listByUser(Long userId, String query, TagFilter filter, String cursor, int limit) {
         if (query != null && !query.isBlank()) {
-            return documentRepository.findByUserIdAndTitleContainingIgnoreCase(userId, query.trim());
+            return new CursorPage<>(writeBuffer.overlaySummaries(search(userId, query)), null);
+        }
+        if (!filter.isEmpty()) {
+            CursorPage<DocumentSummary> page = tagService.list(userId, filter, cursor, limit);
+            return new CursorPage<>(writeBuffer.overlaySummaries(page.items()), page.nextCursor());
+        }
+        int pageSize = PageCursor.clampLimit(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        List<DocumentSummary> rows = after == null
+            ? documentRepository.findSummariesByUserId(userId, Limit.of(pageSize + 1))
+            : documentRepository.findSummariesByUserIdAfter(userId, after.sortKey(), after.id(), Limit.of(pageSize + 1));
+        CursorPage<DocumentSummary> page = PageCursor.page(rows, pageSize,
+            summary -> new PageCursor(summary.updatedAt(), summary.id()));
+        return new CursorPage<>(writeBuffer.overlaySummaries(page.items()), page.nextCursor());
+    }
+
+    public TagFacets facets(Long userId, TagFilter filter) {
+        return tagService.facets(userId, filter);
+    }
+
+    private List<DocumentSummary> search(Long userId, String query) {
+        List<Long> rankedIds = searchIndex.search(userId, query, SEARCH_LIMIT);
+        if (rankedIds.isEmpty()) {
+            return List.of();
         }
-        if (tag != null && !tag.isBlank()) {
-            return documentRepository.findByUserIdAndTagsContainingIgnoreCase(userId, tag.trim());
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
         }
-        return documentRepository.findByUserId(userId);
+        return documentRepository.findSummariesByIdIn(rankedIds).stream()
+            .sorted(Comparator.comparing(summary -> rank.get(summary.id())))
+            .toList();
     }
 
-    private void applyRequest(Document document, DocumentRequest request) {
+    private VersionChain reconstruct(Long documentId, int versionNumber) {
+        Optional<DocumentVersion> keyframe = versionRepository
+            .findTopByDocumentIdAndStorageKindAndVersionNumberLessThanEqualOrderByVersionNumberDesc(
+                documentId, VersionStorageKind.FULL, versionNumber);
+        if (keyframe.isEmpty()) {
+            return new VersionChain(null, null, 0);
+        }
+        DocumentVersion target = keyframe.get();
+        String content = target.getContent();
+        int length = 0;
+        if (target.getVersionNumber() < versionNumber) {
+            for (DocumentVersion delta : versionRepository.findByDocumentIdAndVersionNumberBetweenOrderByVersionNumberAsc(
+                documentId, target.getVersionNumber() + 1, versionNumber)) {
+                content = materialize(delta, content);
+                target = delta;
+                length++;
+            }
+        }
+        return new VersionChain(target.getVersionNumber() == versionNumber ? target : null, content, length);
+    }
+
+    private String materialize(DocumentVersion version, String previousContent) {
+        return version.getStorageKind() == VersionStorageKind.DELTA
+            ? VersionDeltaCodec.apply(previousContent, version.getContent())
+            : version.getContent();
+    }
+
+    static void applyRequest(Document document, DocumentRequest request) {
         document.setTitle(request.title());
         document.setType(request.type());
         document.setContent(request.content());
@@ -70,9 +269,17 @@ public class DocumentService {
         recalculateMetrics(document);
     }
 
-    private void recalculateMetrics(Document document) {
-        int words = ContentMetrics.countWords(document.getContent());
-        document.setWordCount(words);
-        document.setReadingTimeMinutes(ContentMetrics.estimateReadingTimeMinutes(words));
+    private ResponseStatusException revisionConflict(Long currentRevision) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, currentRevision == null
+            ? "Document was modified concurrently"
+            : "Document is at revision " + currentRevision);
     }
+
+    private static void recalculateMetrics(Document document) {
+        ContentMetrics.Summary metrics = ContentMetrics.analyze(document.getContent());
+        document.setWordCount(metrics.words());
+        document.setReadingTimeMinutes(metrics.readingTimeMinutes());
+    }
+
+    private record VersionChain(DocumentVersion target, String content, int length) {}
 }
@@ -0,0 +1,30 @@
+package com.writeit.rest.content;
+
+import java.time.Instant;
+
+/**
+ * A document without its content, as returned by the list endpoints.
+ */
+public record DocumentSummary(
+    Long id,
+    String title,
+    DocumentType type,
+    Long userId,
+    int wordCount,
+    int readingTimeMinutes,
+    String tags,
+    String category,
+    boolean publishedToWriteIt,
+    String writeItSlug,
+    Instant publishedAt,
+    long revision,
+    Instant createdAt,
+    Instant updatedAt
+) {
+    static DocumentSummary of(Document document) {
+        return new DocumentSummary(document.getId(), document.getTitle(), document.getType(), document.getUserId(),
+            document.getWordCount(), document.getReadingTimeMinutes(), document.getTags(), document.getCategory(),
+            document.isPublishedToWriteIt(), document.getWriteItSlug(), document.getPublishedAt(),
+            document.getRevision(), document.getCreatedAt(), document.getUpdatedAt());
+    }
+}
@@ -0,0 +1,325 @@
+package com.writeit.rest.content;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory tag and category index. Each user's documents get dense slot numbers, so a tag is a
+ * {@link BitSet} over those slots that stays small even for tens of thousands of documents. Tag
+ * filters are bitmap AND/OR, facet counts are intersection cardinalities, and listings pick the
+ * newest matches by scanning the result bits against the stored update times.
+ */
+@Component
+public class DocumentTagIndex {
+
+    static final int MAX_TAG_LENGTH = 100;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, UserTags> users = new HashMap<>();
+    private final Map<Long, Long> ownerByDocument = new HashMap<>();
+
+    public void put(Long documentId, Long userId, Collection<String> tags, String category, Instant updatedAt) {
+        if (documentId == null || userId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Long previousOwner = ownerByDocument.put(documentId, userId);
+            if (previousOwner != null && !previousOwner.equals(userId)) {
+                users.get(previousOwner).remove(documentId);
+            }
+            users.computeIfAbsent(userId, id -> new UserTags())
+                .put(documentId, tags, category, updatedAt == null ? Instant.now() : updatedAt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long documentId) {
+        lock.writeLock().lock();
+        try {
+            Long owner = ownerByDocument.remove(documentId);
+            if (owner != null) {
+                users.get(owner).remove(documentId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The indexed tags of a document, or null if it is not indexed.
+     */
+    public Set<String> tags(Long documentId) {
+        lock.readLock().lock();
+        try {
+            Long owner = ownerByDocument.get(documentId);
+            return owner == null ? null : users.get(owner).tags(documentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            users.clear();
+            ownerByDocument.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the user's documents that carry every tag in {@code allOf}, at least one tag in
+     * {@code anyOf} (when given) and the category (when given), newest first, starting after
+     * {@code after} and limited to {@code limit}.
+     */
+    public List<Long> find(Long userId, TagFilter filter, PageCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            UserTags user = users.get(userId);
+            BitSet matches = user == null ? null : user.select(filter);
+            if (matches == null || matches.isEmpty()) {
+                return List.of();
+            }
+            return user.newest(matches, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tag and category counts within the documents matching {@code filter}, largest first.
+     */
+    public TagFacets facets(Long userId, TagFilter filter) {
+        lock.readLock().lock();
+        try {
+            UserTags user = users.get(userId);
+            BitSet matches = user == null ? null : user.select(filter);
+            if (matches == null || matches.isEmpty()) {
+                return new TagFacets(0, List.of(), List.of());
+            }
+            return new TagFacets(matches.cardinality(), counts(user.tags, matches, null), counts(user.categories, matches, user.categoryLabels));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<TagFacets.Count> counts(Map<String, BitSet> bitmaps, BitSet matches, Map<String, String> labels) {
+        List<TagFacets.Count> counts = new ArrayList<>();
+        BitSet scratch = new BitSet();
+        for (Map.Entry<String, BitSet> entry : bitmaps.entrySet()) {
+            scratch.clear();
+            scratch.or(entry.getValue());
+            scratch.and(matches);
+            int count = scratch.cardinality();
+            if (count > 0) {
+                counts.add(new TagFacets.Count(labels == null ? entry.getKey() : labels.get(entry.getKey()), count));
+            }
+        }
+        counts.sort(Comparator.comparingInt(TagFacets.Count::count).reversed().thenComparing(TagFacets.Count::value));
+        return counts;
+    }
+
+    /**
+     * Splits the comma-separated tag field into normalized tags: trimmed, lower case, without a
+     * leading '#', inner whitespace collapsed and at most {@link #MAX_TAG_LENGTH} characters.
+     */
+    public static Set<String> parseTags(String tags) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (tags == null || tags.isBlank()) {
+            return parsed;
+        }
+        for (String raw : tags.split(",")) {
+            String tag = normalizeTag(raw);
+            if (!tag.isEmpty()) {
+                parsed.add(tag);
+            }
+        }
+        return parsed;
+    }
+
+    public static String normalizeTag(String raw) {
+        String tag = raw == null ? "" : raw.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        while (tag.startsWith("#")) {
+            tag = tag.substring(1).strip();
+        }
+        return tag.length() <= MAX_TAG_LENGTH ? tag : tag.substring(0, MAX_TAG_LENGTH);
+    }
+
+    static String categoryKey(String category) {
+        return category == null || category.isBlank() ? null : category.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A user's slice of the index. Slot {@code i} holds document {@code ids[i]}; freed slots
+     * are reused so the bitmaps stay dense.
+     */
+    private static final class UserTags {
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+        private final BitSet live = new BitSet();
+        private final Map<String, BitSet> tags = new HashMap<>();
+        private final Map<String, BitSet> categories = new HashMap<>();
+        private final Map<String, String> categoryLabels = new HashMap<>();
+        private long[] ids = new long[16];
+        private long[] updated = new long[16];
+        private String[][] tagsBySlot = new String[16][];
+        private String[] categoryBySlot = new String[16];
+        private int slots;
+
+        void put(Long documentId, Collection<String> documentTags, String category, Instant updatedAt) {
+            Integer existing = slotById.get(documentId);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unlink(slot);
+            } else {
+                slot = freeSlots.isEmpty() ? slots++ : freeSlots.pop();
+                ensureCapacity(slot + 1);
+                slotById.put(documentId, slot);
+                live.set(slot);
+            }
+            ids[slot] = documentId;
+            updated[slot] = updatedAt.getEpochSecond() * 1_000_000_000L + updatedAt.getNano();
+            String[] slotTags = documentTags.toArray(String[]::new);
+            tagsBySlot[slot] = slotTags;
+            for (String tag : slotTags) {
+                tags.computeIfAbsent(tag, key -> new BitSet()).set(slot);
+            }
+            String key = categoryKey(category);
+            categoryBySlot[slot] = key;
+            if (key != null) {
+                categories.computeIfAbsent(key, k -> new BitSet()).set(slot);
+                categoryLabels.put(key, category.strip());
+            }
+        }
+
+        Set<String> tags(Long documentId) {
+            Integer slot = slotById.get(documentId);
+            return slot == null ? null : Set.of(tagsBySlot[slot]);
+        }
+
+        void remove(Long documentId) {
+            Integer slot = slotById.remove(documentId);
+            if (slot != null) {
+                unlink(slot);
+                live.clear(slot);
+                freeSlots.push(slot);
+            }
+        }
+
+        private void unlink(int slot) {
+            for (String tag : tagsBySlot[slot]) {
+                clearBit(tags, tag, slot);
+            }
+            tagsBySlot[slot] = new String[0];
+            if (categoryBySlot[slot] != null) {
+                if (clearBit(categories, categoryBySlot[slot], slot)) {
+                    categoryLabels.remove(categoryBySlot[slot]);
+                }
+                categoryBySlot[slot] = null;
+            }
+        }
+
+        private static boolean clearBit(Map<String, BitSet> bitmaps, String key, int slot) {
+            BitSet bits = bitmaps.get(key);
+            if (bits == null) {
+                return false;
+            }
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                bitmaps.remove(key);
+                return true;
+            }
+            return false;
+        }
+
+        BitSet select(TagFilter filter) {
+            BitSet result = (BitSet) live.clone();
+            for (String tag : filter.allOf()) {
+                BitSet bits = tags.get(tag);
+                if (bits == null) {
+                    return null;
+                }
+                result.and(bits);
+            }
+            if (!filter.anyOf().isEmpty()) {
+                BitSet any = new BitSet();
+                for (String tag : filter.anyOf()) {
+                    BitSet bits = tags.get(tag);
+                    if (bits != null) {
+                        any.or(bits);
+                    }
+                }
+                result.and(any);
+            }
+            if (filter.category() != null) {
+                BitSet bits = categories.get(filter.category());
+                if (bits == null) {
+                    return null;
+                }
+                result.and(bits);
+            }
+            return result;
+        }
+
+        List<Long> newest(BitSet matches, PageCursor after, int limit) {
+            long afterTime = after == null ? Long.MAX_VALUE : after.sortKey().getEpochSecond() * 1_000_000_000L + after.sortKey().getNano();
+            long afterId = after == null ? Long.MAX_VALUE : after.id();
+            // Heap of the best slots so far with the oldest on top, so it can be replaced cheaply.
+            PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> compareNewest(b, a));
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if (updated[slot] > afterTime || updated[slot] == afterTime && ids[slot] >= afterId) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(slot);
+                } else if (compareNewest(slot, best.peek()) < 0) {
+                    best.poll();
+                    best.add(slot);
+                }
+            }
+            Integer[] ordered = best.toArray(Integer[]::new);
+            Arrays.sort(ordered, this::compareNewest);
+            List<Long> result = new ArrayList<>(ordered.length);
+            for (Integer slot : ordered) {
+                result.add(ids[slot]);
+            }
+            return result;
+        }
+
+        /**
+         * Negative when {@code a} sorts before {@code b}: newer first, then higher id first.
+         */
+        private int compareNewest(int a, int b) {
+            int byTime = Long.compare(updated[b], updated[a]);
+            return byTime != 0 ? byTime : Long.compare(ids[b], ids[a]);
+        }
+
+        private void ensureCapacity(int size) {
+            if (size > ids.length) {
+                int capacity = Math.max(size, ids.length * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                updated = Arrays.copyOf(updated, capacity);
+                tagsBySlot = Arrays.copyOf(tagsBySlot, capacity);
+                categoryBySlot = Arrays.copyOf(categoryBySlot, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.writeit.rest.content;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DocumentTagRepository extends JpaRepository<DocumentTag, Long> {
+    List<DocumentTag> findByDocumentId(Long documentId);
+}
@@ -0,0 +1,9 @@
+package com.writeit.rest.content;
+
+import java.time.Instant;
+
+/**
+ * The document fields the tag index needs, loaded without the content.
+ */
+public record DocumentTagRow(Long id, Long userId, String category, Instant updatedAt) {
+}
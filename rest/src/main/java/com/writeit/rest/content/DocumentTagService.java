@@ -0,0 +1,124 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the normalized {@code document_tags} rows and the in-memory {@link DocumentTagIndex} in
+ * step with each document's comma-separated tag field, and answers tag-filtered listings and
+ * facet counts from the index.
+ */
+@Service
+public class DocumentTagService {
+
+    private final DocumentTagRepository tagRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentTagIndex tagIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    public DocumentTagService(DocumentTagRepository tagRepository, DocumentRepository documentRepository,
+                              DocumentTagIndex tagIndex, PlatformTransactionManager transactionManager) {
+        this.tagRepository = tagRepository;
+        this.documentRepository = documentRepository;
+        this.tagIndex = tagIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Writes only the tag rows that were added or removed and re-indexes the document. If the
+     * tags match the indexed ones, which mirror the committed rows, only the index is updated.
+     */
+    public void sync(Document document) {
+        if (document.getId() == null) {
+            return;
+        }
+        Set<String> tags = DocumentTagIndex.parseTags(document.getTags());
+        if (tags.equals(tagIndex.tags(document.getId()))) {
+            index(document);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> writeRows(document, tags));
+    }
+
+    private void writeRows(Document document, Set<String> tags) {
+        List<DocumentTag> removed = new ArrayList<>();
+        for (DocumentTag existing : tagRepository.findByDocumentId(document.getId())) {
+            if (!tags.remove(existing.getTag())) {
+                removed.add(existing);
+            }
+        }
+        List<DocumentTag> added = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            DocumentTag row = new DocumentTag();
+            row.setDocumentId(document.getId());
+            row.setUserId(document.getUserId());
+            row.setTag(tag);
+            added.add(row);
+        }
+        tagRepository.deleteAllInBatch(removed);
+        tagRepository.saveAll(added);
+        index(document);
+    }
+
+    /**
+     * Re-indexes the document once the current transaction commits. Must be called on every path
+     * that moves {@code updated_at}, since listings page by it.
+     */
+    public void index(Document document) {
+        Transactions.afterCommit(() -> tagIndex.put(document.getId(), document.getUserId(),
+            DocumentTagIndex.parseTags(document.getTags()), document.getCategory(), document.getUpdatedAt()));
+    }
+
+    /**
+     * Drops the document from the index once the current transaction commits, so a rolled back
+     * delete keeps it listed.
+     */
+    public void remove(Long documentId) {
+        Transactions.afterCommit(() -> tagIndex.remove(documentId));
+    }
+
+    /**
+     * One page of the user's documents matching {@code filter}, newest first.
+     */
+    public CursorPage<DocumentSummary> list(Long userId, TagFilter filter, String cursor, int limit) {
+        int pageSize = PageCursor.clampLimit(limit);
+        List<Long> ids = tagIndex.find(userId, filter, PageCursor.decode(cursor), pageSize + 1);
+        if (ids.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        Map<Long, DocumentSummary> byId = new HashMap<>();
+        documentRepository.findSummariesByIdIn(ids).forEach(summary -> byId.put(summary.id(), summary));
+        List<DocumentSummary> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            DocumentSummary summary = byId.get(id);
+            if (summary != null) {
+                rows.add(summary);
+            }
+        }
+        return PageCursor.page(rows, pageSize, summary -> new PageCursor(summary.updatedAt(), summary.id()));
+    }
+
+    public TagFacets facets(Long userId, TagFilter filter) {
+        return tagIndex.facets(userId, filter);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, List<String>> tagsByDocument = new HashMap<>();
+        for (DocumentTag tag : tagRepository.findAll()) {
+            tagsByDocument.computeIfAbsent(tag.getDocumentId(), id -> new ArrayList<>()).add(tag.getTag());
+        }
+        tagIndex.clear();
+        for (DocumentTagRow row : documentRepository.findTagRows()) {
+            tagIndex.put(row.id(), row.userId(), tagsByDocument.getOrDefault(row.id(), List.of()), row.category(), row.updatedAt());
+        }
+    }
+}
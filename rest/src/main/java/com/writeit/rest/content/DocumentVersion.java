@@ -1,7 +1,10 @@
 package com.writeit.rest.content;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -26,9 +29,17 @@ public class DocumentVersion {
     @Column(nullable = false)
     private String title;
 
-    @Column(columnDefinition = "TEXT")
+    @Column(columnDefinition = "BYTEA")
+    @Convert(converter = CompressedTextConverter.class)
     private String content;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_kind", nullable = false)
+    private VersionStorageKind storageKind = VersionStorageKind.FULL;
+
+    @Column(name = "content_length")
+    private Integer contentLength;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -47,5 +58,9 @@ public class DocumentVersion {
     public void setTitle(String title) { this.title = title; }
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
+    public VersionStorageKind getStorageKind() { return storageKind; }
+    public void setStorageKind(VersionStorageKind storageKind) { this.storageKind = storageKind; }
+    public Integer getContentLength() { return contentLength; }
+    public void setContentLength(Integer contentLength) { this.contentLength = contentLength; }
     public Instant getCreatedAt() { return createdAt; }
 }
@@ -3,8 +3,26 @@ package com.writeit.rest.content;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DocumentVersionRepository extends JpaRepository<DocumentVersion, Long> {
-    List<DocumentVersion> findByDocumentIdOrderByVersionNumberDesc(Long documentId);
+    List<DocumentVersion> findByDocumentIdOrderByVersionNumberAsc(Long documentId);
+
     Optional<DocumentVersion> findTopByDocumentIdOrderByVersionNumberDesc(Long documentId);
+
+    Optional<DocumentVersion> findTopByDocumentIdAndStorageKindAndVersionNumberLessThanEqualOrderByVersionNumberDesc(
+        Long documentId, VersionStorageKind storageKind, int versionNumber);
+
+    List<DocumentVersion> findByDocumentIdAndVersionNumberBetweenOrderByVersionNumberAsc(
+        Long documentId, int fromVersion, int toVersion);
+
+    @Query("""
+        select new com.writeit.rest.content.DocumentVersionSummary(
+            v.id, v.documentId, v.versionNumber, v.title, v.contentLength, v.createdAt)
+        from DocumentVersion v
+        where v.documentId = :documentId
+        order by v.versionNumber desc
+        """)
+    List<DocumentVersionSummary> findSummariesByDocumentId(@Param("documentId") Long documentId);
 }
@@ -0,0 +1,23 @@
+package com.writeit.rest.content;
+
+import java.time.Instant;
+
+public record DocumentVersionResponse(
+    Long id,
+    Long documentId,
+    int versionNumber,
+    String title,
+    Integer contentLength,
+    Instant createdAt,
+    String content
+) {
+    static DocumentVersionResponse withoutContent(DocumentVersionSummary summary) {
+        return new DocumentVersionResponse(summary.id(), summary.documentId(), summary.versionNumber(),
+            summary.title(), summary.contentLength(), summary.createdAt(), null);
+    }
+
+    static DocumentVersionResponse withContent(DocumentVersion version, String content) {
+        return new DocumentVersionResponse(version.getId(), version.getDocumentId(), version.getVersionNumber(),
+            version.getTitle(), version.getContentLength(), version.getCreatedAt(), content);
+    }
+}
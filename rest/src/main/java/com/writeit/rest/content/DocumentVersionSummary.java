@@ -0,0 +1,13 @@
+package com.writeit.rest.content;
+
+import java.time.Instant;
+
+public record DocumentVersionSummary(
+    Long id,
+    Long documentId,
+    int versionNumber,
+    String title,
+    Integer contentLength,
+    Instant createdAt
+) {
+}
@@ -0,0 +1,264 @@
+package com.writeit.rest.content;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional write-behind buffer for document updates. Repeated saves of a document are coalesced
+ * to the latest request and written in one batched transaction per flush interval. Until then
+ * reads go through {@link #overlay(Document)} and {@link #overlaySummaries(List)} so callers see
+ * the staged state. A staged view already carries the revision its flush will commit: every
+ * flushed document is written, and so versioned, exactly once per flush. The change log is
+ * appended with the write, so a buffered document gets one entry per flush rather than per save.
+ */
+@Component
+public class DocumentWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentWriteBuffer.class);
+
+    private final DocumentRepository documentRepository;
+    private final BlogPostCache blogPostCache;
+    private final DocumentTagService tagService;
+    private final ChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object lock = new Object();
+    private Map<Long, PendingWrite> pending = new HashMap<>();
+    private Map<Long, PendingWrite> flushing = Map.of();
+    private final Set<Long> discarded = new HashSet<>();
+
+    public DocumentWriteBuffer(DocumentRepository documentRepository, BlogPostCache blogPostCache,
+                               DocumentTagService tagService, ChangeLog changeLog,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${writeit.autosave.write-behind.enabled:false}") boolean enabled) {
+        this.documentRepository = documentRepository;
+        this.blogPostCache = blogPostCache;
+        this.tagService = tagService;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Applies {@code request} to the document. In write-behind mode the request is staged as the
+     * latest state and a detached view with the request applied is returned; otherwise it is
+     * written immediately.
+     */
+    public Document write(Long id, DocumentRequest request) {
+        if (!enabled) {
+            return transactionTemplate.execute(status -> {
+                Document document = documentRepository.findById(id).orElseThrow();
+                DocumentService.applyRequest(document, request);
+                Document saved = documentRepository.save(document);
+                changeLog.changed(ChangeEntity.DOCUMENT, id);
+                return saved;
+            });
+        }
+        return stage(id, request);
+    }
+
+    public Document overlay(Document document) {
+        if (!enabled || document == null) {
+            return document;
+        }
+        synchronized (lock) {
+            Document staged = view(document.getId());
+            return staged == null ? document : staged;
+        }
+    }
+
+    /**
+     * Replaces listed summaries of documents with staged updates by summaries of the staged views.
+     */
+    public List<DocumentSummary> overlaySummaries(List<DocumentSummary> summaries) {
+        if (!enabled) {
+            return summaries;
+        }
+        synchronized (lock) {
+            return summaries.stream()
+                .map(summary -> {
+                    Document staged = view(summary.id());
+                    return staged == null ? summary : DocumentSummary.of(staged);
+                })
+                .toList();
+        }
+    }
+
+    public Optional<Document> find(Long id) {
+        if (enabled) {
+            synchronized (lock) {
+                Document staged = view(id);
+                if (staged != null) {
+                    return Optional.of(staged);
+                }
+            }
+        }
+        return documentRepository.findById(id);
+    }
+
+    public boolean exists(Long id) {
+        if (enabled) {
+            synchronized (lock) {
+                if (view(id) != null) {
+                    return true;
+                }
+            }
+        }
+        return documentRepository.existsById(id);
+    }
+
+    /**
+     * Drops the staged update of a document that is being deleted. If the update is part of a
+     * flush in progress, the flush skips it rather than failing the whole batch.
+     */
+    public void discard(Long id) {
+        synchronized (lock) {
+            pending.remove(id);
+            if (flushing.containsKey(id)) {
+                discarded.add(id);
+            }
+        }
+    }
+
+    /**
+     * Writes any staged update of the document before a caller reads it from the database.
+     */
+    public void flush(Long id) {
+        boolean staged;
+        synchronized (lock) {
+            staged = pending.containsKey(id) || flushing.containsKey(id);
+        }
+        if (staged) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${writeit.autosave.write-behind.flush-interval:PT2S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, PendingWrite> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+                flushing = batch;
+            }
+            try {
+                List<Document> written = new ArrayList<>(batch.size());
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Document document : documentRepository.findAllById(batch.keySet())) {
+                        if (isDiscarded(document.getId())) {
+                            continue;
+                        }
+                        DocumentService.applyRequest(document, batch.get(document.getId()).request());
+                        // Always write the row so the version moves by exactly one.
+                        document.preUpdate();
+                        written.add(document);
+                    }
+                    changeLog.changed(ChangeEntity.DOCUMENT, written.stream().map(Document::getId).toList());
+                });
+                batch.keySet().forEach(blogPostCache::evict);
+                // The committed updated_at differs from the staged one the tag index holds.
+                written.forEach(tagService::index);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to flush {} buffered document updates, retrying next interval", batch.size(), ex);
+                synchronized (lock) {
+                    batch.forEach((id, write) -> {
+                        if (!discarded.contains(id)) {
+                            // A newer staged update now commits the revision the failed one promised.
+                            pending.merge(id, write, (newer, failed) -> newer.withRevision(failed.view().getRevision()));
+                        }
+                    });
+                }
+            } finally {
+                synchronized (lock) {
+                    flushing = Map.of();
+                    discarded.clear();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private Document stage(Long id, DocumentRequest request) {
+        synchronized (lock) {
+            PendingWrite previous = pending.get(id);
+            boolean replacesPending = previous != null;
+            if (previous == null) {
+                previous = flushing.get(id);
+            }
+            // Read the row under the lock: a flush only leaves the document out of both maps once
+            // it has committed, so the row read here already carries that flush's revision.
+            Document base = previous != null ? previous.view() : documentRepository.findById(id).orElseThrow();
+            Document staged = stagedView(base, request, replacesPending);
+            pending.put(id, new PendingWrite(request, staged));
+            return staged;
+        }
+    }
+
+    /**
+     * {@code base} with {@code request} applied, at the revision the next flush will commit: the
+     * same as a pending view it replaces, otherwise one past {@code base}.
+     */
+    private static Document stagedView(Document base, DocumentRequest request, boolean replacesPending) {
+        Document staged = base.copy();
+        DocumentService.applyRequest(staged, request);
+        staged.preUpdate();
+        if (!replacesPending) {
+            staged.setRevision(base.getRevision() + 1);
+        }
+        return staged;
+    }
+
+    private boolean isDiscarded(Long id) {
+        synchronized (lock) {
+            return discarded.contains(id);
+        }
+    }
+
+    private Document view(Long id) {
+        PendingWrite write = pending.get(id);
+        if (write == null) {
+            write = flushing.get(id);
+        }
+        return write == null ? null : write.view();
+    }
+
+    private record PendingWrite(DocumentRequest request, Document view) {
+        PendingWrite withRevision(long revision) {
+            Document adjusted = view.copy();
+            adjusted.setRevision(revision);
+            return new PendingWrite(request, adjusted);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.writeit.rest.content;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes an EPUB 3 package straight to the output stream. Chapters are rendered to XHTML on a
+ * fixed pool, at most {@code IN_FLIGHT_PER_THREAD} per worker ahead of the writer, and added
+ * to the zip in chapter order. Stored media of the document in an EPUB core media type is
+ * copied into the package under {@code OEBPS/media/} and listed in the manifest, and images that
+ * show it are pointed at the packaged copy; images of media that cannot be packaged are replaced
+ * by their alt text.
+ */
+@Component
+public class EpubExportWriter {
+
+    private static final int IN_FLIGHT_PER_THREAD = 2;
+    private static final String MIMETYPE = "application/epub+zip";
+    private static final String STYLESHEET = """
+        body { font-family: serif; line-height: 1.5; margin: 0 5%; }
+        h1, h2, h3 { font-family: sans-serif; line-height: 1.2; }
+        img { max-width: 100%; }
+        """;
+    private static final Map<String, String> CORE_MEDIA_TYPES = Map.of(
+        "image/gif", "gif",
+        "image/jpeg", "jpg",
+        "image/png", "png",
+        "image/svg+xml", "svg",
+        "image/webp", "webp",
+        "audio/mpeg", "mp3",
+        "audio/mp4", "m4a");
+    private static final Pattern STORED_IMAGE = Pattern.compile(
+        "<img\\b([^>]*?)\\bsrc=\"" + Pattern.quote(MediaContentController.PATH) + "([0-9a-f]{64})(?:/[a-z]+)?\"([^>]*)>");
+    private static final Pattern ALT = Pattern.compile("\\balt=\"([^\"]*)\"");
+
+    private final DocumentRepository documentRepository;
+    private final ChapterRepository chapterRepository;
+    private final SectionRepository sectionRepository;
+    private final MediaFileRepository mediaFileRepository;
+    private final MediaStore mediaStore;
+    private final MediaDerivativeService derivativeService;
+    private final int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private final ExecutorService renderPool = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("epub-render-"));
+
+    public EpubExportWriter(DocumentRepository documentRepository, ChapterRepository chapterRepository,
+                            SectionRepository sectionRepository, MediaFileRepository mediaFileRepository,
+                            MediaStore mediaStore, MediaDerivativeService derivativeService) {
+        this.documentRepository = documentRepository;
+        this.chapterRepository = chapterRepository;
+        this.sectionRepository = sectionRepository;
+        this.mediaFileRepository = mediaFileRepository;
+        this.mediaStore = mediaStore;
+        this.derivativeService = derivativeService;
+    }
+
+    public void write(DocumentHeader header, OutputStream out) throws IOException {
+        List<Chapter> chapters = chapterRepository.findByDocumentIdOrderByPositionAsc(header.id());
+        List<MediaFile> media = mediaFileRepository.findByDocumentId(header.id());
+        Map<String, PackagedMedia> packaged = packagedMedia(media);
+        List<String> titles = chapters.isEmpty()
+            ? List.of(header.title())
+            : chapters.stream().map(Chapter::getTitle).toList();
+
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        writeMimetype(zip);
+        writeEntry(zip, "META-INF/container.xml", containerXml());
+        writeEntry(zip, "OEBPS/content.opf", packageDocument(header, titles, packaged.values(), !media.isEmpty()));
+        writeEntry(zip, "OEBPS/nav.xhtml", navigation(header, titles, !media.isEmpty()));
+        writeEntry(zip, "OEBPS/style.css", STYLESHEET);
+
+        if (chapters.isEmpty()) {
+            String content = documentRepository.findContentById(header.id()).orElse("");
+            writeEntry(zip, chapterFile(0), page(header.title(), xhtml(content, packaged)));
+        } else {
+            writeChapters(zip, chapters, packaged);
+        }
+        if (!media.isEmpty()) {
+            writeEntry(zip, "OEBPS/media.xhtml", mediaPage(media, packaged));
+        }
+        for (PackagedMedia item : packaged.values()) {
+            zip.putNextEntry(new ZipEntry("OEBPS/" + item.href()));
+            Files.copy(item.file(), zip);
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private void writeChapters(ZipOutputStream zip, List<Chapter> chapters, Map<String, PackagedMedia> packaged)
+        throws IOException {
+        int window = threads * IN_FLIGHT_PER_THREAD;
+        Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+        int submitted = 0;
+        for (int index = 0; index < chapters.size(); index++) {
+            while (submitted < chapters.size() && submitted < index + window) {
+                Chapter chapter = chapters.get(submitted++);
+                pending.addLast(CompletableFuture.supplyAsync(() -> renderChapter(chapter, packaged), renderPool));
+            }
+            byte[] xhtml = await(pending.removeFirst(), pending);
+            zip.putNextEntry(new ZipEntry(chapterFile(index)));
+            zip.write(xhtml);
+            zip.closeEntry();
+        }
+    }
+
+    private byte[] renderChapter(Chapter chapter, Map<String, PackagedMedia> packaged) {
+        StringBuilder body = new StringBuilder();
+        body.append("<h2>").append(XhtmlConverter.escape(chapter.getTitle())).append("</h2>\n");
+        for (Section section : sectionRepository.findByChapterIdOrderByPositionAsc(chapter.getId())) {
+            body.append("<section>\n<h3>").append(XhtmlConverter.escape(section.getTitle())).append("</h3>\n")
+                .append(xhtml(section.getContent(), packaged))
+                .append("\n</section>\n");
+        }
+        return page(chapter.getTitle(), body.toString()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] await(CompletableFuture<byte[]> future, Deque<CompletableFuture<byte[]>> pending) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            pending.forEach(next -> next.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("EPUB export interrupted", ex);
+        } catch (ExecutionException ex) {
+            pending.forEach(next -> next.cancel(true));
+            throw new IOException("Failed to render EPUB chapter", ex.getCause());
+        }
+    }
+
+    /**
+     * The document's stored media that can be packaged, by storage key. Images are packaged as
+     * their {@link MediaVariant#DISPLAY} rendition once it exists, so the book does not carry
+     * camera-sized originals; until then the original is used and the variant is requested.
+     */
+    private Map<String, PackagedMedia> packagedMedia(List<MediaFile> media) throws IOException {
+        Map<String, PackagedMedia> packaged = new LinkedHashMap<>();
+        for (MediaFile file : media) {
+            String key = file.getStorageKey();
+            String type = file.getContentType() == null ? null : file.getContentType().toLowerCase(Locale.ROOT);
+            String extension = type == null ? null : CORE_MEDIA_TYPES.get(type);
+            if (extension == null || packaged.containsKey(key)) {
+                continue;
+            }
+            Optional<Path> stored = mediaStore.find(key);
+            if (stored.isEmpty()) {
+                continue;
+            }
+            Path content = stored.get();
+            if (type.startsWith("image/") && !type.equals("image/svg+xml")) {
+                Optional<Path> display = derivativeService.find(key, MediaVariant.DISPLAY);
+                if (display.isPresent()) {
+                    content = display.get();
+                    type = MediaDerivativeService.variantType(content, type);
+                    extension = CORE_MEDIA_TYPES.get(type);
+                } else {
+                    derivativeService.submit(key);
+                }
+            }
+            String id = "media-%04d".formatted(packaged.size() + 1);
+            packaged.put(key, new PackagedMedia(id, "media/" + key + "." + extension, type, content));
+        }
+        return packaged;
+    }
+
+    private static String xhtml(String html, Map<String, PackagedMedia> packaged) {
+        return packageImages(XhtmlConverter.toXhtml(HtmlSanitizer.sanitize(html)), packaged);
+    }
+
+    static String packageImages(String xhtml, Map<String, PackagedMedia> packaged) {
+        if (!xhtml.contains(MediaContentController.PATH)) {
+            return xhtml;
+        }
+        return STORED_IMAGE.matcher(xhtml).replaceAll(match -> {
+            PackagedMedia item = packaged.get(match.group(2));
+            if (item != null) {
+                return Matcher.quoteReplacement("<img" + match.group(1) + "src=\"" + item.href() + "\"" + match.group(3) + ">");
+            }
+            Matcher alt = ALT.matcher(match.group(1) + match.group(3));
+            return Matcher.quoteReplacement(alt.find() ? alt.group(1) : "");
+        });
+    }
+
+    private String packageDocument(DocumentHeader header, List<String> titles, Iterable<PackagedMedia> packaged,
+                                   boolean hasMedia) {
+        StringBuilder manifest = new StringBuilder();
+        StringBuilder spine = new StringBuilder();
+        manifest.append("    <item id=\"nav\" href=\"nav.xhtml\" media-type=\"application/xhtml+xml\" properties=\"nav\"/>\n")
+            .append("    <item id=\"css\" href=\"style.css\" media-type=\"text/css\"/>\n");
+        for (int i = 0; i < titles.size(); i++) {
+            String id = chapterId(i);
+            manifest.append("    <item id=\"").append(id).append("\" href=\"").append(id)
+                .append(".xhtml\" media-type=\"application/xhtml+xml\"/>\n");
+            spine.append("    <itemref idref=\"").append(id).append("\"/>\n");
+        }
+        if (hasMedia) {
+            manifest.append("    <item id=\"media\" href=\"media.xhtml\" media-type=\"application/xhtml+xml\"/>\n");
+            spine.append("    <itemref idref=\"media\"/>\n");
+        }
+        for (PackagedMedia item : packaged) {
+            manifest.append("    <item id=\"").append(item.id()).append("\" href=\"").append(item.href())
+                .append("\" media-type=\"").append(item.mediaType()).append("\"/>\n");
+        }
+        return """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <package xmlns="http://www.idpf.org/2007/opf" version="3.0" unique-identifier="book-id">
+              <metadata xmlns:dc="http://purl.org/dc/elements/1.1/">
+                <dc:identifier id="book-id">urn:writeit:document:%d</dc:identifier>
+                <dc:title>%s</dc:title>
+                <dc:language>en</dc:language>
+                <meta property="dcterms:modified">%s</meta>
+              </metadata>
+              <manifest>
+            %s  </manifest>
+              <spine>
+            %s  </spine>
+            </package>
+            """.formatted(header.id(), XhtmlConverter.escape(header.title()),
+            Instant.now().truncatedTo(ChronoUnit.SECONDS), manifest, spine);
+    }
+
+    private String navigation(DocumentHeader header, List<String> titles, boolean hasMedia) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < titles.size(); i++) {
+            items.append("      <li><a href=\"").append(chapterId(i)).append(".xhtml\">")
+                .append(XhtmlConverter.escape(titles.get(i))).append("</a></li>\n");
+        }
+        if (hasMedia) {
+            items.append("      <li><a href=\"media.xhtml\">Media</a></li>\n");
+        }
+        return page(header.title(), """
+            <nav epub:type="toc" id="toc">
+              <h1>%s</h1>
+              <ol>
+            %s  </ol>
+            </nav>
+            """.formatted(XhtmlConverter.escape(header.title()), items));
+    }
+
+    private String mediaPage(List<MediaFile> media, Map<String, PackagedMedia> packaged) {
+        StringBuilder body = new StringBuilder("<h2>Media</h2>\n<ul>\n");
+        for (MediaFile file : media) {
+            PackagedMedia item = file.getStorageKey() == null ? null : packaged.get(file.getStorageKey());
+            String label = XhtmlConverter.escape(file.getFileName() != null ? file.getFileName() : file.getUrl());
+            String href = item != null ? item.href() : isRemote(file.getUrl()) ? XhtmlConverter.escape(file.getUrl()) : null;
+            body.append("<li>").append(XhtmlConverter.escape(file.getType())).append(": ");
+            if (href == null) {
+                body.append(label);
+            } else {
+                body.append("<a href=\"").append(href).append("\">").append(label).append("</a>");
+            }
+            body.append(" (").append(XhtmlConverter.escape(file.getProvider())).append(")</li>\n");
+        }
+        return page("Media", body.append("</ul>\n").toString());
+    }
+
+    private String page(String title, String body) {
+        return """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <!DOCTYPE html>
+            <html xmlns="http://www.w3.org/1999/xhtml" xmlns:epub="http://www.idpf.org/2007/ops" lang="en" xml:lang="en">
+            <head>
+            <meta charset="utf-8"/>
+            <title>%s</title>
+            <link rel="stylesheet" type="text/css" href="style.css"/>
+            </head>
+            <body>
+            %s
+            </body>
+            </html>
+            """.formatted(XhtmlConverter.escape(title), body);
+    }
+
+    private String containerXml() {
+        return """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <container version="1.0" xmlns="urn:oasis:names:tc:opendocument:xmlns:container">
+              <rootfiles>
+                <rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/>
+              </rootfiles>
+            </container>
+            """;
+    }
+
+    private void writeMimetype(ZipOutputStream zip) throws IOException {
+        byte[] bytes = MIMETYPE.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        ZipEntry entry = new ZipEntry("mimetype");
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    private void writeEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static boolean isRemote(String url) {
+        return url != null && (url.startsWith("https://") || url.startsWith("http://"));
+    }
+
+    private static String chapterId(int index) {
+        return "chapter-%04d".formatted(index + 1);
+    }
+
+    private static String chapterFile(int index) {
+        return "OEBPS/" + chapterId(index) + ".xhtml";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    record PackagedMedia(String id, String href, String mediaType, Path file) {
+    }
+}
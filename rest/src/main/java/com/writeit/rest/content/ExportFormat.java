@@ -0,0 +1,19 @@
+package com.writeit.rest.content;
+
+public enum ExportFormat {
+    MARKDOWN("md", "text/markdown"),
+    HTML("html", "text/html"),
+    PDF("pdf", "application/pdf"),
+    EPUB("epub", "application/epub+zip");
+
+    private final String extension;
+    private final String mimeType;
+
+    ExportFormat(String extension, String mimeType) {
+        this.extension = extension;
+        this.mimeType = mimeType;
+    }
+
+    public String extension() { return extension; }
+    public String mimeType() { return mimeType; }
+}
@@ -0,0 +1,211 @@
+package com.writeit.rest.content;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Reduces author HTML to an allowlist of formatting elements and attributes before it is served
+ * as a page or packaged into a book. Elements that can run or embed active content are dropped
+ * with everything inside them, other unknown elements are unwrapped, comments are removed, and
+ * URL attributes keep only relative, {@code http}, {@code https} and {@code mailto} targets.
+ * Kept attributes are re-quoted and escaped, so the output can be fed to {@link XhtmlConverter}.
+ */
+public final class HtmlSanitizer {
+
+    private static final Set<String> ALLOWED_TAGS = Set.of(
+        "p", "br", "hr", "h1", "h2", "h3", "h4", "h5", "h6", "div", "span", "section", "article", "header", "footer",
+        "aside", "blockquote", "q", "cite", "pre", "code", "kbd", "samp", "var", "strong", "b", "em", "i", "u", "s",
+        "strike", "del", "ins", "sub", "sup", "small", "mark", "abbr", "time", "ul", "ol", "li", "dl", "dt", "dd",
+        "a", "img", "figure", "figcaption", "table", "caption", "colgroup", "col", "thead", "tbody", "tfoot", "tr",
+        "th", "td");
+    private static final Set<String> DROPPED_WITH_CONTENT = Set.of(
+        "script", "style", "iframe", "frame", "frameset", "object", "embed", "applet", "noscript", "template",
+        "svg", "math", "textarea", "select", "title", "head");
+    private static final Set<String> GLOBAL_ATTRIBUTES = Set.of("title", "lang", "dir", "class");
+    private static final Map<String, Set<String>> TAG_ATTRIBUTES = Map.of(
+        "a", Set.of("href"),
+        "img", Set.of("src", "alt", "width", "height"),
+        "blockquote", Set.of("cite"),
+        "q", Set.of("cite"),
+        "ol", Set.of("start"),
+        "td", Set.of("colspan", "rowspan"),
+        "th", Set.of("colspan", "rowspan", "scope"),
+        "col", Set.of("span"),
+        "time", Set.of("datetime"));
+    private static final Set<String> URL_ATTRIBUTES = Set.of("href", "src", "cite");
+    private static final Set<String> VOID_TAGS = Set.of("br", "hr", "img", "col");
+
+    private HtmlSanitizer() {
+    }
+
+    public static String sanitize(String html) {
+        if (html == null || html.indexOf('<') < 0) {
+            return html;
+        }
+        StringBuilder out = new StringBuilder(html.length());
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c != '<') {
+                out.append(c);
+                i++;
+            } else if (html.startsWith("<!--", i)) {
+                int end = html.indexOf("-->", i + 4);
+                i = end < 0 ? length : end + 3;
+            } else if (i + 1 < length && (html.charAt(i + 1) == '!' || html.charAt(i + 1) == '?')) {
+                int end = html.indexOf('>', i);
+                i = end < 0 ? length : end + 1;
+            } else if (i + 1 < length && (Character.isLetter(html.charAt(i + 1)) || html.charAt(i + 1) == '/')) {
+                i = tag(out, html, i);
+            } else {
+                out.append("&lt;");
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Whether {@code url} is relative or uses a scheme that cannot run script.
+     */
+    static boolean isSafeUrl(String url, boolean allowMailto) {
+        StringBuilder compact = new StringBuilder(url.length());
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c > ' ' && c != 0x7F) {
+                compact.append(c);
+            }
+        }
+        String value = compact.toString().toLowerCase(Locale.ROOT);
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            return true;
+        }
+        for (char delimiter : new char[] {'/', '?', '#'}) {
+            int index = value.indexOf(delimiter);
+            if (index >= 0 && index < colon) {
+                return true;
+            }
+        }
+        String scheme = value.substring(0, colon);
+        return scheme.equals("http") || scheme.equals("https") || allowMailto && scheme.equals("mailto");
+    }
+
+    /**
+     * Copies or drops the tag starting at {@code start} and returns the index after it.
+     */
+    private static int tag(StringBuilder out, String html, int start) {
+        int length = html.length();
+        boolean closing = html.charAt(start + 1) == '/';
+        int nameStart = closing ? start + 2 : start + 1;
+        int nameEnd = nameStart;
+        while (nameEnd < length && Character.isLetterOrDigit(html.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String name = html.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+        StringBuilder attributes = new StringBuilder();
+        int[] end = {nameEnd};
+        boolean selfClosed = attributes(html, name, end, attributes);
+        if (closing) {
+            if (ALLOWED_TAGS.contains(name)) {
+                out.append("</").append(name).append('>');
+            }
+            return end[0];
+        }
+        if (DROPPED_WITH_CONTENT.contains(name)) {
+            // A self-closing slash does not end these elements in HTML.
+            return skipElement(html, name, end[0]);
+        }
+        if (ALLOWED_TAGS.contains(name)) {
+            out.append('<').append(name).append(attributes).append(selfClosed && VOID_TAGS.contains(name) ? "/>" : ">");
+        }
+        return end[0];
+    }
+
+    /**
+     * Reads the attributes after a tag name up to the closing {@code >}, appending the allowed
+     * ones to {@code kept}. Leaves the index after the tag in {@code position[0]} and returns
+     * whether the tag was self-closed.
+     */
+    private static boolean attributes(String html, String tag, int[] position, StringBuilder kept) {
+        int length = html.length();
+        int i = position[0];
+        boolean selfClosed = false;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '>') {
+                position[0] = i + 1;
+                return selfClosed;
+            }
+            if (Character.isWhitespace(c) || c == '/') {
+                selfClosed = c == '/';
+                i++;
+                continue;
+            }
+            selfClosed = false;
+            int nameStart = i;
+            while (i < length && !Character.isWhitespace(html.charAt(i)) && "/>=".indexOf(html.charAt(i)) < 0) {
+                i++;
+            }
+            String name = html.substring(nameStart, i).toLowerCase(Locale.ROOT);
+            while (i < length && Character.isWhitespace(html.charAt(i))) {
+                i++;
+            }
+            String value = null;
+            if (i < length && html.charAt(i) == '=') {
+                i++;
+                while (i < length && Character.isWhitespace(html.charAt(i))) {
+                    i++;
+                }
+                int valueStart = i;
+                if (i < length && (html.charAt(i) == '"' || html.charAt(i) == '\'')) {
+                    int close = html.indexOf(html.charAt(i), i + 1);
+                    valueStart = i + 1;
+                    i = close < 0 ? length : close;
+                    value = html.substring(valueStart, i);
+                    i = Math.min(length, i + 1);
+                } else {
+                    while (i < length && !Character.isWhitespace(html.charAt(i)) && html.charAt(i) != '>') {
+                        i++;
+                    }
+                    value = html.substring(valueStart, i);
+                }
+            }
+            keep(tag, name, value, kept);
+        }
+        position[0] = length;
+        return selfClosed;
+    }
+
+    private static void keep(String tag, String name, String value, StringBuilder kept) {
+        Set<String> allowed = TAG_ATTRIBUTES.getOrDefault(tag, Set.of());
+        if (!GLOBAL_ATTRIBUTES.contains(name) && !allowed.contains(name)) {
+            return;
+        }
+        String decoded = value == null ? "" : HtmlUtils.htmlUnescape(value);
+        if (URL_ATTRIBUTES.contains(name) && !isSafeUrl(decoded, name.equals("href"))) {
+            return;
+        }
+        kept.append(' ').append(name).append("=\"").append(XhtmlConverter.escape(decoded)).append('"');
+    }
+
+    /**
+     * Skips to the end of the matching close tag of a dropped element.
+     */
+    private static int skipElement(String html, String name, int from) {
+        int index = from;
+        while ((index = html.indexOf("</", index)) >= 0) {
+            int after = index + 2 + name.length();
+            if (html.regionMatches(true, index + 2, name, 0, name.length())
+                && (after >= html.length() || !Character.isLetterOrDigit(html.charAt(after)))) {
+                int end = html.indexOf('>', after);
+                return end < 0 ? html.length() : end + 1;
+            }
+            index += 2;
+        }
+        return html.length();
+    }
+}
@@ -0,0 +1,56 @@
+package com.writeit.rest.content;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Character-level helpers shared by the scanners that read editor HTML in place rather than
+ * parsing it: where a tag starts, its name, where an entity reference ends and which elements
+ * break text into blocks.
+ */
+final class HtmlText {
+
+    static final Set<String> BLOCK_TAGS = Set.of(
+        "p", "div", "br", "li", "ul", "ol", "blockquote", "pre", "hr", "tr", "table", "section", "article",
+        "h1", "h2", "h3", "h4", "h5", "h6");
+
+    private HtmlText() {
+    }
+
+    /**
+     * Whether {@code c}, following a {@code <}, starts a tag, closing tag, comment or doctype.
+     */
+    static boolean isTagStart(char c) {
+        return Character.isLetter(c) || c == '/' || c == '!';
+    }
+
+    /**
+     * The lower-cased name of the tag whose text after {@code <} is {@code text[from, to)}.
+     */
+    static String tagName(CharSequence text, int from, int to) {
+        int start = from < to && text.charAt(from) == '/' ? from + 1 : from;
+        int end = start;
+        while (end < to && Character.isLetterOrDigit(text.charAt(end))) {
+            end++;
+        }
+        return text.subSequence(start, end).toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The index of the {@code ;} closing an entity reference whose name starts at {@code from},
+     * before {@code to}, or -1 if the {@code &} does not start one.
+     */
+    static int entityEnd(CharSequence text, int from, int to) {
+        int limit = Math.min(to, from + 10);
+        for (int i = from; i < limit; i++) {
+            char c = text.charAt(i);
+            if (c == ';') {
+                return i > from ? i : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '#') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
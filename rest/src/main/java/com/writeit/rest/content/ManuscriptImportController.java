@@ -0,0 +1,31 @@
+package com.writeit.rest.content;
+
+import java.io.InputStream;
+import java.net.URI;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/documents")
+public class ManuscriptImportController {
+
+    private final ManuscriptImportService importService;
+
+    public ManuscriptImportController(ManuscriptImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Creates a book from a zip of Markdown files sent as the raw request body.
+     */
+    @PostMapping(value = "/import", consumes = {"application/zip", "application/x-zip-compressed", "application/octet-stream"})
+    public ResponseEntity<ManuscriptImportResponse> importManuscript(@RequestParam("userId") Long userId,
+                                                                     @RequestParam(value = "title", required = false) String title,
+                                                                     InputStream body) {
+        ManuscriptImportResponse imported = importService.importZip(body, userId, title);
+        return ResponseEntity.created(URI.create("/api/v1/documents/" + imported.documentId())).body(imported);
+    }
+}
@@ -0,0 +1,11 @@
+package com.writeit.rest.content;
+
+public record ManuscriptImportResponse(
+    Long documentId,
+    String title,
+    int chapters,
+    int sections,
+    int skippedEntries,
+    long elapsedMillis
+) {
+}
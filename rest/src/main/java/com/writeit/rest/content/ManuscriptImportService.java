@@ -0,0 +1,386 @@
+package com.writeit.rest.content;
+
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Imports a zip of Markdown files as a book in one transaction. The upload is first spooled to a
+ * temporary file, so a slow client never holds a connection or transaction open. Every
+ * file becomes a chapter titled by its first {@code #} heading or its file name, split into
+ * sections at {@code ##} headings. Chapter and section ids come from pooled sequences, so the
+ * rows are inserted in JDBC batches and the persistence context is flushed and cleared every
+ * {@link #FLUSH_INTERVAL} rows. Chapters are ordered by natural sort of their paths; if the
+ * archive lists them in another order, only the misplaced ranks are rewritten at the end.
+ */
+@Service
+public class ManuscriptImportService {
+
+    static final int MAX_ENTRIES = 10_000;
+    static final int MAX_ENTRY_BYTES = 8 * 1024 * 1024;
+    static final long MAX_ARCHIVE_BYTES = 100L * 1024 * 1024;
+    static final long MAX_TOTAL_BYTES = 256L * 1024 * 1024;
+    private static final int FLUSH_INTERVAL = 500;
+    private static final Set<String> EXTENSIONS = Set.of("md", "markdown", "mdown", "txt");
+
+    private final EntityManager entityManager;
+    private final DocumentRepository documentRepository;
+    private final DocumentSearchIndex searchIndex;
+    private final OutlineOrdering outlineOrdering;
+    private final DocumentTagService tagService;
+    private final ChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
+
+    public ManuscriptImportService(EntityManager entityManager, DocumentRepository documentRepository,
+                                   DocumentSearchIndex searchIndex, OutlineOrdering outlineOrdering,
+                                   DocumentTagService tagService, ChangeLog changeLog,
+                                   PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.documentRepository = documentRepository;
+        this.searchIndex = searchIndex;
+        this.outlineOrdering = outlineOrdering;
+        this.tagService = tagService;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ManuscriptImportResponse importZip(InputStream in, Long userId, String title) {
+        long started = System.nanoTime();
+        Import state = new Import();
+        Path archive = spool(in);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (InputStream spooled = Files.newInputStream(archive)) {
+                    read(spooled, userId, title, state);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } finally {
+            delete(archive);
+        }
+        tagService.index(state.document);
+        return new ManuscriptImportResponse(state.document.getId(), state.document.getTitle(), state.chapters.size(),
+            state.sections, state.skipped, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Copies the upload to a temporary file, refusing archives above {@link #MAX_ARCHIVE_BYTES}.
+     */
+    static Path spool(InputStream in) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("writeit-import-", ".zip");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    total += read;
+                    if (total > MAX_ARCHIVE_BYTES) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "A manuscript archive may be at most " + (MAX_ARCHIVE_BYTES >> 20) + " MB");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return file;
+        } catch (IOException ex) {
+            delete(file);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            delete(file);
+            throw ex;
+        }
+    }
+
+    private static void delete(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private void read(InputStream in, Long userId, String title, Import state) {
+        Document document = new Document();
+        document.setTitle(title == null || title.isBlank() ? "Imported manuscript" : title.strip());
+        document.setType(DocumentType.BOOK);
+        document.setContent("");
+        document.setUserId(userId);
+        state.document = documentRepository.save(document);
+        Long documentId = state.document.getId();
+
+        int entries = 0;
+        int words = 0;
+        int pending = 0;
+        try (ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (++entries > MAX_ENTRIES) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "A manuscript archive may hold at most " + MAX_ENTRIES + " entries");
+                }
+                String path = entry.getName().replace('\\', '/');
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (!isManuscriptFile(path)) {
+                    state.skipped++;
+                    readEntry(zip, path, state, false);
+                    continue;
+                }
+                String markdown = readEntry(zip, path, state, true);
+                List<ParsedSection> parsed = split(markdown, titleFromPath(path));
+
+                Chapter chapter = new Chapter();
+                chapter.setDocumentId(documentId);
+                chapter.setTitle(truncate(parsed.get(0).chapterTitle()));
+                chapter.setPosition((state.chapters.size() + 1) * OutlineOrdering.GAP);
+                entityManager.persist(chapter);
+                state.chapters.add(new ImportedChapter(chapter.getId(), path, chapter.getPosition()));
+                pending++;
+
+                int rank = 0;
+                for (ParsedSection part : parsed) {
+                    if (part.markdown().isBlank() && parsed.size() > 1) {
+                        continue;
+                    }
+                    Section section = new Section();
+                    section.setChapterId(chapter.getId());
+                    section.setTitle(truncate(part.title()));
+                    section.setContent(MarkdownConverter.toHtml(part.markdown()));
+                    section.setPosition(++rank * OutlineOrdering.GAP);
+                    entityManager.persist(section);
+                    searchIndex.indexSection(documentId, section);
+                    words += ContentMetrics.countWords(section.getContent());
+                    state.sections++;
+                    state.sectionIds.add(section.getId());
+                    pending++;
+                }
+                if (pending >= FLUSH_INTERVAL) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    pending = 0;
+                }
+            }
+        } catch (ZipException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The upload is not a valid zip archive", ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (state.chapters.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The archive contains no Markdown files");
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        outlineOrdering.setPositions(OutlineOrdering.Scope.CHAPTERS, misplacedChapters(state.chapters));
+        Document imported = documentRepository.findById(documentId).orElseThrow();
+        imported.setWordCount(words);
+        imported.setReadingTimeMinutes(ContentMetrics.estimateReadingTimeMinutes(words));
+        state.document = documentRepository.save(imported);
+        searchIndex.indexDocument(state.document);
+        changeLog.changed(ChangeEntity.DOCUMENT, documentId);
+        changeLog.changed(ChangeEntity.CHAPTER, state.chapters.stream().map(ImportedChapter::id).toList());
+        changeLog.changed(ChangeEntity.SECTION, state.sectionIds);
+    }
+
+    /**
+     * New ranks for the chapters whose arrival order differs from the natural order of their
+     * paths.
+     */
+    static Map<Long, Integer> misplacedChapters(List<ImportedChapter> chapters) {
+        List<ImportedChapter> sorted = new ArrayList<>(chapters);
+        sorted.sort(Comparator.comparing(ImportedChapter::path, ManuscriptImportService::comparePaths));
+        Map<Long, Integer> changes = new HashMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            int position = (i + 1) * OutlineOrdering.GAP;
+            if (sorted.get(i).position() != position) {
+                changes.put(sorted.get(i).id(), position);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Splits a Markdown file at its level-2 headings. The first part holds the text before the
+     * first {@code ##} heading, titled after the chapter; a leading {@code #} heading names the
+     * chapter and is dropped from the text.
+     */
+    static List<ParsedSection> split(String markdown, String fallbackTitle) {
+        String text = markdown.replace("\r\n", "\n");
+        String chapterTitle = MarkdownConverter.heading(text, 1);
+        if (chapterTitle != null) {
+            int heading = text.indexOf("# ");
+            int lineEnd = text.indexOf('\n', heading);
+            text = lineEnd < 0 ? "" : text.substring(lineEnd + 1);
+        } else {
+            chapterTitle = fallbackTitle;
+        }
+        List<ParsedSection> sections = new ArrayList<>();
+        String sectionTitle = chapterTitle;
+        int start = 0;
+        int lineStart = 0;
+        boolean inFence = false;
+        while (lineStart <= text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            String line = text.substring(lineStart, lineEnd).strip();
+            if (line.startsWith("```") || line.startsWith("~~~")) {
+                inFence = !inFence;
+            } else if (!inFence && line.startsWith("## ")) {
+                sections.add(new ParsedSection(chapterTitle, sectionTitle, text.substring(start, lineStart)));
+                sectionTitle = line.substring(3).strip().replaceAll("\\s+#+$", "");
+                start = Math.min(lineEnd + 1, text.length());
+            }
+            lineStart = lineEnd + 1;
+        }
+        sections.add(new ParsedSection(chapterTitle, sectionTitle, text.substring(start)));
+        return sections;
+    }
+
+    static boolean isManuscriptFile(String path) {
+        for (String segment : path.split("/")) {
+            if (segment.startsWith(".") || segment.equals("__MACOSX")) {
+                return false;
+            }
+        }
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') && EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * A readable title from a file name: {@code 03_the-long-night.md} becomes "The long night".
+     */
+    static String titleFromPath(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String title = base.replaceFirst("^[0-9]+[\\s._-]*", "").replace('_', ' ').replace('-', ' ').strip();
+        if (title.isEmpty()) {
+            return base;
+        }
+        return Character.toUpperCase(title.charAt(0)) + title.substring(1);
+    }
+
+    /**
+     * Orders paths segment by segment, comparing runs of digits by value so that
+     * {@code 2-intro.md} sorts before {@code 10-ending.md}.
+     */
+    static int comparePaths(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(j);
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                int endA = i;
+                while (endA < a.length() && Character.isDigit(a.charAt(endA))) {
+                    endA++;
+                }
+                int endB = j;
+                while (endB < b.length() && Character.isDigit(b.charAt(endB))) {
+                    endB++;
+                }
+                String digitsA = a.substring(i, endA).replaceFirst("^0+(?=.)", "");
+                String digitsB = b.substring(j, endB).replaceFirst("^0+(?=.)", "");
+                int compared = digitsA.length() != digitsB.length()
+                    ? Integer.compare(digitsA.length(), digitsB.length())
+                    : digitsA.compareTo(digitsB);
+                if (compared != 0) {
+                    return compared;
+                }
+                i = endA;
+                j = endB;
+                continue;
+            }
+            if (ca != cb) {
+                if (ca == '/' || cb == '/') {
+                    return ca == '/' ? -1 : 1;
+                }
+                int compared = Character.compare(Character.toLowerCase(ca), Character.toLowerCase(cb));
+                return compared != 0 ? compared : Character.compare(ca, cb);
+            }
+            i++;
+            j++;
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    /**
+     * Inflates the current entry, counting it towards {@link #MAX_TOTAL_BYTES}. Skipped entries
+     * are inflated too, so they are counted but not kept.
+     */
+    private static String readEntry(ZipInputStream zip, String path, Import state, boolean keep) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(keep ? 8192 : 0);
+        byte[] buffer = new byte[8192];
+        long size = 0;
+        int read;
+        while ((read = zip.read(buffer)) > 0) {
+            size += read;
+            state.inflated += read;
+            if (state.inflated > MAX_TOTAL_BYTES) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "A manuscript archive may expand to at most " + (MAX_TOTAL_BYTES >> 20) + " MB");
+            }
+            if (keep) {
+                if (size > MAX_ENTRY_BYTES) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        path + " is larger than " + (MAX_ENTRY_BYTES >> 20) + " MB");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        if (!keep) {
+            return null;
+        }
+        String text = out.toString(StandardCharsets.UTF_8);
+        return text.startsWith("\uFEFF") ? text.substring(1) : text;
+    }
+
+    private static String truncate(String title) {
+        String value = title == null || title.isBlank() ? "Untitled" : title.strip();
+        return value.length() <= 255 ? value : value.substring(0, 255);
+    }
+
+    record ParsedSection(String chapterTitle, String title, String markdown) {
+    }
+
+    record ImportedChapter(Long id, String path, int position) {
+    }
+
+    private static final class Import {
+        private final List<ImportedChapter> chapters = new ArrayList<>();
+        private Document document;
+        private int sections;
+        private final List<Long> sectionIds = new ArrayList<>();
+        private int skipped;
+        private long inflated;
+    }
+}
@@ -0,0 +1,345 @@
+package com.writeit.rest.content;
+
+/**
+ * Converts the Markdown subset that writing tools export into editor HTML in one pass over the
+ * lines: ATX headings, paragraphs, block quotes, fenced and indented code, ordered and unordered
+ * lists, horizontal rules, and inline emphasis, code spans, links and images. Raw HTML in the
+ * source is escaped rather than passed through.
+ */
+public final class MarkdownConverter {
+
+    private MarkdownConverter() {
+    }
+
+    public static String toHtml(String markdown) {
+        if (markdown == null || markdown.isBlank()) {
+            return "";
+        }
+        String[] lines = markdown.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1);
+        StringBuilder out = new StringBuilder(markdown.length() + markdown.length() / 4);
+        StringBuilder paragraph = new StringBuilder();
+        String openList = null;
+        boolean inQuote = false;
+        int i = 0;
+        while (i < lines.length) {
+            String line = lines[i];
+            String trimmed = line.strip();
+            if (trimmed.startsWith("```") || trimmed.startsWith("~~~")) {
+                inQuote = closeQuote(out, paragraph, inQuote);
+                flushParagraph(out, paragraph);
+                openList = closeList(out, openList);
+                String fence = trimmed.substring(0, 3);
+                String language = trimmed.substring(3).strip();
+                out.append(language.isEmpty() ? "<pre><code>" : "<pre><code class=\"language-" + escape(language) + "\">");
+                i++;
+                boolean first = true;
+                while (i < lines.length && !lines[i].strip().startsWith(fence)) {
+                    if (!first) {
+                        out.append('\n');
+                    }
+                    out.append(escape(lines[i]));
+                    first = false;
+                    i++;
+                }
+                out.append("</code></pre>\n");
+                i++;
+                continue;
+            }
+            if (trimmed.isEmpty()) {
+                inQuote = closeQuote(out, paragraph, inQuote);
+                flushParagraph(out, paragraph);
+                openList = closeList(out, openList);
+                i++;
+                continue;
+            }
+            if (paragraph.isEmpty() && openList == null && line.startsWith("    ")) {
+                inQuote = closeQuote(out, paragraph, inQuote);
+                out.append("<pre><code>");
+                boolean first = true;
+                while (i < lines.length && (lines[i].startsWith("    ") || lines[i].isBlank() && i + 1 < lines.length && lines[i + 1].startsWith("    "))) {
+                    if (!first) {
+                        out.append('\n');
+                    }
+                    out.append(escape(lines[i].length() >= 4 ? lines[i].substring(4) : ""));
+                    first = false;
+                    i++;
+                }
+                out.append("</code></pre>\n");
+                continue;
+            }
+            int level = headingLevel(trimmed);
+            if (level > 0) {
+                inQuote = closeQuote(out, paragraph, inQuote);
+                flushParagraph(out, paragraph);
+                openList = closeList(out, openList);
+                String text = trimmed.substring(level).strip().replaceAll("\\s+#+$", "");
+                out.append("<h").append(level).append('>');
+                appendInline(out, text);
+                out.append("</h").append(level).append(">\n");
+                i++;
+                continue;
+            }
+            if (isRule(trimmed)) {
+                inQuote = closeQuote(out, paragraph, inQuote);
+                flushParagraph(out, paragraph);
+                openList = closeList(out, openList);
+                out.append("<hr>\n");
+                i++;
+                continue;
+            }
+            if (trimmed.startsWith(">")) {
+                openList = closeList(out, openList);
+                if (!inQuote) {
+                    flushParagraph(out, paragraph);
+                    out.append("<blockquote>\n");
+                    inQuote = true;
+                }
+                String quoted = trimmed.substring(1).strip();
+                if (quoted.isEmpty()) {
+                    flushParagraph(out, paragraph);
+                } else {
+                    appendLine(paragraph, quoted);
+                }
+                i++;
+                continue;
+            }
+            int itemStart = listItemStart(trimmed);
+            if (itemStart > 0) {
+                inQuote = closeQuote(out, paragraph, inQuote);
+                flushParagraph(out, paragraph);
+                String listTag = Character.isDigit(trimmed.charAt(0)) ? "ol" : "ul";
+                if (!listTag.equals(openList)) {
+                    openList = closeList(out, openList);
+                    out.append('<').append(listTag).append(">\n");
+                    openList = listTag;
+                }
+                out.append("<li>");
+                appendInline(out, trimmed.substring(itemStart).strip());
+                out.append("</li>\n");
+                i++;
+                continue;
+            }
+            if (openList != null && Character.isWhitespace(line.charAt(0)) && out.length() >= 6) {
+                // A lazy continuation line of the previous list item.
+                out.setLength(out.length() - "</li>\n".length());
+                out.append(' ');
+                appendInline(out, trimmed);
+                out.append("</li>\n");
+                i++;
+                continue;
+            }
+            openList = closeList(out, openList);
+            inQuote = closeQuote(out, paragraph, inQuote);
+            appendLine(paragraph, line.endsWith("  ") ? trimmed + "\n" : trimmed);
+            i++;
+        }
+        closeQuote(out, paragraph, inQuote);
+        flushParagraph(out, paragraph);
+        closeList(out, openList);
+        return out.toString().strip();
+    }
+
+    private static void appendLine(StringBuilder paragraph, String text) {
+        if (!paragraph.isEmpty() && paragraph.charAt(paragraph.length() - 1) != '\n') {
+            paragraph.append(' ');
+        }
+        paragraph.append(text);
+    }
+
+    private static void flushParagraph(StringBuilder out, StringBuilder paragraph) {
+        if (paragraph.isEmpty()) {
+            return;
+        }
+        out.append("<p>");
+        String text = paragraph.toString().strip();
+        int start = 0;
+        int breakAt;
+        while ((breakAt = text.indexOf('\n', start)) >= 0) {
+            appendInline(out, text.substring(start, breakAt).strip());
+            out.append("<br>");
+            start = breakAt + 1;
+        }
+        appendInline(out, text.substring(start).strip());
+        out.append("</p>\n");
+        paragraph.setLength(0);
+    }
+
+    private static String closeList(StringBuilder out, String openList) {
+        if (openList != null) {
+            out.append("</").append(openList).append(">\n");
+        }
+        return null;
+    }
+
+    private static boolean closeQuote(StringBuilder out, StringBuilder paragraph, boolean inQuote) {
+        if (inQuote) {
+            flushParagraph(out, paragraph);
+            out.append("</blockquote>\n");
+        }
+        return false;
+    }
+
+    static void appendInline(StringBuilder out, String text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < length && "\\`*_[]()#+-.!>".indexOf(text.charAt(i + 1)) >= 0) {
+                appendEscaped(out, text.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == '`') {
+                int end = text.indexOf('`', i + 1);
+                if (end > i) {
+                    out.append("<code>").append(escape(text.substring(i + 1, end))).append("</code>");
+                    i = end + 1;
+                    continue;
+                }
+            }
+            if (c == '!' && i + 1 < length && text.charAt(i + 1) == '[') {
+                int[] link = link(text, i + 1);
+                if (link != null) {
+                    String alt = escape(text.substring(link[0], link[1]));
+                    String src = text.substring(link[2], link[3]);
+                    if (HtmlSanitizer.isSafeUrl(src, false)) {
+                        out.append("<img src=\"").append(escape(src)).append("\" alt=\"").append(alt).append("\">");
+                    } else {
+                        out.append(alt);
+                    }
+                    i = link[4] + 1;
+                    continue;
+                }
+            }
+            if (c == '[') {
+                int[] link = link(text, i);
+                if (link != null) {
+                    String href = text.substring(link[2], link[3]);
+                    if (HtmlSanitizer.isSafeUrl(href, true)) {
+                        out.append("<a href=\"").append(escape(href)).append("\">");
+                        appendInline(out, text.substring(link[0], link[1]));
+                        out.append("</a>");
+                    } else {
+                        appendInline(out, text.substring(link[0], link[1]));
+                    }
+                    i = link[4] + 1;
+                    continue;
+                }
+            }
+            if ((c == '*' || c == '_') && i + 1 < length) {
+                boolean strong = text.charAt(i + 1) == c;
+                String marker = strong ? text.substring(i, i + 2) : String.valueOf(c);
+                int contentStart = i + marker.length();
+                int end = contentStart < length && !Character.isWhitespace(text.charAt(contentStart))
+                    ? text.indexOf(marker, contentStart + 1) : -1;
+                boolean wordInside = c == '_' && i > 0 && Character.isLetterOrDigit(text.charAt(i - 1));
+                if (end > contentStart && !wordInside && !Character.isWhitespace(text.charAt(end - 1))) {
+                    String tag = strong ? "strong" : "em";
+                    out.append('<').append(tag).append('>');
+                    appendInline(out, text.substring(contentStart, end));
+                    out.append("</").append(tag).append('>');
+                    i = end + marker.length();
+                    continue;
+                }
+            }
+            appendEscaped(out, c);
+            i++;
+        }
+    }
+
+    /**
+     * Parses {@code [label](url "title")} at {@code open}; returns the label start and end, the
+     * url start and end and the index of the closing parenthesis, or null if there is no link.
+     */
+    private static int[] link(String text, int open) {
+        int labelEnd = text.indexOf("](", open + 1);
+        if (labelEnd < 0) {
+            return null;
+        }
+        int targetEnd = text.indexOf(')', labelEnd + 2);
+        if (targetEnd < 0) {
+            return null;
+        }
+        int targetStart = labelEnd + 2;
+        int space = text.indexOf(' ', targetStart);
+        int urlEnd = space >= 0 && space < targetEnd ? space : targetEnd;
+        return new int[] {open + 1, labelEnd, targetStart, urlEnd, targetEnd};
+    }
+
+    private static int headingLevel(String trimmed) {
+        int level = 0;
+        while (level < trimmed.length() && level < 7 && trimmed.charAt(level) == '#') {
+            level++;
+        }
+        if (level == 0 || level > 6) {
+            return 0;
+        }
+        return level == trimmed.length() || trimmed.charAt(level) == ' ' ? level : 0;
+    }
+
+    private static boolean isRule(String trimmed) {
+        if (trimmed.length() < 3) {
+            return false;
+        }
+        char marker = trimmed.charAt(0);
+        if (marker != '-' && marker != '*' && marker != '_') {
+            return false;
+        }
+        int count = 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == marker) {
+                count++;
+            } else if (c != ' ') {
+                return false;
+            }
+        }
+        return count >= 3;
+    }
+
+    private static int listItemStart(String trimmed) {
+        if (trimmed.length() > 1 && "-*+".indexOf(trimmed.charAt(0)) >= 0 && trimmed.charAt(1) == ' ') {
+            return 2;
+        }
+        int digits = 0;
+        while (digits < trimmed.length() && digits < 9 && Character.isDigit(trimmed.charAt(digits))) {
+            digits++;
+        }
+        if (digits > 0 && digits + 1 < trimmed.length() && (trimmed.charAt(digits) == '.' || trimmed.charAt(digits) == ')')
+            && trimmed.charAt(digits + 1) == ' ') {
+            return digits + 2;
+        }
+        return 0;
+    }
+
+    private static void appendEscaped(StringBuilder out, char c) {
+        switch (c) {
+            case '<' -> out.append("&lt;");
+            case '>' -> out.append("&gt;");
+            case '&' -> out.append("&amp;");
+            case '"' -> out.append("&quot;");
+            default -> out.append(c);
+        }
+    }
+
+    static String escape(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            appendEscaped(out, text.charAt(i));
+        }
+        return out.toString();
+    }
+
+    /**
+     * The first ATX heading text of {@code markdown} at {@code level}, or null.
+     */
+    static String heading(String markdown, int level) {
+        for (String line : markdown.split("\n", 64)) {
+            String trimmed = line.strip();
+            if (!trimmed.isEmpty()) {
+                return headingLevel(trimmed) == level ? trimmed.substring(level).strip().replaceAll("\\s+#+$", "") : null;
+            }
+        }
+        return null;
+    }
+}
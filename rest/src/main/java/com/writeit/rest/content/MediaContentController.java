@@ -0,0 +1,197 @@
+package com.writeit.rest.content;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves stored media objects by key. Objects are immutable, so responses carry the key as a
+ * strong ETag and a one-year immutable cache lifetime, and single byte ranges are honoured for
+ * seeking in audio and video. When the connector supports sendfile the body is handed to it as a
+ * file region and never passes through the heap; otherwise it is copied with
+ * {@link FileChannel#transferTo}. Images also have {@link MediaVariant} renditions under
+ * {@code <key>/<variant>}.
+ *
+ * <p>The stored content type is whatever the uploader sent. Only the image, audio and video types
+ * in {@link #INLINE_TYPES} are served inline; anything else, such as HTML or SVG, is sent as an
+ * attachment. Every response also carries {@code nosniff} and a sandboxing CSP.
+ */
+@RestController
+@RequestMapping(MediaContentController.PATH)
+public class MediaContentController {
+
+    static final String PATH = "/api/v1/media/";
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String CONTENT_SECURITY_POLICY = "default-src 'none'; sandbox";
+    static final Set<String> INLINE_TYPES = Set.of(
+        "image/png", "image/jpeg", "image/gif", "image/webp", "image/avif", "image/bmp",
+        "audio/mpeg", "audio/mp4", "audio/aac", "audio/ogg", "audio/wav", "audio/webm", "audio/flac",
+        "video/mp4", "video/webm", "video/ogg", "video/quicktime");
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaStore mediaStore;
+    private final MediaDerivativeService derivativeService;
+    private final MediaFileRepository mediaFileRepository;
+
+    public MediaContentController(MediaStore mediaStore, MediaDerivativeService derivativeService,
+                                  MediaFileRepository mediaFileRepository) {
+        this.mediaStore = mediaStore;
+        this.derivativeService = derivativeService;
+        this.mediaFileRepository = mediaFileRepository;
+    }
+
+    @GetMapping("{key}")
+    public void serve(@PathVariable("key") String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        secure(response);
+        Optional<Path> found = mediaStore.find(key);
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        send(found.get(), "\"" + key + "\"", contentType(key), request, response);
+    }
+
+    /**
+     * Serves a downscaled variant of an image. Until the variant has been generated the request
+     * is redirected to the original and generation is queued.
+     */
+    @GetMapping("{key}/{variant}")
+    public void serveVariant(@PathVariable("key") String key, @PathVariable("variant") String variantName,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        secure(response);
+        MediaVariant variant = MediaVariant.fromPathName(variantName);
+        String contentType = variant == null || mediaStore.find(key).isEmpty() ? null : contentType(key);
+        if (contentType == null || !contentType.startsWith("image/")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Optional<Path> found = derivativeService.find(key, variant);
+        if (found.isEmpty()) {
+            derivativeService.submit(key);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.setHeader(HttpHeaders.LOCATION, PATH + key);
+            response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+            return;
+        }
+        send(found.get(), "\"" + key + "-" + variant.pathName() + "\"", MediaDerivativeService.variantType(found.get(), contentType), request, response);
+    }
+
+    private void send(Path file, String etag, String contentType, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        long size = Files.size(file);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        ByteRange range = ifRange == null || ifRange.equals(etag)
+            ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size)
+            : null;
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            start = range.start();
+            length = range.length();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+        }
+        String inline = inlineType(contentType);
+        if (inline == null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+            response.setContentType(attachmentType(contentType));
+        } else {
+            response.setContentType(inline);
+        }
+        response.setContentLengthLong(length);
+        if (length == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    private static void secure(HttpServletResponse response) {
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", CONTENT_SECURITY_POLICY);
+    }
+
+    /**
+     * The bare, lower-cased type if it may be rendered inline, otherwise null.
+     */
+    static String inlineType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int semicolon = contentType.indexOf(';');
+        String type = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).strip().toLowerCase(Locale.ROOT);
+        return INLINE_TYPES.contains(type) ? type : null;
+    }
+
+    private static String attachmentType(String contentType) {
+        try {
+            return MediaType.parseMediaType(contentType).toString();
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    private String contentType(String key) {
+        List<String> types = mediaFileRepository.findContentTypes(key, Limit.of(1));
+        return types.isEmpty() || types.get(0) == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : types.get(0);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.strip();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,33 +1,146 @@
 package com.writeit.rest.content;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/v1/documents/{documentId}/media")
 public class MediaController {
 
     private final MediaFileRepository mediaFileRepository;
+    private final DocumentRepository documentRepository;
+    private final MediaStore mediaStore;
+    private final MediaDerivativeService derivativeService;
+    private final ChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
 
-    public MediaController(MediaFileRepository mediaFileRepository) {
+    public MediaController(MediaFileRepository mediaFileRepository, DocumentRepository documentRepository,
+                           MediaStore mediaStore, MediaDerivativeService derivativeService, ChangeLog changeLog,
+                           PlatformTransactionManager transactionManager) {
         this.mediaFileRepository = mediaFileRepository;
+        this.documentRepository = documentRepository;
+        this.mediaStore = mediaStore;
+        this.derivativeService = derivativeService;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @GetMapping
-    public List<MediaFile> list(@PathVariable("documentId") Long documentId) {
-        return mediaFileRepository.findByDocumentId(documentId);
+    public List<MediaFileResponse> list(@PathVariable("documentId") Long documentId) {
+        return mediaFileRepository.findByDocumentId(documentId).stream().map(MediaFileResponse::from).toList();
     }
 
     @PostMapping
-    public MediaFile add(@PathVariable("documentId") Long documentId, @RequestBody @Valid MediaFile mediaFile) {
+    public MediaFileResponse add(@PathVariable("documentId") Long documentId, @RequestBody @Valid MediaFile mediaFile) {
         mediaFile.setId(null);
         mediaFile.setDocumentId(documentId);
-        return mediaFileRepository.save(mediaFile);
+        mediaFile.setStorageKey(null);
+        return MediaFileResponse.from(save(mediaFile));
+    }
+
+    /**
+     * Stores an uploaded file in the local media store and records it against the document. The
+     * returned row's {@code url} serves the stored object; images also get downscaled variants,
+     * generated in the background.
+     */
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<MediaFileResponse> upload(@PathVariable("documentId") Long documentId,
+                                            @RequestPart("file") MultipartFile file,
+                                            @RequestParam(value = "type", required = false) String type) throws IOException {
+        if (!documentRepository.existsById(documentId)) {
+            return ResponseEntity.notFound().build();
+        }
+        MediaStore.StoredMedia stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = mediaStore.store(in);
+        }
+        String contentType = file.getContentType() == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : file.getContentType();
+        MediaFile mediaFile = new MediaFile();
+        mediaFile.setDocumentId(documentId);
+        mediaFile.setType(type == null || type.isBlank() ? typeOf(contentType) : type.strip());
+        mediaFile.setUrl(MediaContentController.PATH + stored.key());
+        mediaFile.setProvider("LOCAL");
+        mediaFile.setStorageKey(stored.key());
+        mediaFile.setContentType(contentType);
+        mediaFile.setSizeBytes(stored.size());
+        mediaFile.setFileName(fileName(file.getOriginalFilename()));
+        MediaFile saved = save(mediaFile);
+        if (isImage(saved)) {
+            derivativeService.submit(stored.key());
+        }
+        return ResponseEntity.created(URI.create(saved.getUrl())).body(MediaFileResponse.from(saved));
+    }
+
+    /**
+     * Inserts the row and its change-log entry in one transaction.
+     */
+    private MediaFile save(MediaFile mediaFile) {
+        return transactionTemplate.execute(status -> {
+            MediaFile saved = mediaFileRepository.save(mediaFile);
+            changeLog.changed(ChangeEntity.MEDIA, saved.getId());
+            return saved;
+        });
+    }
+
+    private static String typeOf(String contentType) {
+        String major = contentType.toLowerCase(Locale.ROOT);
+        if (major.startsWith("image/")) {
+            return "IMAGE";
+        }
+        if (major.startsWith("audio/")) {
+            return "AUDIO";
+        }
+        return major.startsWith("video/") ? "VIDEO" : "FILE";
+    }
+
+    private static String fileName(String original) {
+        if (original == null || original.isBlank()) {
+            return null;
+        }
+        String name = original.substring(Math.max(original.lastIndexOf('/'), original.lastIndexOf('\\')) + 1).strip();
+        return name.length() <= 255 ? name : name.substring(0, 255);
+    }
+
+    static boolean isImage(MediaFile mediaFile) {
+        return mediaFile.getStorageKey() != null && mediaFile.getContentType() != null
+            && mediaFile.getContentType().toLowerCase(Locale.ROOT).startsWith("image/");
+    }
+
+    /**
+     * A media row with the URLs of its image variants, keyed by variant name; empty for other
+     * files and external references.
+     */
+    public record MediaFileResponse(Long id, Long documentId, String type, String url, String provider, String storageKey,
+                                    String contentType, Long sizeBytes, String fileName, Map<String, String> variants) {
+        static MediaFileResponse from(MediaFile mediaFile) {
+            Map<String, String> variants = new LinkedHashMap<>();
+            if (isImage(mediaFile)) {
+                for (MediaVariant variant : MediaVariant.values()) {
+                    variants.put(variant.pathName(), MediaContentController.PATH + mediaFile.getStorageKey() + "/" + variant.pathName());
+                }
+            }
+            return new MediaFileResponse(mediaFile.getId(), mediaFile.getDocumentId(), mediaFile.getType(), mediaFile.getUrl(),
+                mediaFile.getProvider(), mediaFile.getStorageKey(), mediaFile.getContentType(), mediaFile.getSizeBytes(),
+                mediaFile.getFileName(), variants);
+        }
     }
 }
@@ -0,0 +1,241 @@
+package com.writeit.rest.content;
+
+import jakarta.annotation.PreDestroy;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+/**
+ * Generates the {@link MediaVariant} renditions of stored images on a small fixed pool with a
+ * bounded queue. Submitting never blocks: when the queue is full the image is skipped and its
+ * variants are requested again the first time one is served. Each variant is written next to
+ * the original as {@code <sha256>.<variant>}, a JPEG or, for images with transparency, a PNG;
+ * images already narrower than a variant get a hard link to the original instead. Images no
+ * reader can decode, or over {@code max-pixels}, are remembered in a bounded set and not retried;
+ * I/O failures are retried on the next request.
+ */
+@Service
+public class MediaDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaDerivativeService.class);
+    private static final float JPEG_QUALITY = 0.82f;
+    static final int MAX_UNSUPPORTED = 10_000;
+
+    private final MediaStore mediaStore;
+    private final long maxPixels;
+    private final ThreadPoolExecutor pool;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final Set<String> unsupported = Collections.synchronizedSet(Collections.newSetFromMap(
+        new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_UNSUPPORTED;
+            }
+        }));
+
+    public MediaDerivativeService(MediaStore mediaStore,
+                                  @Value("${writeit.media.derivatives.threads:1}") int threads,
+                                  @Value("${writeit.media.derivatives.queue-capacity:64}") int queueCapacity,
+                                  @Value("${writeit.media.derivatives.max-pixels:50000000}") long maxPixels) {
+        this.mediaStore = mediaStore;
+        this.maxPixels = maxPixels;
+        int workers = Math.max(1, threads);
+        this.pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new DaemonThreadFactory("media-derivatives-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues generation of the missing variants of {@code key}. Returns false if the queue is
+     * full; the image is then picked up again on a later request.
+     */
+    public boolean submit(String key) {
+        if (unsupported.contains(key) || !queued.add(key)) {
+            return true;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    generate(key);
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("Could not generate variants of media {}", key, ex);
+                } finally {
+                    queued.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            queued.remove(key);
+            log.debug("Derivative queue is full, skipping media {}", key);
+            return false;
+        }
+    }
+
+    public Optional<Path> find(String key, MediaVariant variant) {
+        return mediaStore.findVariant(key, variant);
+    }
+
+    /**
+     * The type of a generated variant: JPEG or PNG, or {@code originalType} if the variant is a
+     * link to a small original.
+     */
+    static String variantType(Path file, String originalType) throws IOException {
+        byte[] magic = new byte[2];
+        try (InputStream in = Files.newInputStream(file)) {
+            if (in.readNBytes(magic, 0, 2) < 2) {
+                return originalType;
+            }
+        }
+        if ((magic[0] & 0xFF) == 0xFF && (magic[1] & 0xFF) == 0xD8) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        return (magic[0] & 0xFF) == 0x89 && magic[1] == 'P' ? MediaType.IMAGE_PNG_VALUE : originalType;
+    }
+
+    void generate(String key) throws IOException {
+        Path original = mediaStore.find(key).orElse(null);
+        if (original == null || allVariantsExist(key)) {
+            return;
+        }
+        BufferedImage source = read(original);
+        if (source == null) {
+            unsupported.add(key);
+            return;
+        }
+        for (MediaVariant variant : MediaVariant.values()) {
+            Path target = mediaStore.variantPath(key, variant);
+            if (Files.exists(target)) {
+                continue;
+            }
+            if (source.getWidth() <= variant.width()) {
+                try {
+                    Files.createLink(target, original);
+                } catch (UnsupportedOperationException ex) {
+                    Files.copy(original, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                continue;
+            }
+            BufferedImage scaled = scale(source, variant.width());
+            Path temp = mediaStore.newTempFile();
+            try {
+                write(scaled, temp);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private boolean allVariantsExist(String key) {
+        for (MediaVariant variant : MediaVariant.values()) {
+            if (!Files.exists(mediaStore.variantPath(key, variant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the image, or returns null if no reader supports it or it has more than
+     * {@code maxPixels} pixels. The size is checked from the header before decoding.
+     */
+    private BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales {@code source} to {@code width}, halving the size in bilinear steps first so large
+     * reductions keep their detail.
+     */
+    static BufferedImage scale(BufferedImage source, int width) {
+        boolean alpha = source.getColorModel().hasAlpha();
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            int nextWidth = Math.max(width, currentWidth / 2);
+            int nextHeight = nextWidth == width ? targetHeight : Math.max(targetHeight, currentHeight / 2);
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+        } while (currentWidth > width);
+        return current;
+    }
+
+    private static void write(BufferedImage image, Path target) throws IOException {
+        if (image.getColorModel().hasAlpha()) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (OutputStream out = Files.newOutputStream(target);
+             ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
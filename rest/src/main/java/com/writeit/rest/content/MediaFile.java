@@ -27,6 +27,18 @@ public class MediaFile {
     @Column(nullable = false)
     private String provider;
 
+    @Column(name = "storage_key")
+    private String storageKey;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "file_name")
+    private String fileName;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public Long getDocumentId() { return documentId; }
@@ -37,4 +49,12 @@ public class MediaFile {
     public void setUrl(String url) { this.url = url; }
     public String getProvider() { return provider; }
     public void setProvider(String provider) { this.provider = provider; }
+    public String getStorageKey() { return storageKey; }
+    public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
 }
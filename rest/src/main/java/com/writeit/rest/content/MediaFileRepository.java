@@ -1,8 +1,14 @@
 package com.writeit.rest.content;
 
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {
     List<MediaFile> findByDocumentId(Long documentId);
+
+    @Query("select m.contentType from MediaFile m where m.storageKey = :storageKey order by m.id")
+    List<String> findContentTypes(@Param("storageKey") String storageKey, Limit limit);
 }
@@ -0,0 +1,133 @@
+package com.writeit.rest.content;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Content-addressed media objects on local disk. An upload streams through a SHA-256 digest into
+ * a temporary file, which is then renamed to {@code <root>/<aa>/<bb>/<sha256>}; identical uploads
+ * share one object and a stored object never changes, so it can be cached forever under its key.
+ * {@code writeit.media.root} has no default; only the local profile points it at the temp directory.
+ */
+@Component
+public class MediaStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final long maxBytes;
+
+    public MediaStore(@Value("${writeit.media.root}") String root,
+                      @Value("${writeit.media.max-size:200MB}") DataSize maxSize) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    public StoredMedia store(InputStream in) {
+        Path temp = null;
+        try {
+            temp = newTempFile();
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Media files may be at most " + DataSize.ofBytes(maxBytes).toMegabytes() + " MB");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+            Path target = objectPath(key);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredMedia(key, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * The file of a stored object, or empty if {@code key} is not a stored SHA-256 key.
+     */
+    public Optional<Path> find(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            return Optional.empty();
+        }
+        Path path = objectPath(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * The file of a generated variant of {@code key}, next to the original, or empty if it has
+     * not been generated.
+     */
+    public Optional<Path> findVariant(String key, MediaVariant variant) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            return Optional.empty();
+        }
+        Path path = variantPath(key, variant);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    Path variantPath(String key, MediaVariant variant) {
+        return objectPath(key).resolveSibling(key + "." + variant.pathName());
+    }
+
+    /**
+     * A new empty file in the store's own file system, to be renamed into place once complete.
+     */
+    Path newTempFile() throws IOException {
+        return Files.createTempFile(Files.createDirectories(root.resolve("incoming")), "upload-", ".part");
+    }
+
+    private Path objectPath(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // A leftover part file is harmless.
+            }
+        }
+    }
+
+    public record StoredMedia(String key, long size) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.writeit.rest.content;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downscaled renditions generated for stored images, by their maximum width in pixels.
+ */
+public enum MediaVariant {
+    THUMBNAIL(320),
+    DISPLAY(1024);
+
+    private static final Pattern STORED_IMAGE = Pattern.compile(
+        "(<img\\b[^>]*?\\bsrc=\")" + Pattern.quote(MediaContentController.PATH) + "([0-9a-f]{64})\"");
+
+    private final int width;
+
+    MediaVariant(int width) {
+        this.width = width;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public String pathName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static MediaVariant fromPathName(String name) {
+        for (MediaVariant variant : values()) {
+            if (variant.pathName().equals(name)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Points every {@code <img>} in {@code html} that shows a stored original at this variant.
+     */
+    public String rewriteImages(String html) {
+        if (html == null || !html.contains(MediaContentController.PATH)) {
+            return html;
+        }
+        return STORED_IMAGE.matcher(html).replaceAll(match ->
+            Matcher.quoteReplacement(match.group(1) + MediaContentController.PATH + match.group(2) + "/" + pathName() + "\""));
+    }
+}
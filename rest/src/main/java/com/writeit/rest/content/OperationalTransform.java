@@ -0,0 +1,169 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Operational transformation of {@link TextOperation} sequences for concurrent editing. Edits
+ * are reduced to primitive inserts and deletes; {@link #transform} rebases a client's edits,
+ * written against an older revision, over the edits the server has applied since. When two
+ * inserts land on the same offset the one the server applied first stays on the left, so every
+ * editor that applies the server's operations in revision order converges on the same text.
+ */
+public final class OperationalTransform {
+
+    private OperationalTransform() {
+    }
+
+    /**
+     * Splits replacements into a delete followed by an insert and drops empty operations.
+     */
+    public static List<TextOperation> normalize(List<TextOperation> operations) {
+        List<TextOperation> primitives = new ArrayList<>(operations.size());
+        for (TextOperation operation : operations) {
+            if (operation == null || operation.type() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Operation type is required");
+            }
+            String text = operation.text() == null ? "" : operation.text();
+            if (operation.type() != TextOperationType.INSERT && operation.length() > 0) {
+                primitives.add(delete(operation.offset(), operation.length()));
+            }
+            if (operation.type() != TextOperationType.DELETE && !text.isEmpty()) {
+                primitives.add(insert(operation.offset(), text));
+            }
+        }
+        return primitives;
+    }
+
+    /**
+     * Checks that each operation fits the content left by the previous one, so a sequence is
+     * either applied whole or rejected before anything changes.
+     */
+    public static void validate(List<TextOperation> operations, int contentLength) {
+        int length = contentLength;
+        for (TextOperation operation : operations) {
+            int removed = operation.type() == TextOperationType.DELETE ? operation.length() : 0;
+            if (operation.offset() < 0 || removed < 0 || operation.offset() > length || removed > length - operation.offset()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Operation " + operation.type() + " at " + operation.offset() + "+" + removed + " is outside the content");
+            }
+            length += operation.type() == TextOperationType.INSERT ? operation.text().length() : -removed;
+        }
+    }
+
+    /**
+     * A normalized sequence that turns {@code from} into {@code to}: a delete and an insert
+     * spanning everything between their common prefix and suffix.
+     */
+    public static List<TextOperation> diff(String from, String to) {
+        int limit = Math.min(from.length(), to.length());
+        int prefix = 0;
+        while (prefix < limit && from.charAt(prefix) == to.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+            && from.charAt(from.length() - 1 - suffix) == to.charAt(to.length() - 1 - suffix)) {
+            suffix++;
+        }
+        List<TextOperation> operations = new ArrayList<>(2);
+        int removed = from.length() - prefix - suffix;
+        if (removed > 0) {
+            operations.add(delete(prefix, removed));
+        }
+        if (to.length() - prefix - suffix > 0) {
+            operations.add(insert(prefix, to.substring(prefix, to.length() - suffix)));
+        }
+        return operations;
+    }
+
+    /**
+     * Rebases {@code incoming} over {@code applied}, two normalized sequences written against the
+     * same content, so that it can be applied after {@code applied}.
+     */
+    public static List<TextOperation> transform(List<TextOperation> incoming, List<TextOperation> applied) {
+        return transformPair(incoming, applied).get(0);
+    }
+
+    /**
+     * Returns {@code [incoming', applied']}: each sequence rebased over the other. A client
+     * rebases its pending edits over the server's operations the same way.
+     */
+    static List<List<TextOperation>> transformPair(List<TextOperation> incoming, List<TextOperation> applied) {
+        if (incoming.isEmpty() || applied.isEmpty()) {
+            return List.of(incoming, applied);
+        }
+        if (incoming.size() > 1) {
+            List<List<TextOperation>> head = transformPair(incoming.subList(0, 1), applied);
+            List<List<TextOperation>> tail = transformPair(incoming.subList(1, incoming.size()), head.get(1));
+            return List.of(concat(head.get(0), tail.get(0)), tail.get(1));
+        }
+        if (applied.size() > 1) {
+            List<List<TextOperation>> head = transformPair(incoming, applied.subList(0, 1));
+            List<List<TextOperation>> tail = transformPair(head.get(0), applied.subList(1, applied.size()));
+            return List.of(tail.get(0), concat(head.get(1), tail.get(1)));
+        }
+        TextOperation client = incoming.get(0);
+        TextOperation server = applied.get(0);
+        return List.of(transform(client, server, false), transform(server, client, true));
+    }
+
+    /**
+     * Rebases one primitive over another; {@code winsTies} keeps an insert at the same offset on
+     * the left.
+     */
+    static List<TextOperation> transform(TextOperation operation, TextOperation over, boolean winsTies) {
+        int offset = operation.offset();
+        int overOffset = over.offset();
+        if (operation.type() == TextOperationType.INSERT) {
+            if (over.type() == TextOperationType.INSERT) {
+                boolean shift = overOffset < offset || overOffset == offset && !winsTies;
+                return List.of(shift ? insert(offset + over.text().length(), operation.text()) : operation);
+            }
+            if (offset <= overOffset) {
+                return List.of(operation);
+            }
+            return List.of(insert(Math.max(overOffset, offset - over.length()), operation.text()));
+        }
+
+        int end = offset + operation.length();
+        if (over.type() == TextOperationType.INSERT) {
+            int inserted = over.text().length();
+            if (overOffset <= offset) {
+                return List.of(delete(offset + inserted, operation.length()));
+            }
+            if (overOffset >= end) {
+                return List.of(operation);
+            }
+            // Keep the text inserted inside the deleted range.
+            return List.of(delete(offset, overOffset - offset), delete(offset + inserted, end - overOffset));
+        }
+        int overEnd = overOffset + over.length();
+        if (overEnd <= offset) {
+            return List.of(delete(offset - over.length(), operation.length()));
+        }
+        if (overOffset >= end) {
+            return List.of(operation);
+        }
+        int overlap = Math.min(end, overEnd) - Math.max(offset, overOffset);
+        int remaining = operation.length() - overlap;
+        return remaining == 0 ? List.of() : List.of(delete(Math.min(offset, overOffset), remaining));
+    }
+
+    private static TextOperation insert(int offset, String text) {
+        return new TextOperation(TextOperationType.INSERT, offset, text.length(), text);
+    }
+
+    private static TextOperation delete(int offset, int length) {
+        return new TextOperation(TextOperationType.DELETE, offset, length, null);
+    }
+
+    private static List<TextOperation> concat(List<TextOperation> first, List<TextOperation> second) {
+        List<TextOperation> joined = new ArrayList<>(first.size() + second.size());
+        joined.addAll(first);
+        joined.addAll(second);
+        return joined;
+    }
+}
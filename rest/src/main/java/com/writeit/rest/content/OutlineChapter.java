@@ -0,0 +1,6 @@
+package com.writeit.rest.content;
+
+import java.util.List;
+
+public record OutlineChapter(Long id, String title, int position, List<OutlineSection> sections) {
+}
@@ -0,0 +1,7 @@
+package com.writeit.rest.content;
+
+/**
+ * Places a chapter or section directly after sibling {@code afterId}, or first when it is null.
+ */
+public record OutlineMoveRequest(Long afterId) {
+}
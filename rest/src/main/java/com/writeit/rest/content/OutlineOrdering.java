@@ -0,0 +1,201 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps chapters and sections ordered by sparse ranks in their {@code position} column. New and
+ * moved rows take a rank between their neighbours, so a move writes one row; siblings are only
+ * renumbered {@link #GAP} apart when two neighbours have no free rank left. Ranks are read with a
+ * narrow id/position query and written with one JDBC batch of the rows that actually changed.
+ */
+@Component
+public class OutlineOrdering {
+
+    static final int GAP = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeLog changeLog;
+
+    public OutlineOrdering(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ChangeLog changeLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The rank for a new last child of {@code parentId}. Siblings are renumbered first if the
+     * last rank leaves no room. Call it in the transaction that inserts the child: the parent row
+     * stays locked until that commits, so concurrent appends never get the same rank.
+     */
+    public int append(Scope scope, Long parentId) {
+        return transactionTemplate.execute(status -> {
+            Ranks ranks = load(scope, parentId);
+            Placement placement = place(ranks.ids(), ranks.positions(), null, ranks.size() == 0 ? null : ranks.ids()[ranks.size() - 1]);
+            write(scope, placement.changes());
+            return placement.position();
+        });
+    }
+
+    /**
+     * Moves {@code id} directly after {@code afterId}, or to the front when {@code afterId} is
+     * null. Returns the new rank, or null if either row is not a child of {@code parentId}.
+     */
+    public Integer move(Scope scope, Long parentId, Long id, Long afterId) {
+        return transactionTemplate.execute(status -> {
+            Ranks ranks = load(scope, parentId);
+            if (ranks.indexOf(id) < 0 || afterId != null && (afterId.equals(id) || ranks.indexOf(afterId) < 0)) {
+                return null;
+            }
+            Placement placement = place(ranks.ids(), ranks.positions(), id, afterId);
+            write(scope, placement.changes());
+            return placement.position();
+        });
+    }
+
+    /**
+     * Applies explicit positions to children of {@code parentId}. Ids that belong to another
+     * parent are ignored and only rows whose position differs are written. Returns the number of
+     * rows written.
+     */
+    public int reorder(Scope scope, Long parentId, Map<Long, Integer> positions) {
+        return transactionTemplate.execute(status -> {
+            Ranks ranks = load(scope, parentId);
+            Map<Long, Integer> changes = new LinkedHashMap<>();
+            for (int i = 0; i < ranks.size(); i++) {
+                Integer position = positions.get(ranks.ids()[i]);
+                if (position != null && position != ranks.positions()[i]) {
+                    changes.put(ranks.ids()[i], position);
+                }
+            }
+            write(scope, changes);
+            return changes.size();
+        });
+    }
+
+    /**
+     * Writes the given ranks in one batch, e.g. to restore a sort order after a bulk insert.
+     */
+    public void setPositions(Scope scope, Map<Long, Integer> positions) {
+        write(scope, positions);
+    }
+
+    /**
+     * Computes the rank for {@code movedId} (or a new row when null) placed right after
+     * {@code afterId} (or first when null) among siblings sorted by position. Normally only the
+     * moved row changes; if the neighbours are adjacent, all siblings are spread {@link #GAP}
+     * apart and every row whose rank moved is returned.
+     */
+    static Placement place(long[] ids, int[] positions, Long movedId, Long afterId) {
+        List<Long> order = new ArrayList<>(ids.length + 1);
+        Map<Long, Integer> current = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            current.put(ids[i], positions[i]);
+            if (movedId == null || ids[i] != movedId) {
+                order.add(ids[i]);
+            }
+        }
+        int slot = afterId == null ? 0 : order.indexOf(afterId) + 1;
+        long lower = slot == 0 ? 0 : current.get(order.get(slot - 1));
+        long upper = slot < order.size() ? current.get(order.get(slot)) : lower + 2L * GAP;
+        long candidate = slot == order.size() ? lower + GAP : lower + (upper - lower) / 2;
+        if (candidate > lower && candidate < upper && candidate <= Integer.MAX_VALUE) {
+            Map<Long, Integer> changes = new LinkedHashMap<>();
+            if (movedId != null && current.get(movedId) != candidate) {
+                changes.put(movedId, (int) candidate);
+            }
+            return new Placement((int) candidate, changes);
+        }
+        Long placeholder = movedId == null ? Long.MIN_VALUE : movedId;
+        order.add(slot, placeholder);
+        Map<Long, Integer> changes = new LinkedHashMap<>();
+        int moved = 0;
+        for (int i = 0; i < order.size(); i++) {
+            int position = (i + 1) * GAP;
+            Long id = order.get(i);
+            if (id.equals(placeholder)) {
+                moved = position;
+                if (movedId == null) {
+                    continue;
+                }
+            }
+            if (current.get(id) != position) {
+                changes.put(id, position);
+            }
+        }
+        return new Placement(moved, changes);
+    }
+
+    private Ranks load(Scope scope, Long parentId) {
+        // Locking the parent row serializes rank changes among its children, so two concurrent
+        // appends cannot both read the same last rank.
+        jdbcTemplate.query("SELECT id FROM " + scope.parentTable + " WHERE id = ? FOR UPDATE", (rs, rowNum) -> null, parentId);
+        List<long[]> rows = jdbcTemplate.query(
+            "SELECT id, position FROM " + scope.table + " WHERE " + scope.parentColumn + " = ? ORDER BY position, id",
+            (rs, rowNum) -> new long[] {rs.getLong(1), rs.getInt(2)},
+            parentId);
+        long[] ids = new long[rows.size()];
+        int[] positions = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = rows.get(i)[0];
+            positions[i] = (int) rows.get(i)[1];
+        }
+        return new Ranks(ids, positions);
+    }
+
+    private void write(Scope scope, Map<Long, Integer> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(changes.size());
+        changes.forEach((id, position) -> batch.add(new Object[] {position, id}));
+        jdbcTemplate.batchUpdate("UPDATE " + scope.table + " SET position = ? WHERE id = ?", batch);
+        changeLog.changed(scope.entity, changes.keySet());
+    }
+
+    public enum Scope {
+        CHAPTERS("chapters", "documents", "document_id", ChangeEntity.CHAPTER),
+        SECTIONS("sections", "chapters", "chapter_id", ChangeEntity.SECTION);
+
+        private final String table;
+        private final String parentTable;
+        private final String parentColumn;
+        private final ChangeEntity entity;
+
+        Scope(String table, String parentTable, String parentColumn, ChangeEntity entity) {
+            this.table = table;
+            this.parentTable = parentTable;
+            this.parentColumn = parentColumn;
+            this.entity = entity;
+        }
+    }
+
+    /**
+     * The rank given to the placed row and the rows, including it, whose stored rank must change.
+     */
+    record Placement(int position, Map<Long, Integer> changes) {
+    }
+
+    private record Ranks(long[] ids, int[] positions) {
+        int size() {
+            return ids.length;
+        }
+
+        int indexOf(Long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.writeit.rest.content;
+
+public record OutlinePosition(Long id, int position) {
+}
@@ -0,0 +1,14 @@
+package com.writeit.rest.content;
+
+public record OutlineSection(
+    Long id,
+    Long chapterId,
+    String title,
+    int position,
+    Integer contentLength,
+    String content
+) {
+    public OutlineSection(Long id, Long chapterId, String title, int position, Integer contentLength) {
+        this(id, chapterId, title, position, contentLength, null);
+    }
+}
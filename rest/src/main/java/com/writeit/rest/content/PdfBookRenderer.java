@@ -0,0 +1,357 @@
+package com.writeit.rest.content;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Typesets a book onto 6x9in pages and hands each finished page to {@link PdfStreamWriter}, so
+ * memory stays bounded by one page regardless of manuscript length. Paragraph line breaks are
+ * kept in a JVM-wide LRU cache because repeated exports of a manuscript mostly re-measure
+ * unchanged paragraphs.
+ */
+public final class PdfBookRenderer {
+
+    static final float PAGE_WIDTH = 432;
+    static final float PAGE_HEIGHT = 648;
+    static final float MARGIN = 54;
+    static final float TEXT_WIDTH = PAGE_WIDTH - 2 * MARGIN;
+
+    private static final float FOOTER_BASELINE = 30;
+    private static final float PARAGRAPH_SPACING = 0.4f;
+    private static final TextStyle TITLE = new TextStyle(PdfFont.HELVETICA_BOLD, 24, 32);
+    private static final TextStyle CHAPTER = new TextStyle(PdfFont.HELVETICA_BOLD, 18, 24);
+    private static final TextStyle SECTION = new TextStyle(PdfFont.HELVETICA_BOLD, 13, 17);
+    private static final TextStyle HEADING = new TextStyle(PdfFont.HELVETICA_BOLD, 11, 15);
+    private static final TextStyle BODY = new TextStyle(PdfFont.TIMES_ROMAN, 11, 15);
+    private static final TextStyle FOOTER = new TextStyle(PdfFont.TIMES_ROMAN, 9, 9);
+
+    private static final int LINE_CACHE_SIZE = 8192;
+    private static final int MAX_CACHED_LENGTH = 1024;
+    private static final Map<LineKey, int[]> LINE_CACHE = new LinkedHashMap<>(LINE_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LineKey, int[]> eldest) {
+            return size() > LINE_CACHE_SIZE;
+        }
+    };
+
+    private final PdfStreamWriter writer;
+    private final PageContent content = new PageContent();
+    private boolean pageOpen;
+    private boolean numbered;
+    private boolean atTop;
+    private float y;
+    private TextStyle currentStyle;
+
+    public PdfBookRenderer(OutputStream out) throws IOException {
+        this.writer = new PdfStreamWriter(out, PAGE_WIDTH, PAGE_HEIGHT);
+    }
+
+    public void titlePage(String title) throws IOException {
+        newPage(false);
+        y = PAGE_HEIGHT * 0.62f;
+        paragraph(collapse(title), TITLE, true);
+        closePage();
+    }
+
+    public void chapter(String title) throws IOException {
+        newPage(true);
+        y -= CHAPTER.leading();
+        paragraph(collapse(title), CHAPTER, false);
+        y -= CHAPTER.leading() / 2;
+    }
+
+    public void section(String title) throws IOException {
+        ensurePage();
+        if (!atTop) {
+            y -= SECTION.leading() / 2;
+        }
+        if (y - SECTION.leading() - 2 * BODY.leading() < MARGIN) {
+            newPage(true);
+        }
+        paragraph(collapse(title), SECTION, false);
+    }
+
+    public void body(String html) throws IOException {
+        ensurePage();
+        for (Block block : blocks(html)) {
+            paragraph(block.text(), block.heading() ? HEADING : BODY, false);
+        }
+    }
+
+    /**
+     * Closes the last page, writes the page tree and xref table and returns the page count.
+     */
+    public int finish(String title) throws IOException {
+        ensurePage();
+        closePage();
+        writer.finish(title == null ? "" : title);
+        return writer.pageCount();
+    }
+
+    private void paragraph(String text, TextStyle style, boolean centered) throws IOException {
+        if (text.isEmpty()) {
+            return;
+        }
+        int[] ends = lineEnds(text, style.font(), style.size(), TEXT_WIDTH);
+        int start = 0;
+        for (int end : ends) {
+            if (y - style.leading() < MARGIN) {
+                newPage(true);
+            }
+            y -= style.leading();
+            float x = MARGIN;
+            if (centered) {
+                x += (TEXT_WIDTH - style.font().width(text, start, end) * style.size() / 1000f) / 2;
+            }
+            showText(style, x, y, text, start, end);
+            start = end;
+            while (start < text.length() && text.charAt(start) == ' ') {
+                start++;
+            }
+        }
+        y -= style.leading() * PARAGRAPH_SPACING;
+        atTop = false;
+    }
+
+    private void showText(TextStyle style, float x, float baseline, String text, int from, int to) {
+        if (!style.equals(currentStyle)) {
+            content.ascii("/").ascii(style.font().resourceName()).ascii(" ").number(style.size()).ascii(" Tf\n");
+            currentStyle = style;
+        }
+        content.ascii("1 0 0 1 ").number(x).ascii(" ").number(baseline).ascii(" Tm\n");
+        content.text(text, from, to).ascii(" Tj\n");
+    }
+
+    private void ensurePage() throws IOException {
+        if (!pageOpen) {
+            newPage(true);
+        }
+    }
+
+    private void newPage(boolean withNumber) throws IOException {
+        closePage();
+        content.reset();
+        content.ascii("BT\n");
+        pageOpen = true;
+        numbered = withNumber;
+        atTop = true;
+        currentStyle = null;
+        y = PAGE_HEIGHT - MARGIN;
+    }
+
+    private void closePage() throws IOException {
+        if (!pageOpen) {
+            return;
+        }
+        if (numbered) {
+            String number = Integer.toString(writer.pageCount() + 1);
+            float width = FOOTER.font().width(number, 0, number.length()) * FOOTER.size() / 1000f;
+            showText(FOOTER, (PAGE_WIDTH - width) / 2, FOOTER_BASELINE, number, 0, number.length());
+        }
+        content.ascii("ET\n");
+        writer.writePage(content.buffer(), content.size());
+        pageOpen = false;
+    }
+
+    /**
+     * Returns the exclusive end index of every line when {@code text} is broken greedily at
+     * spaces to fit {@code maxWidth} points. Words wider than a line are split. Only paragraphs
+     * of up to {@code MAX_CACHED_LENGTH} characters are cached, so a long run of text without
+     * blank lines is never pinned in the shared cache.
+     */
+    static int[] lineEnds(String text, PdfFont font, int size, float maxWidth) {
+        if (text.length() > MAX_CACHED_LENGTH) {
+            return breakLines(text, font, (int) (maxWidth * 1000 / size));
+        }
+        LineKey key = new LineKey(text, font, size, maxWidth);
+        synchronized (LINE_CACHE) {
+            int[] cached = LINE_CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        int[] ends = breakLines(text, font, (int) (maxWidth * 1000 / size));
+        synchronized (LINE_CACHE) {
+            LINE_CACHE.put(key, ends);
+        }
+        return ends;
+    }
+
+    private static int[] breakLines(String text, PdfFont font, int limit) {
+        int[] ends = new int[8];
+        int count = 0;
+        int lineStart = 0;
+        int lineWidth = 0;
+        int lastSpace = -1;
+        int widthBeforeSpace = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int width = font.width(c);
+            if (c == ' ') {
+                lastSpace = i;
+                widthBeforeSpace = lineWidth;
+            } else if (lineWidth + width > limit && i > lineStart) {
+                if (count == ends.length) {
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                if (lastSpace > lineStart) {
+                    ends[count++] = lastSpace;
+                    lineWidth -= widthBeforeSpace + font.width(' ');
+                    lineStart = lastSpace + 1;
+                } else {
+                    ends[count++] = i;
+                    lineWidth = 0;
+                    lineStart = i;
+                }
+                lastSpace = -1;
+            }
+            lineWidth += width;
+        }
+        if (lineStart < text.length()) {
+            if (count == ends.length) {
+                ends = Arrays.copyOf(ends, count + 1);
+            }
+            ends[count++] = text.length();
+        }
+        return Arrays.copyOf(ends, count);
+    }
+
+    /**
+     * Splits editor HTML into paragraphs of plain text at block-level tags. Inline tags are
+     * dropped, entities decoded and whitespace collapsed. Text without markup is split at blank
+     * lines.
+     */
+    static List<Block> blocks(String html) {
+        List<Block> blocks = new ArrayList<>();
+        if (html == null || html.isBlank()) {
+            return blocks;
+        }
+        boolean plain = html.indexOf('<') < 0;
+        StringBuilder text = new StringBuilder();
+        boolean heading = false;
+        boolean pendingSpace = false;
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            int tagEnd = c == '<' && !plain ? html.indexOf('>', i) : -1;
+            if (tagEnd > 0) {
+                String name = HtmlText.tagName(html, i + 1, tagEnd);
+                if (HtmlText.BLOCK_TAGS.contains(name)) {
+                    flush(blocks, text, heading);
+                    boolean closing = html.charAt(i + 1) == '/';
+                    heading = !closing && name.length() == 2 && name.charAt(0) == 'h';
+                    if (!closing && name.equals("li")) {
+                        text.append("\u2022 ");
+                    }
+                    pendingSpace = false;
+                }
+                i = tagEnd + 1;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                int newlines = 0;
+                while (i < length && Character.isWhitespace(html.charAt(i))) {
+                    newlines += html.charAt(i++) == '\n' ? 1 : 0;
+                }
+                if (plain && newlines > 1) {
+                    flush(blocks, text, heading);
+                    pendingSpace = false;
+                } else {
+                    pendingSpace = text.length() > 0;
+                }
+                continue;
+            }
+            if (pendingSpace) {
+                text.append(' ');
+                pendingSpace = false;
+            }
+            int entityEnd = c == '&' ? HtmlText.entityEnd(html, i + 1, html.length()) : -1;
+            if (entityEnd > 0) {
+                text.append(HtmlUtils.htmlUnescape(html.substring(i, entityEnd + 1)));
+                i = entityEnd + 1;
+            } else {
+                text.append(c);
+                i++;
+            }
+        }
+        flush(blocks, text, heading);
+        return blocks;
+    }
+
+    private static void flush(List<Block> blocks, StringBuilder text, boolean heading) {
+        if (text.length() > 0) {
+            blocks.add(new Block(text.toString(), heading));
+            text.setLength(0);
+        }
+    }
+
+    private static String collapse(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ");
+    }
+
+    record Block(String text, boolean heading) {
+    }
+
+    private record TextStyle(PdfFont font, int size, float leading) {
+    }
+
+    private record LineKey(String text, PdfFont font, int size, float maxWidth) {
+    }
+
+    private static final class PageContent extends ByteArrayOutputStream {
+
+        private PageContent() {
+            super(8 * 1024);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        PageContent ascii(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                write(text.charAt(i));
+            }
+            return this;
+        }
+
+        PageContent number(float value) {
+            long hundredths = Math.round(value * 100);
+            if (hundredths < 0) {
+                write('-');
+                hundredths = -hundredths;
+            }
+            ascii(Long.toString(hundredths / 100));
+            int fraction = (int) (hundredths % 100);
+            if (fraction != 0) {
+                write('.');
+                write('0' + fraction / 10);
+                if (fraction % 10 != 0) {
+                    write('0' + fraction % 10);
+                }
+            }
+            return this;
+        }
+
+        PageContent text(CharSequence text, int from, int to) {
+            write('(');
+            for (int i = from; i < to; i++) {
+                byte b = PdfFont.encode(text.charAt(i));
+                if (b == '(' || b == ')' || b == '\\') {
+                    write('\\');
+                }
+                write(b);
+            }
+            write(')');
+            return this;
+        }
+    }
+}
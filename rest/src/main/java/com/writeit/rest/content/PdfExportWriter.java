@@ -0,0 +1,40 @@
+package com.writeit.rest.content;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PdfExportWriter {
+
+    private final DocumentRepository documentRepository;
+    private final ChapterRepository chapterRepository;
+    private final SectionRepository sectionRepository;
+
+    public PdfExportWriter(DocumentRepository documentRepository, ChapterRepository chapterRepository,
+                           SectionRepository sectionRepository) {
+        this.documentRepository = documentRepository;
+        this.chapterRepository = chapterRepository;
+        this.sectionRepository = sectionRepository;
+    }
+
+    public int write(DocumentHeader header, OutputStream out) throws IOException {
+        PdfBookRenderer renderer = new PdfBookRenderer(out);
+        List<Chapter> chapters = chapterRepository.findByDocumentIdOrderByPositionAsc(header.id());
+        if (chapters.isEmpty()) {
+            renderer.chapter(header.title());
+            renderer.body(documentRepository.findContentById(header.id()).orElse(""));
+        } else {
+            renderer.titlePage(header.title());
+            for (Chapter chapter : chapters) {
+                renderer.chapter(chapter.getTitle());
+                for (Section section : sectionRepository.findByChapterIdOrderByPositionAsc(chapter.getId())) {
+                    renderer.section(section.getTitle());
+                    renderer.body(section.getContent());
+                }
+            }
+        }
+        return renderer.finish(header.title());
+    }
+}
@@ -0,0 +1,89 @@
+package com.writeit.rest.content;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Standard 14 Type1 fonts used by the PDF export, with their AFM advance widths (1/1000 em)
+ * resolved once per font into a 256-entry WinAnsi table.
+ */
+public enum PdfFont {
+    TIMES_ROMAN("F1", "Times-Roman", 500, new int[] {
+        250, 333, 408, 500, 500, 833, 778, 180, 333, 333, 500, 564, 250, 333, 250, 278,
+        500, 500, 500, 500, 500, 500, 500, 500, 500, 500, 278, 278, 564, 564, 564, 444,
+        921, 722, 667, 667, 722, 611, 556, 722, 722, 333, 389, 722, 611, 889, 722, 722,
+        556, 722, 667, 556, 611, 722, 722, 944, 722, 722, 611, 333, 278, 333, 469, 500,
+        333, 444, 500, 444, 500, 444, 333, 500, 500, 278, 278, 500, 278, 778, 500, 500,
+        500, 500, 333, 389, 278, 500, 500, 722, 500, 500, 444, 480, 200, 480, 541
+    }, Map.of('\u2018', 333, '\u2019', 333, '\u201C', 444, '\u201D', 444,
+        '\u2013', 500, '\u2014', 1000, '\u2022', 350, '\u2026', 1000)),
+    HELVETICA_BOLD("F2", "Helvetica-Bold", 556, new int[] {
+        278, 333, 474, 556, 556, 889, 722, 238, 333, 333, 389, 584, 278, 333, 278, 278,
+        556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 333, 333, 584, 584, 584, 611,
+        975, 722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833, 722, 778,
+        667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 333, 278, 333, 584, 556,
+        333, 556, 611, 556, 611, 556, 333, 611, 611, 278, 278, 556, 278, 889, 611, 611,
+        611, 611, 389, 556, 333, 611, 556, 778, 556, 556, 500, 389, 280, 389, 584
+    }, Map.of('\u2018', 278, '\u2019', 278, '\u201C', 500, '\u201D', 500,
+        '\u2013', 556, '\u2014', 1000, '\u2022', 350, '\u2026', 1000));
+
+    private final String resourceName;
+    private final String baseFont;
+    private final short[] widths = new short[256];
+
+    PdfFont(String resourceName, String baseFont, int defaultWidth, int[] asciiWidths, Map<Character, Integer> extras) {
+        this.resourceName = resourceName;
+        this.baseFont = baseFont;
+        Arrays.fill(widths, (short) defaultWidth);
+        for (int c = 32; c < 127; c++) {
+            widths[c] = (short) asciiWidths[c - 32];
+        }
+        for (int c = 160; c < 256; c++) {
+            String base = Normalizer.normalize(String.valueOf((char) c), Normalizer.Form.NFD);
+            char first = base.charAt(0);
+            widths[c] = first >= 32 && first < 127 ? widths[first] : (short) defaultWidth;
+        }
+        widths[160] = widths[' '];
+        extras.forEach((c, width) -> widths[WinAnsi.EXTRAS.get(c)] = width.shortValue());
+    }
+
+    public String resourceName() { return resourceName; }
+    public String baseFont() { return baseFont; }
+
+    public int width(char c) {
+        return widths[encode(c) & 0xFF];
+    }
+
+    public int width(CharSequence text, int from, int to) {
+        int total = 0;
+        for (int i = from; i < to; i++) {
+            total += width(text.charAt(i));
+        }
+        return total;
+    }
+
+    public static byte encode(char c) {
+        if (c >= 32 && c < 127 || c >= 160 && c < 256) {
+            return (byte) c;
+        }
+        if (c < 32) {
+            return ' ';
+        }
+        Integer code = WinAnsi.EXTRAS.get(c);
+        return code == null ? (byte) '?' : code.byteValue();
+    }
+
+    private static final class WinAnsi {
+        static final Map<Character, Integer> EXTRAS = Map.ofEntries(
+            Map.entry('\u20AC', 0x80), Map.entry('\u201A', 0x82), Map.entry('\u0192', 0x83),
+            Map.entry('\u201E', 0x84), Map.entry('\u2026', 0x85), Map.entry('\u2020', 0x86),
+            Map.entry('\u2021', 0x87), Map.entry('\u02C6', 0x88), Map.entry('\u2030', 0x89),
+            Map.entry('\u0160', 0x8A), Map.entry('\u2039', 0x8B), Map.entry('\u0152', 0x8C),
+            Map.entry('\u017D', 0x8E), Map.entry('\u2018', 0x91), Map.entry('\u2019', 0x92),
+            Map.entry('\u201C', 0x93), Map.entry('\u201D', 0x94), Map.entry('\u2022', 0x95),
+            Map.entry('\u2013', 0x96), Map.entry('\u2014', 0x97), Map.entry('\u02DC', 0x98),
+            Map.entry('\u2122', 0x99), Map.entry('\u0161', 0x9A), Map.entry('\u203A', 0x9B),
+            Map.entry('\u0153', 0x9C), Map.entry('\u017E', 0x9E), Map.entry('\u0178', 0x9F));
+    }
+}
@@ -0,0 +1,159 @@
+package com.writeit.rest.content;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Low-level PDF 1.4 writer. Objects go to the stream as soon as they are complete; only their
+ * byte offsets and the page object numbers are kept until the page tree and xref table are
+ * written by {@link #finish(String)}.
+ */
+public final class PdfStreamWriter {
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int RESOURCES = 3;
+    private static final int FIRST_FONT = 4;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final CountingOutputStream out;
+    private final String mediaBox;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final byte[] deflateChunk = new byte[BUFFER_SIZE];
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(BUFFER_SIZE);
+    private long[] offsets = new long[256];
+    private int[] pageObjects = new int[128];
+    private int pageCount;
+    private int nextObject = FIRST_FONT + PdfFont.values().length;
+
+    public PdfStreamWriter(OutputStream target, float pageWidth, float pageHeight) throws IOException {
+        this.out = new CountingOutputStream(new BufferedOutputStream(target, BUFFER_SIZE));
+        this.mediaBox = "[0 0 " + Math.round(pageWidth) + " " + Math.round(pageHeight) + "]";
+        out.write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n".getBytes(StandardCharsets.ISO_8859_1));
+        writeResources();
+    }
+
+    public int pageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Compresses one page content stream and writes it together with its page object.
+     */
+    public void writePage(byte[] content, int length) throws IOException {
+        deflater.reset();
+        deflater.setInput(content, 0, length);
+        deflater.finish();
+        compressed.reset();
+        while (!deflater.finished()) {
+            compressed.write(deflateChunk, 0, deflater.deflate(deflateChunk));
+        }
+
+        int contentObject = nextObject++;
+        beginObject(contentObject);
+        ascii("<< /Length " + compressed.size() + " /Filter /FlateDecode >>\nstream\n");
+        compressed.writeTo(out);
+        ascii("\nendstream\nendobj\n");
+
+        int pageObject = nextObject++;
+        beginObject(pageObject);
+        ascii("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox " + mediaBox + " /Resources " + RESOURCES
+            + " 0 R /Contents " + contentObject + " 0 R >>\nendobj\n");
+        if (pageCount == pageObjects.length) {
+            pageObjects = Arrays.copyOf(pageObjects, pageCount * 2);
+        }
+        pageObjects[pageCount++] = pageObject;
+    }
+
+    public void finish(String title) throws IOException {
+        int info = nextObject++;
+        beginObject(info);
+        ascii("<< /Title ");
+        string(title);
+        ascii(" /Producer (WriteIt) >>\nendobj\n");
+
+        beginObject(PAGES);
+        ascii("<< /Type /Pages /Count " + pageCount + " /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            ascii((i % 16 == 0 ? "\n" : " ") + pageObjects[i] + " 0 R");
+        }
+        ascii(" ] >>\nendobj\n");
+
+        beginObject(CATALOG);
+        ascii("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+
+        long xref = out.count;
+        ascii("xref\n0 " + nextObject + "\n0000000000 65535 f \n");
+        for (int object = 1; object < nextObject; object++) {
+            ascii(String.format("%010d 00000 n \n", offsets[object]));
+        }
+        ascii("trailer\n<< /Size " + nextObject + " /Root " + CATALOG + " 0 R /Info " + info + " 0 R >>\n");
+        ascii("startxref\n" + xref + "\n%%EOF\n");
+        out.flush();
+        deflater.end();
+    }
+
+    private void writeResources() throws IOException {
+        StringBuilder fonts = new StringBuilder();
+        for (PdfFont font : PdfFont.values()) {
+            int object = FIRST_FONT + font.ordinal();
+            beginObject(object);
+            ascii("<< /Type /Font /Subtype /Type1 /BaseFont /" + font.baseFont()
+                + " /Encoding /WinAnsiEncoding >>\nendobj\n");
+            fonts.append(" /").append(font.resourceName()).append(' ').append(object).append(" 0 R");
+        }
+        beginObject(RESOURCES);
+        ascii("<< /ProcSet [/PDF /Text] /Font <<" + fonts + " >> >>\nendobj\n");
+    }
+
+    private void beginObject(int number) throws IOException {
+        if (number >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        }
+        offsets[number] = out.count;
+        ascii(number + " 0 obj\n");
+    }
+
+    private void string(String text) throws IOException {
+        out.write('(');
+        for (int i = 0; i < text.length(); i++) {
+            byte b = PdfFont.encode(text.charAt(i));
+            if (b == '(' || b == ')' || b == '\\') {
+                out.write('\\');
+            }
+            out.write(b);
+        }
+        out.write(')');
+    }
+
+    private void ascii(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+}
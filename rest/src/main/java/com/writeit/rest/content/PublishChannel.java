@@ -0,0 +1,6 @@
+package com.writeit.rest.content;
+
+public enum PublishChannel {
+    MEDIUM,
+    KDP
+}
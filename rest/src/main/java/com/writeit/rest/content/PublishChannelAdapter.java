@@ -0,0 +1,17 @@
+package com.writeit.rest.content;
+
+/**
+ * Uploads a document to one external channel. Implementations are called from the publish
+ * worker pool, never on a request thread, and may block for as long as the channel needs.
+ * Throwing retries the job with backoff unless the exception is a non-retryable
+ * {@link PublishChannelException}.
+ */
+public interface PublishChannelAdapter {
+
+    PublishChannel channel();
+
+    /**
+     * Publishes the document and returns its external URL.
+     */
+    String publish(PublishJob job, DocumentHeader document) throws Exception;
+}
@@ -0,0 +1,17 @@
+package com.writeit.rest.content;
+
+public class PublishChannelException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean retryable;
+
+    public PublishChannelException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,104 @@
+package com.writeit.rest.content;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PublishJobRepository extends JpaRepository<PublishJob, Long> {
+    List<PublishJob> findByDocumentIdOrderByIdDesc(Long documentId);
+
+    @Query("""
+        select j.id from PublishJob j
+        where j.status = com.writeit.rest.content.PublishJobStatus.QUEUED
+          and j.channel = :channel
+          and j.nextAttemptAt <= :now
+        order by j.nextAttemptAt, j.id
+        """)
+    List<Long> findDueIds(@Param("channel") PublishChannel channel, @Param("now") Instant now, Limit limit);
+
+    /**
+     * Moves a queued job to RUNNING and counts the attempt. Returns 0 if another worker or
+     * instance claimed it first.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update PublishJob j
+        set j.status = com.writeit.rest.content.PublishJobStatus.RUNNING, j.attempts = j.attempts + 1, j.updatedAt = :now
+        where j.id = :id and j.status = com.writeit.rest.content.PublishJobStatus.QUEUED
+        """)
+    int claim(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Re-queues jobs whose worker stopped reporting, e.g. after a crash mid-upload.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update PublishJob j
+        set j.status = com.writeit.rest.content.PublishJobStatus.QUEUED, j.nextAttemptAt = :now, j.updatedAt = :now
+        where j.status = com.writeit.rest.content.PublishJobStatus.RUNNING and j.updatedAt < :staleBefore
+        """)
+    int requeueStale(@Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+
+    /**
+     * Extends the lease of jobs this instance is still working on, so a long upload is not
+     * re-queued and started a second time.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update PublishJob j
+        set j.updatedAt = :now
+        where j.id in :ids and j.status = com.writeit.rest.content.PublishJobStatus.RUNNING
+        """)
+    int renew(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Stores the outcome of attempt {@code attempt}. Returns 0 if the job is no longer RUNNING
+     * that attempt, e.g. because its lease expired and it was claimed again.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update PublishJob j
+        set j.status = :status, j.externalUrl = :externalUrl, j.lastError = :error, j.nextAttemptAt = :nextAttemptAt,
+            j.completedAt = :completedAt, j.updatedAt = :now
+        where j.id = :id and j.status = com.writeit.rest.content.PublishJobStatus.RUNNING and j.attempts = :attempt
+        """)
+    int finish(@Param("id") Long id, @Param("attempt") int attempt, @Param("status") PublishJobStatus status,
+               @Param("externalUrl") String externalUrl, @Param("error") String error,
+               @Param("nextAttemptAt") Instant nextAttemptAt, @Param("completedAt") Instant completedAt,
+               @Param("now") Instant now);
+
+    /**
+     * Sends a RUNNING job whose outcome could not be saved back to the queue, if it has attempts
+     * left. Returns 0 otherwise.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        update PublishJob j
+        set j.status = com.writeit.rest.content.PublishJobStatus.QUEUED, j.lastError = :error, j.nextAttemptAt = :retryAt,
+            j.updatedAt = :now
+        where j.id = :id and j.status = com.writeit.rest.content.PublishJobStatus.RUNNING and j.attempts < j.maxAttempts
+        """)
+    int requeueRunning(@Param("id") Long id, @Param("error") String error, @Param("retryAt") Instant retryAt,
+                       @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        update PublishJob j
+        set j.status = com.writeit.rest.content.PublishJobStatus.FAILED, j.lastError = :error, j.updatedAt = :now,
+            j.completedAt = :now
+        where j.id = :id and j.status = com.writeit.rest.content.PublishJobStatus.RUNNING
+        """)
+    int failRunning(@Param("id") Long id, @Param("error") String error, @Param("now") Instant now);
+}
@@ -0,0 +1,290 @@
+package com.writeit.rest.content;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Persistent queue of channel uploads. Requests only insert a QUEUED row; a dispatcher thread
+ * claims due jobs and hands them to a fixed worker pool, at most {@code workers} at a time overall
+ * and {@code channel-concurrency} per channel. Failed attempts are retried with doubling backoff
+ * until {@code max-attempts}, and jobs left RUNNING longer than {@code lease} (e.g. by a crashed
+ * instance) are queued again. The dispatcher renews the lease of jobs still uploading here, and
+ * an outcome is only stored while the job is still RUNNING the attempt that produced it.
+ */
+@Service
+public class PublishJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(PublishJobService.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PublishJobRepository jobRepository;
+    private final DocumentRepository documentRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<PublishChannel, PublishChannelAdapter> adapters = new EnumMap<>(PublishChannel.class);
+    private final Map<PublishChannel, Semaphore> channelPermits = new EnumMap<>(PublishChannel.class);
+    private final Semaphore workerPermits;
+    private final ExecutorService workerPool;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(new DaemonThreadFactory("publish-dispatcher-"));
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private Instant renewedAt = Instant.EPOCH;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public PublishJobService(PublishJobRepository jobRepository, DocumentRepository documentRepository,
+                             ObjectMapper objectMapper, List<PublishChannelAdapter> channelAdapters, Environment environment,
+                             @Value("${writeit.publishing.workers:4}") int workers,
+                             @Value("${writeit.publishing.channel-concurrency:2}") int channelConcurrency,
+                             @Value("${writeit.publishing.max-attempts:5}") int maxAttempts,
+                             @Value("${writeit.publishing.retry-backoff:PT5S}") Duration retryBackoff,
+                             @Value("${writeit.publishing.max-backoff:PT10M}") Duration maxBackoff,
+                             @Value("${writeit.publishing.lease:PT10M}") Duration lease) {
+        this.jobRepository = jobRepository;
+        this.documentRepository = documentRepository;
+        this.objectMapper = objectMapper;
+        for (PublishChannelAdapter adapter : channelAdapters) {
+            // A real integration wins over the local stub registered for the same channel.
+            PublishChannelAdapter existing = adapters.get(adapter.channel());
+            if (existing == null || existing instanceof StubPublishChannelAdapter) {
+                adapters.put(adapter.channel(), adapter);
+            } else if (!(adapter instanceof StubPublishChannelAdapter)) {
+                throw new IllegalStateException("More than one publish adapter for " + adapter.channel());
+            }
+        }
+        for (PublishChannel channel : adapters.keySet()) {
+            int limit = environment.getProperty(
+                "writeit.publishing.channels." + channel.name().toLowerCase(Locale.ROOT) + ".concurrency",
+                Integer.class, channelConcurrency);
+            channelPermits.put(channel, new Semaphore(Math.max(1, limit)));
+        }
+        this.workerPermits = new Semaphore(Math.max(1, workers));
+        this.workerPool = Executors.newFixedThreadPool(Math.max(1, workers), new DaemonThreadFactory("publish-worker-"));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    /**
+     * Stores a QUEUED job for the document and returns it without waiting for the upload.
+     */
+    public PublishJob enqueue(PublishChannel channel, Long documentId, Object payload) {
+        if (!adapters.containsKey(channel)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No publish adapter for " + channel);
+        }
+        PublishJob job = new PublishJob();
+        job.setDocumentId(documentId);
+        job.setChannel(channel);
+        job.setStatus(PublishJobStatus.QUEUED);
+        job.setPayload(toJson(payload));
+        job.setMaxAttempts(maxAttempts);
+        job.setNextAttemptAt(Instant.now());
+        PublishJob saved = jobRepository.save(job);
+        wake();
+        return saved;
+    }
+
+    public Optional<PublishJob> find(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    public List<PublishJob> listForDocument(Long documentId) {
+        return jobRepository.findByDocumentIdOrderByIdDesc(documentId);
+    }
+
+    /**
+     * Picks up retries that have become due and jobs queued by other instances.
+     */
+    @Scheduled(fixedDelayString = "${writeit.publishing.poll-interval:PT1S}")
+    public void poll() {
+        wake();
+    }
+
+    private void wake() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::dispatch);
+            } catch (RuntimeException ex) {
+                dispatchPending.set(false);
+                log.debug("Publish dispatcher is shut down", ex);
+            }
+        }
+    }
+
+    private void dispatch() {
+        dispatchPending.set(false);
+        try {
+            Instant now = Instant.now();
+            renewLeases(now);
+            int requeued = jobRepository.requeueStale(now.minus(lease), now);
+            if (requeued > 0) {
+                log.warn("Re-queued {} publish jobs whose lease expired", requeued);
+            }
+            for (Map.Entry<PublishChannel, Semaphore> entry : channelPermits.entrySet()) {
+                int free = Math.min(workerPermits.availablePermits(), entry.getValue().availablePermits());
+                if (free > 0) {
+                    for (Long id : jobRepository.findDueIds(entry.getKey(), now, Limit.of(free))) {
+                        if (!start(id, entry.getKey(), entry.getValue(), now)) {
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Publish dispatch failed", ex);
+        }
+    }
+
+    private boolean start(Long id, PublishChannel channel, Semaphore channelLimit, Instant now) {
+        if (!workerPermits.tryAcquire()) {
+            return false;
+        }
+        if (!channelLimit.tryAcquire()) {
+            workerPermits.release();
+            return false;
+        }
+        boolean submitted = false;
+        try {
+            if (jobRepository.claim(id, now) == 1) {
+                running.add(id);
+                workerPool.execute(() -> run(id, channel, channelLimit));
+                submitted = true;
+            }
+        } finally {
+            if (!submitted) {
+                running.remove(id);
+                channelLimit.release();
+                workerPermits.release();
+            }
+        }
+        return true;
+    }
+
+    private void run(Long id, PublishChannel channel, Semaphore channelLimit) {
+        try {
+            jobRepository.findById(id).ifPresent(job -> attempt(job, adapters.get(channel)));
+        } catch (RuntimeException ex) {
+            log.error("Publish job {} could not be updated", id, ex);
+            release(id, ex);
+        } finally {
+            running.remove(id);
+            channelLimit.release();
+            workerPermits.release();
+            wake();
+        }
+    }
+
+    private void attempt(PublishJob job, PublishChannelAdapter adapter) {
+        try {
+            DocumentHeader document = documentRepository.findHeaderById(job.getDocumentId())
+                .orElseThrow(() -> new PublishChannelException("Document " + job.getDocumentId() + " no longer exists", false));
+            String externalUrl = adapter.publish(job, document);
+            job.setStatus(PublishJobStatus.SUCCEEDED);
+            job.setExternalUrl(externalUrl);
+            job.setLastError(null);
+            job.setCompletedAt(Instant.now());
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            boolean retryable = !(ex instanceof PublishChannelException channelException) || channelException.isRetryable();
+            job.setLastError(truncate(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage()));
+            if (retryable && job.getAttempts() < job.getMaxAttempts()) {
+                job.setStatus(PublishJobStatus.QUEUED);
+                job.setNextAttemptAt(Instant.now().plus(backoff(job.getAttempts(), retryBackoff, maxBackoff)));
+            } else {
+                job.setStatus(PublishJobStatus.FAILED);
+                job.setCompletedAt(Instant.now());
+            }
+            log.info("Publish job {} attempt {} failed: {}", job.getId(), job.getAttempts(), job.getLastError());
+        }
+        int saved = jobRepository.finish(job.getId(), job.getAttempts(), job.getStatus(), job.getExternalUrl(),
+            job.getLastError(), job.getNextAttemptAt(), job.getCompletedAt(), Instant.now());
+        if (saved == 0) {
+            log.warn("Publish job {} was claimed again after its lease expired, dropping the result of attempt {}",
+                job.getId(), job.getAttempts());
+        }
+    }
+
+    /**
+     * Refreshes the lease of the jobs uploading on this instance, a few times per lease period.
+     */
+    private void renewLeases(Instant now) {
+        if (running.isEmpty() || now.isBefore(renewedAt.plus(lease.dividedBy(4)))) {
+            return;
+        }
+        jobRepository.renew(List.copyOf(running), now);
+        renewedAt = now;
+    }
+
+    /**
+     * Takes a job out of RUNNING after its result could not be saved, so it does not wait for the
+     * lease: it is queued again while it has attempts left and failed otherwise. If even that
+     * update fails, the lease still recovers the job.
+     */
+    private void release(Long id, RuntimeException cause) {
+        try {
+            Instant now = Instant.now();
+            String error = truncate("Job state could not be saved: "
+                + (cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage()));
+            if (jobRepository.requeueRunning(id, error, now.plus(retryBackoff), now) == 0) {
+                jobRepository.failRunning(id, error, now);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Publish job {} stays RUNNING until its lease expires", id, ex);
+        }
+    }
+
+    /**
+     * Delay before the retry that follows attempt {@code attempt} (1-based): {@code base},
+     * doubling per attempt and capped at {@code max}.
+     */
+    static Duration backoff(int attempt, Duration base, Duration max) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long millis = base.toMillis() << shift;
+        return millis < 0 || millis > max.toMillis() ? max : Duration.ofMillis(millis);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return payload == null ? null : objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Publish options could not be stored", ex);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        workerPool.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package com.writeit.rest.content;
+
+public enum PublishJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -1,13 +1,17 @@
 package com.writeit.rest.content;
 
 import jakarta.validation.constraints.NotNull;
+import java.net.URI;
 import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -15,56 +19,82 @@ import org.springframework.web.bind.annotation.RestController;
 public class PublishingController {
 
     private final DocumentRepository documentRepository;
+    private final DocumentWriteBuffer writeBuffer;
+    private final BlogPostCache blogPostCache;
+    private final BlogFeedCache blogFeedCache;
+    private final PublishJobService publishJobService;
+    private final ChangeLog changeLog;
+    private final DocumentTagService tagService;
 
-    public PublishingController(DocumentRepository documentRepository) {
+    public PublishingController(DocumentRepository documentRepository, DocumentWriteBuffer writeBuffer,
+                                BlogPostCache blogPostCache, BlogFeedCache blogFeedCache,
+                                PublishJobService publishJobService, ChangeLog changeLog,
+                                DocumentTagService tagService) {
         this.documentRepository = documentRepository;
+        this.writeBuffer = writeBuffer;
+        this.blogPostCache = blogPostCache;
+        this.blogFeedCache = blogFeedCache;
+        this.publishJobService = publishJobService;
+        this.changeLog = changeLog;
+        this.tagService = tagService;
     }
 
     @PostMapping("/medium")
-    public ResponseEntity<PublishResponse> publishToMedium(@RequestBody MediumPublishRequest request) {
-        if (!documentRepository.existsById(request.documentId())) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(new PublishResponse(
-            "MEDIUM",
-            "QUEUED",
-            "https://medium.com/@writeit/mock-" + request.documentId(),
-            Instant.now().toString()
-        ));
+    public ResponseEntity<PublishJobResponse> publishToMedium(@RequestBody MediumPublishRequest request) {
+        return enqueue(PublishChannel.MEDIUM, request.documentId(), request);
     }
 
     @PostMapping("/kdp")
-    public ResponseEntity<PublishResponse> publishToKdp(@RequestBody KdpPublishRequest request) {
-        if (!documentRepository.existsById(request.documentId())) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(new PublishResponse(
-            "KDP",
-            "READY_FOR_UPLOAD",
-            "https://kdp.amazon.com/en_US/title-setup/mock-" + request.documentId(),
-            Instant.now().toString()
-        ));
+    public ResponseEntity<PublishJobResponse> publishToKdp(@RequestBody KdpPublishRequest request) {
+        return enqueue(PublishChannel.KDP, request.documentId(), request);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<PublishJobResponse> getJob(@PathVariable("id") Long id) {
+        return publishJobService.find(id)
+            .map(job -> ResponseEntity.ok(PublishJobResponse.from(job)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/jobs")
+    public List<PublishJobResponse> listJobs(@RequestParam("documentId") Long documentId) {
+        return publishJobService.listForDocument(documentId).stream().map(PublishJobResponse::from).toList();
     }
 
     @PostMapping("/write-it")
     public ResponseEntity<PublishResponse> publishToWriteIt(@RequestBody WriteItPublishRequest request) {
+        writeBuffer.flush(request.documentId());
         return documentRepository.findById(request.documentId())
             .map(document -> {
                 String slug = toSlug(document.getTitle(), document.getId());
                 document.setPublishedToWriteIt(true);
                 document.setWriteItSlug(slug);
                 document.setPublishedAt(Instant.now());
-                documentRepository.save(document);
+                Document published = documentRepository.save(document);
+                blogPostCache.publish(published);
+                blogFeedCache.update(published);
+                tagService.index(published);
+                changeLog.changed(ChangeEntity.DOCUMENT, published.getId());
                 return ResponseEntity.ok(new PublishResponse(
                     "WRITE_IT",
                     "PUBLISHED",
                     "/blog/" + slug,
-                    document.getPublishedAt().toString()
+                    published.getPublishedAt().toString()
                 ));
             })
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    private ResponseEntity<PublishJobResponse> enqueue(PublishChannel channel, Long documentId, Object options) {
+        if (documentId == null || !documentRepository.existsById(documentId)) {
+            return ResponseEntity.notFound().build();
+        }
+        PublishJob job = publishJobService.enqueue(channel, documentId, options);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/publishing/jobs/" + job.getId()))
+            .body(PublishJobResponse.from(job));
+    }
+
     private String toSlug(String title, Long id) {
         String base = (title == null ? "post" : title)
             .toLowerCase(Locale.ROOT)
@@ -84,4 +114,23 @@ public class PublishingController {
     public record WriteItPublishRequest(@NotNull Long documentId) {}
 
     public record PublishResponse(String channel, String status, String externalUrl, String generatedAt) {}
+
+    public record PublishJobResponse(Long jobId, String channel, String status, String externalUrl, String generatedAt,
+                                     int attempts, int maxAttempts, String lastError, String nextAttemptAt,
+                                     String completedAt) {
+        static PublishJobResponse from(PublishJob job) {
+            return new PublishJobResponse(
+                job.getId(),
+                job.getChannel().name(),
+                job.getStatus().name(),
+                job.getExternalUrl(),
+                job.getCreatedAt().toString(),
+                job.getAttempts(),
+                job.getMaxAttempts(),
+                job.getLastError(),
+                job.getStatus() == PublishJobStatus.QUEUED ? job.getNextAttemptAt().toString() : null,
+                job.getCompletedAt() == null ? null : job.getCompletedAt().toString()
+            );
+        }
+    }
 }
@@ -1,10 +1,14 @@
 package com.writeit.rest.content;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -12,7 +16,8 @@ import jakarta.persistence.Table;
 public class Section {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sections_seq")
+    @SequenceGenerator(name = "sections_seq", sequenceName = "sections_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "chapter_id", nullable = false)
@@ -21,11 +26,21 @@ public class Section {
     @Column(nullable = false)
     private String title;
 
-    @Column(columnDefinition = "TEXT")
+    @Column(columnDefinition = "BYTEA")
+    @Convert(converter = CompressedTextConverter.class)
     private String content;
 
+    @Column(name = "content_length")
+    private Integer contentLength;
+
     @Column(nullable = false)
-    private int position;
+    private Integer position;
+
+    @PrePersist
+    @PreUpdate
+    void measureContent() {
+        this.contentLength = content == null ? null : content.length();
+    }
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -35,6 +50,7 @@ public class Section {
     public void setTitle(String title) { this.title = title; }
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
-    public int getPosition() { return position; }
-    public void setPosition(int position) { this.position = position; }
+    public Integer getContentLength() { return contentLength; }
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
 }
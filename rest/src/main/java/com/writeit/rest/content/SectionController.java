@@ -1,12 +1,18 @@
 package com.writeit.rest.content;
 
 import jakarta.validation.Valid;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -14,9 +20,21 @@ import org.springframework.web.bind.annotation.RestController;
 public class SectionController {
 
     private final SectionRepository sectionRepository;
+    private final ChapterRepository chapterRepository;
+    private final DocumentSearchIndex searchIndex;
+    private final OutlineOrdering outlineOrdering;
+    private final ChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
 
-    public SectionController(SectionRepository sectionRepository) {
+    public SectionController(SectionRepository sectionRepository, ChapterRepository chapterRepository,
+                             DocumentSearchIndex searchIndex, OutlineOrdering outlineOrdering, ChangeLog changeLog,
+                             PlatformTransactionManager transactionManager) {
         this.sectionRepository = sectionRepository;
+        this.chapterRepository = chapterRepository;
+        this.searchIndex = searchIndex;
+        this.outlineOrdering = outlineOrdering;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @GetMapping("/chapters/{chapterId}/sections")
@@ -28,6 +46,45 @@ public class SectionController {
     public Section create(@PathVariable("chapterId") Long chapterId, @RequestBody @Valid Section section) {
         section.setId(null);
         section.setChapterId(chapterId);
-        return sectionRepository.save(section);
+        return transactionTemplate.execute(status -> {
+            if (section.getPosition() == null) {
+                section.setPosition(outlineOrdering.append(OutlineOrdering.Scope.SECTIONS, chapterId));
+            }
+            Section saved = sectionRepository.save(section);
+            chapterRepository.findById(chapterId)
+                .ifPresent(chapter -> searchIndex.indexSection(chapter.getDocumentId(), saved));
+            changeLog.changed(ChangeEntity.SECTION, saved.getId());
+            return saved;
+        });
+    }
+
+    @PatchMapping("/chapters/{chapterId}/sections/reorder")
+    public ResponseEntity<List<Section>> reorder(
+        @PathVariable("chapterId") Long chapterId,
+        @RequestBody @Valid List<SectionReorderItem> reorderItems
+    ) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (SectionReorderItem item : reorderItems) {
+            positions.put(item.sectionId(), item.position());
+        }
+        outlineOrdering.reorder(OutlineOrdering.Scope.SECTIONS, chapterId, positions);
+        List<Section> sections = sectionRepository.findByChapterIdOrderByPositionAsc(chapterId);
+        if (sections.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(sections);
+    }
+
+    @PatchMapping("/chapters/{chapterId}/sections/{sectionId}/move")
+    public ResponseEntity<OutlinePosition> move(
+        @PathVariable("chapterId") Long chapterId,
+        @PathVariable("sectionId") Long sectionId,
+        @RequestBody OutlineMoveRequest request
+    ) {
+        Integer position = outlineOrdering.move(OutlineOrdering.Scope.SECTIONS, chapterId, sectionId, request.afterId());
+        if (position == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new OutlinePosition(sectionId, position));
     }
 }
@@ -0,0 +1,9 @@
+package com.writeit.rest.content;
+
+import jakarta.validation.constraints.NotNull;
+
+public record SectionReorderItem(
+    @NotNull Long sectionId,
+    @NotNull Integer position
+) {
+}
@@ -1,8 +1,41 @@
 package com.writeit.rest.content;
 
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface SectionRepository extends JpaRepository<Section, Long> {
     List<Section> findByChapterIdOrderByPositionAsc(Long chapterId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Section s where s.id = :id")
+    Optional<Section> findForUpdate(@Param("id") Long id);
+
+    @Query("""
+        select new com.writeit.rest.content.OutlineSection(s.id, s.chapterId, s.title, s.position, s.contentLength)
+        from Section s
+        where s.chapterId in (select c.id from Chapter c where c.documentId = :documentId)
+        order by s.chapterId, s.position, s.id
+        """)
+    List<OutlineSection> findOutlineByDocumentId(@Param("documentId") Long documentId);
+
+    @Query("""
+        select new com.writeit.rest.content.OutlineSection(s.id, s.chapterId, s.title, s.position, s.contentLength, s.content)
+        from Section s
+        where s.chapterId in (select c.id from Chapter c where c.documentId = :documentId)
+        order by s.chapterId, s.position, s.id
+        """)
+    List<OutlineSection> findOutlineWithContentByDocumentId(@Param("documentId") Long documentId);
+
+    @Query("""
+        select new com.writeit.rest.content.OutlineSection(s.id, s.chapterId, s.title, s.position, s.contentLength)
+        from Section s
+        where s.id in :ids
+        """)
+    List<OutlineSection> findOutlineByIdIn(@Param("ids") Collection<Long> ids);
 }
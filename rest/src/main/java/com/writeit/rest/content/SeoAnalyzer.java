@@ -0,0 +1,433 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * SEO and readability statistics gathered in one scan over the content, without lowercasing or
+ * otherwise copying it. Word count follows {@link ContentMetrics}; readability, sentence lengths
+ * and keyword usage only look at visible text, so markup and entities are skipped. Headings are
+ * taken from {@code <h1>}..{@code <h6>} tags and from Markdown {@code #} lines. The rules in
+ * {@link #suggestions(String, Analysis)} only read the resulting {@link Analysis}.
+ */
+public final class SeoAnalyzer {
+
+    static final int MIN_WORDS = 300;
+    static final int MIN_TITLE_LENGTH = 20;
+    static final int MAX_TITLE_LENGTH = 60;
+    static final int LONG_SENTENCE_WORDS = 20;
+    static final double MAX_KEYWORD_DENSITY = 3.0;
+    static final int KEYWORD_LEAD_WORDS = 100;
+
+    private static final int MAX_KEYWORDS = 8;
+    private static final int MAX_HEADING_LENGTH = 200;
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "how", "in", "into", "is", "it", "its", "of",
+        "on", "or", "our", "than", "that", "the", "their", "this", "to", "what", "when", "why", "with", "you", "your");
+
+    private SeoAnalyzer() {
+    }
+
+    public static Analysis analyze(String title, CharSequence content) {
+        String[] terms = keywords(title);
+        int[] occurrences = new int[terms.length];
+        int[] firstWordIndex = new int[terms.length];
+        Arrays.fill(firstWordIndex, -1);
+        List<Heading> headings = new ArrayList<>();
+        StringBuilder headingText = new StringBuilder();
+        SentenceCounter sentences = new SentenceCounter();
+
+        int length = content == null ? 0 : content.length();
+        int rawWords = 0;
+        boolean inRawWord = false;
+        boolean blank = true;
+        int words = 0;
+        int syllables = 0;
+        int sentenceWords = 0;
+        boolean sentenceEnding = false;
+        int links = 0;
+        int images = 0;
+        int imagesWithoutAlt = 0;
+        boolean mentionsIntroduction = false;
+        int skipUntil = -1;
+        int headingLevel = 0;
+        int markdownLevel = 0;
+        boolean lineStart = true;
+        int wordStart = -1;
+        int wordSyllables = 0;
+        boolean previousVowel = false;
+
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? content.charAt(i) : '\n';
+            if (i < length) {
+                if (ContentMetrics.isSeparator(c)) {
+                    inRawWord = false;
+                } else {
+                    blank &= Character.isWhitespace(c);
+                    if (!inRawWord) {
+                        inRawWord = true;
+                        rawWords++;
+                    }
+                }
+            }
+            boolean letter = i >= skipUntil && (Character.isLetterOrDigit(c)
+                || wordStart >= 0 && (c == '\'' || c == '\u2019') && i + 1 < length && Character.isLetter(content.charAt(i + 1)));
+            if (wordStart >= 0 && !letter) {
+                int wordEnd = i;
+                words++;
+                sentenceWords++;
+                syllables += wordSyllables - (silentE(content, wordStart, wordEnd) && wordSyllables > 1 ? 1 : 0);
+                mentionsIntroduction = mentionsIntroduction || containsIgnoreCase(content, wordStart, wordEnd, "introduction");
+                for (int term = 0; term < terms.length; term++) {
+                    String keyword = terms[term];
+                    if (keyword.length() == wordEnd - wordStart && regionMatchesIgnoreCase(content, wordStart, keyword)) {
+                        occurrences[term]++;
+                        if (firstWordIndex[term] < 0) {
+                            firstWordIndex[term] = words - 1;
+                        }
+                    }
+                }
+                wordStart = -1;
+            }
+            if (i < skipUntil) {
+                continue;
+            }
+            if (letter) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                    wordSyllables = 0;
+                    previousVowel = false;
+                    sentenceEnding = false;
+                }
+                boolean vowel = isVowel(c);
+                if (vowel && !previousVowel) {
+                    wordSyllables++;
+                }
+                previousVowel = vowel;
+                lineStart = false;
+                appendHeading(headingLevel > 0 || markdownLevel > 0, headingText, c);
+                continue;
+            }
+            if (c == '<' && i + 1 < length && HtmlText.isTagStart(content.charAt(i + 1))) {
+                int tagEnd = indexOf(content, '>', i + 1);
+                if (tagEnd < 0) {
+                    tagEnd = length;
+                }
+                skipUntil = tagEnd + 1;
+                boolean closing = content.charAt(i + 1) == '/';
+                int nameStart = closing ? i + 2 : i + 1;
+                int level = headingLevel(content, nameStart, tagEnd);
+                if (level > 0 || isBlockTag(content, nameStart, tagEnd)) {
+                    sentences.end(sentenceWords);
+                    sentenceWords = 0;
+                    sentenceEnding = false;
+                    if (headingLevel > 0 && (closing || level > 0)) {
+                        addHeading(headings, headingLevel, headingText);
+                        headingLevel = 0;
+                    }
+                    if (!closing && level > 0) {
+                        headingLevel = level;
+                        headingText.setLength(0);
+                    }
+                } else if (!closing && isTag(content, nameStart, tagEnd, "a")) {
+                    links++;
+                } else if (!closing && isTag(content, nameStart, tagEnd, "img")) {
+                    images++;
+                    if (!hasAttribute(content, nameStart + 3, tagEnd, "alt")) {
+                        imagesWithoutAlt++;
+                    }
+                }
+                continue;
+            }
+            if (c == '&') {
+                int entityEnd = HtmlText.entityEnd(content, i + 1, length);
+                if (entityEnd > 0) {
+                    skipUntil = entityEnd + 1;
+                    appendHeading(headingLevel > 0 || markdownLevel > 0, headingText, ' ');
+                    continue;
+                }
+            }
+            if (c == '#' && lineStart) {
+                int hashes = 0;
+                while (i + hashes < length && content.charAt(i + hashes) == '#') {
+                    hashes++;
+                }
+                if (hashes <= 6 && i + hashes < length && content.charAt(i + hashes) == ' ') {
+                    markdownLevel = hashes;
+                    headingLevel = 0;
+                    headingText.setLength(0);
+                    skipUntil = i + hashes;
+                    lineStart = false;
+                    continue;
+                }
+            }
+            if (c == '.' || c == '!' || c == '?') {
+                sentenceEnding = sentenceWords > 0;
+            } else if (Character.isWhitespace(c)) {
+                boolean blankLine = c == '\n' && lineStart;
+                if (sentenceEnding || blankLine) {
+                    sentences.end(sentenceWords);
+                    sentenceWords = 0;
+                    sentenceEnding = false;
+                }
+                if (c == '\n') {
+                    if (markdownLevel > 0) {
+                        addHeading(headings, markdownLevel, headingText);
+                        markdownLevel = 0;
+                        sentences.end(sentenceWords);
+                        sentenceWords = 0;
+                    }
+                    lineStart = true;
+                }
+            } else {
+                lineStart = false;
+            }
+            appendHeading(headingLevel > 0 || markdownLevel > 0, headingText, c);
+        }
+        if (headingLevel > 0 || markdownLevel > 0) {
+            addHeading(headings, Math.max(headingLevel, markdownLevel), headingText);
+        }
+        sentences.end(sentenceWords);
+
+        List<KeywordUsage> keywords = new ArrayList<>(terms.length);
+        for (int term = 0; term < terms.length; term++) {
+            double density = words == 0 ? 0 : occurrences[term] * 100.0 / words;
+            keywords.add(new KeywordUsage(terms[term], occurrences[term], round(density), firstWordIndex[term]));
+        }
+        double wordsPerSentence = sentences.count == 0 ? words : (double) words / sentences.count;
+        double syllablesPerWord = words == 0 ? 0 : (double) syllables / words;
+        double readingEase = words == 0 ? 0 : 206.835 - 1.015 * wordsPerSentence - 84.6 * syllablesPerWord;
+        double grade = words == 0 ? 0 : 0.39 * wordsPerSentence + 11.8 * syllablesPerWord - 15.59;
+        return new Analysis(blank ? 0 : rawWords, words, sentences.count, syllables, round(wordsPerSentence), sentences.longest,
+            new SentenceLengths(sentences.buckets[0], sentences.buckets[1], sentences.buckets[2], sentences.buckets[3]),
+            round(readingEase), round(grade), List.copyOf(headings), List.copyOf(keywords), links, images, imagesWithoutAlt,
+            mentionsIntroduction);
+    }
+
+    /**
+     * Evaluates the SEO and readability rules against an analysis.
+     */
+    public static List<String> suggestions(String title, Analysis analysis) {
+        String trimmedTitle = title == null ? "" : title.strip();
+        List<String> suggestions = new ArrayList<>();
+        if (trimmedTitle.length() < MIN_TITLE_LENGTH) {
+            suggestions.add("Use a longer title (20-60 chars) for better discoverability.");
+        } else if (trimmedTitle.length() > MAX_TITLE_LENGTH) {
+            suggestions.add("Shorten the title to 60 characters or fewer so it is not cut off in search results.");
+        }
+        if (analysis.wordCount() < MIN_WORDS) {
+            suggestions.add("Add more depth; SEO content typically performs better beyond 300 words.");
+        }
+        if (!analysis.mentionsIntroduction()) {
+            suggestions.add("Consider adding an introduction heading for structure.");
+        }
+        if (analysis.headings().isEmpty() && analysis.textWords() >= MIN_WORDS) {
+            suggestions.add("Break the content up with subheadings (H2/H3) so readers and search engines can scan it.");
+        }
+        long topLevel = analysis.headings().stream().filter(heading -> heading.level() == 1).count();
+        if (topLevel > 1) {
+            suggestions.add("Use a single H1 heading; found " + topLevel + ".");
+        }
+        for (int i = 1; i < analysis.headings().size(); i++) {
+            int previous = analysis.headings().get(i - 1).level();
+            int current = analysis.headings().get(i).level();
+            if (current > previous + 1) {
+                suggestions.add("Heading levels jump from H" + previous + " to H" + current + " at '"
+                    + analysis.headings().get(i).text() + "'; keep the outline sequential.");
+                break;
+            }
+        }
+        if (!analysis.keywords().isEmpty() && analysis.textWords() > 0) {
+            List<String> missing = analysis.keywords().stream().filter(keyword -> keyword.occurrences() == 0)
+                .map(KeywordUsage::term).toList();
+            if (missing.size() == analysis.keywords().size()) {
+                suggestions.add("Mention the title keywords (" + String.join(", ", missing) + ") in the body.");
+            } else {
+                KeywordUsage lead = analysis.keywords().get(0);
+                if (lead.occurrences() > 0 && lead.firstWordIndex() >= KEYWORD_LEAD_WORDS) {
+                    suggestions.add("Use '" + lead.term() + "' within the first " + KEYWORD_LEAD_WORDS + " words.");
+                }
+            }
+            for (KeywordUsage keyword : analysis.keywords()) {
+                if (keyword.density() > MAX_KEYWORD_DENSITY && analysis.textWords() >= 50) {
+                    suggestions.add("'" + keyword.term() + "' makes up " + keyword.density()
+                        + "% of the words; keep keywords under 3% to avoid stuffing.");
+                }
+            }
+        }
+        if (analysis.sentences() >= 3 && analysis.fleschReadingEase() < 50) {
+            suggestions.add("The text is hard to read (Flesch reading ease " + analysis.fleschReadingEase()
+                + "); use shorter sentences and simpler words.");
+        }
+        SentenceLengths lengths = analysis.sentenceLengths();
+        int longSentences = lengths.upTo30() + lengths.over30();
+        if (analysis.sentences() >= 4 && longSentences * 4 > analysis.sentences()) {
+            suggestions.add(Math.round(longSentences * 100.0 / analysis.sentences()) + "% of sentences are longer than "
+                + LONG_SENTENCE_WORDS + " words; aim for under 25%.");
+        }
+        if (analysis.imagesWithoutAlt() > 0) {
+            suggestions.add("Add alt text to " + analysis.imagesWithoutAlt() + " image(s).");
+        }
+        if (analysis.links() == 0 && analysis.textWords() >= MIN_WORDS) {
+            suggestions.add("Link to related posts or sources to give readers and search engines context.");
+        }
+        return suggestions;
+    }
+
+    static String[] keywords(String title) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (title != null) {
+            for (String word : title.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (word.length() >= 3 && !STOP_WORDS.contains(word) && terms.size() < MAX_KEYWORDS) {
+                    terms.add(word);
+                }
+            }
+        }
+        return terms.toArray(String[]::new);
+    }
+
+    private static boolean isVowel(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'a', 'e', 'i', 'o', 'u', 'y' -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * A final {@code e} is usually silent, except in {@code -le} endings such as "table".
+     */
+    private static boolean silentE(CharSequence content, int start, int end) {
+        if (end - start < 3 || Character.toLowerCase(content.charAt(end - 1)) != 'e') {
+            return false;
+        }
+        char before = Character.toLowerCase(content.charAt(end - 2));
+        return before != 'l' && !isVowel(before);
+    }
+
+    private static void appendHeading(boolean inHeading, StringBuilder headingText, char c) {
+        if (!inHeading || headingText.length() >= MAX_HEADING_LENGTH) {
+            return;
+        }
+        if (Character.isWhitespace(c)) {
+            if (headingText.length() > 0 && headingText.charAt(headingText.length() - 1) != ' ') {
+                headingText.append(' ');
+            }
+        } else {
+            headingText.append(c);
+        }
+    }
+
+    private static void addHeading(List<Heading> headings, int level, StringBuilder text) {
+        String heading = text.toString().strip();
+        if (!heading.isEmpty()) {
+            headings.add(new Heading(level, heading));
+        }
+        text.setLength(0);
+    }
+
+    private static int headingLevel(CharSequence content, int nameStart, int tagEnd) {
+        if (nameStart + 1 < tagEnd && Character.toLowerCase(content.charAt(nameStart)) == 'h') {
+            char digit = content.charAt(nameStart + 1);
+            if (digit >= '1' && digit <= '6' && (nameStart + 2 == tagEnd || !Character.isLetterOrDigit(content.charAt(nameStart + 2)))) {
+                return digit - '0';
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isBlockTag(CharSequence content, int nameStart, int tagEnd) {
+        return isTag(content, nameStart, tagEnd, "p") || isTag(content, nameStart, tagEnd, "div")
+            || isTag(content, nameStart, tagEnd, "li") || isTag(content, nameStart, tagEnd, "br")
+            || isTag(content, nameStart, tagEnd, "blockquote") || isTag(content, nameStart, tagEnd, "pre")
+            || isTag(content, nameStart, tagEnd, "tr");
+    }
+
+    private static boolean isTag(CharSequence content, int nameStart, int tagEnd, String name) {
+        int end = nameStart + name.length();
+        return end <= tagEnd && regionMatchesIgnoreCase(content, nameStart, name)
+            && (end == tagEnd || !Character.isLetterOrDigit(content.charAt(end)));
+    }
+
+    private static boolean hasAttribute(CharSequence content, int from, int to, String name) {
+        for (int i = from; i + name.length() < to; i++) {
+            if (Character.isWhitespace(content.charAt(i)) && regionMatchesIgnoreCase(content, i + 1, name)) {
+                int next = i + 1 + name.length();
+                char after = content.charAt(next);
+                if (after == '=' || Character.isWhitespace(after) || after == '>' || after == '/') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatchesIgnoreCase(CharSequence content, int from, String lowercase) {
+        if (from + lowercase.length() > content.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowercase.length(); i++) {
+            if (Character.toLowerCase(content.charAt(from + i)) != lowercase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(CharSequence text, int from, int to, String lowercase) {
+        for (int i = from; i + lowercase.length() <= to; i++) {
+            if (regionMatchesIgnoreCase(text, i, lowercase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(CharSequence content, char c, int from) {
+        for (int i = from; i < content.length(); i++) {
+            if (content.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    private static final class SentenceCounter {
+
+        private int count;
+        private int longest;
+        private final int[] buckets = new int[4];
+
+        void end(int words) {
+            if (words == 0) {
+                return;
+            }
+            count++;
+            longest = Math.max(longest, words);
+            buckets[words <= 10 ? 0 : words <= LONG_SENTENCE_WORDS ? 1 : words <= 30 ? 2 : 3]++;
+        }
+    }
+
+    /**
+     * {@code wordCount} counts like {@link ContentMetrics} (markup included); {@code textWords}
+     * and everything derived from it cover visible text only. {@code mentionsIntroduction} is set
+     * when any visible word, heading or not, contains "introduction".
+     */
+    public record Analysis(int wordCount, int textWords, int sentences, int syllables, double averageSentenceWords,
+                           int longestSentenceWords, SentenceLengths sentenceLengths, double fleschReadingEase,
+                           double fleschKincaidGrade, List<Heading> headings, List<KeywordUsage> keywords, int links,
+                           int images, int imagesWithoutAlt, boolean mentionsIntroduction) {}
+
+    public record SentenceLengths(int upTo10, int upTo20, int upTo30, int over30) {}
+
+    public record Heading(int level, String text) {}
+
+    public record KeywordUsage(String term, int occurrences, double density, int firstWordIndex) {}
+}
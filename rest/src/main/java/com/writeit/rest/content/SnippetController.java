@@ -2,6 +2,9 @@ package com.writeit.rest.content;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -15,20 +18,34 @@ import org.springframework.web.bind.annotation.RestController;
 public class SnippetController {
 
     private final SnippetRepository snippetRepository;
+    private final ChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
 
-    public SnippetController(SnippetRepository snippetRepository) {
+    public SnippetController(SnippetRepository snippetRepository, ChangeLog changeLog,
+                             PlatformTransactionManager transactionManager) {
         this.snippetRepository = snippetRepository;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @GetMapping
-    public List<Snippet> list(@RequestParam("userId") Long userId) {
-        return snippetRepository.findByUserIdOrderByIdDesc(userId);
+    public List<SnippetSummary> list(@RequestParam("userId") Long userId) {
+        return snippetRepository.findSummariesByUserId(userId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Snippet> getById(@PathVariable("id") Long id) {
+        return snippetRepository.findById(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public Snippet create(@RequestBody @Valid Snippet snippet) {
         snippet.setId(null);
-        return snippetRepository.save(snippet);
+        return transactionTemplate.execute(status -> {
+            Snippet saved = snippetRepository.save(snippet);
+            changeLog.changed(ChangeEntity.SNIPPET, saved.getId());
+            return saved;
+        });
     }
 
     @PostMapping("/{snippetId}/drop-in/{documentId}")
@@ -1,8 +1,20 @@
 package com.writeit.rest.content;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface SnippetRepository extends JpaRepository<Snippet, Long> {
-    List<Snippet> findByUserIdOrderByIdDesc(Long userId);
+    @Query("""
+        select new com.writeit.rest.content.SnippetSummary(s.id, s.userId, s.title)
+        from Snippet s
+        where s.userId = :userId
+        order by s.id desc
+        """)
+    List<SnippetSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.writeit.rest.content.SnippetSummary(s.id, s.userId, s.title) from Snippet s where s.id in :ids")
+    List<SnippetSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,4 @@
+package com.writeit.rest.content;
+
+public record SnippetSummary(Long id, Long userId, String title) {
+}
@@ -0,0 +1,215 @@
+package com.writeit.rest.content;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks text against the bundled English dictionary, optionally overlaid with a user's own
+ * words. Markup, entities, URLs, e-mail addresses, words with digits and acronyms are skipped.
+ * Suggestions are ranked by edit distance and then by word frequency, and are cached per
+ * misspelling because the same typos recur across autosaves.
+ */
+@Component
+public class SpellChecker {
+
+    static final String DICTIONARY = "spelling/en_US.txt.gz";
+    private static final int MAX_SUGGESTIONS = 5;
+    private static final int SUGGESTION_CACHE_SIZE = 4096;
+    private static final Comparator<SpellingDictionary.Suggestion> RANKING =
+        Comparator.comparingInt(SpellingDictionary.Suggestion::distance)
+            .thenComparing(Comparator.comparingInt(SpellingDictionary.Suggestion::frequency).reversed())
+            .thenComparing(SpellingDictionary.Suggestion::word);
+
+    private final SpellingDictionary dictionary;
+    private final Map<String, List<SpellingDictionary.Suggestion>> suggestionCache =
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<SpellingDictionary.Suggestion>> eldest) {
+                return size() > SUGGESTION_CACHE_SIZE;
+            }
+        };
+
+    public SpellChecker() {
+        try (InputStream in = new ClassPathResource(DICTIONARY).getInputStream()) {
+            this.dictionary = SpellingDictionary.load(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to load " + DICTIONARY, ex);
+        }
+    }
+
+    public SpellingDictionary dictionary() {
+        return dictionary;
+    }
+
+    public List<SpellingIssue> check(String text) {
+        return check(text, null);
+    }
+
+    /**
+     * Returns the misspelled words of {@code text} in order, with offsets into {@code text}.
+     * Words in {@code overlay}, when given, count as correct and are offered as suggestions.
+     */
+    public List<SpellingIssue> check(String text, SpellingDictionary overlay) {
+        return text == null ? new ArrayList<>() : check(text, 0, text.length(), overlay);
+    }
+
+    /**
+     * Checks only {@code text[from, to)}; offsets still refer to {@code text}.
+     */
+    public List<SpellingIssue> check(String text, int from, int to, SpellingDictionary overlay) {
+        List<SpellingIssue> issues = new ArrayList<>();
+        StringBuilder word = new StringBuilder(SpellingDictionary.MAX_WORD_LENGTH);
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            if (c == '<' && i + 1 < to && HtmlText.isTagStart(text.charAt(i + 1))) {
+                int tagEnd = text.indexOf('>', i);
+                i = tagEnd < 0 || tagEnd >= to ? to : tagEnd + 1;
+                continue;
+            }
+            if (c == '&') {
+                int entityEnd = HtmlText.entityEnd(text, i + 1, to);
+                i = entityEnd < 0 ? i + 1 : entityEnd + 1;
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            boolean skip = false;
+            while (i < to) {
+                char current = text.charAt(i);
+                if (Character.isLetter(current)) {
+                    i++;
+                } else if (Character.isDigit(current) || current == '_') {
+                    skip = true;
+                    i++;
+                } else if (isApostrophe(current) && i + 1 < to && Character.isLetter(text.charAt(i + 1))) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            if (isLink(text, start, i, to)) {
+                while (i < to && !Character.isWhitespace(text.charAt(i)) && text.charAt(i) != '<') {
+                    i++;
+                }
+                continue;
+            }
+            if (!skip) {
+                checkWord(text, start, i, overlay, word, issues);
+            }
+        }
+        return issues;
+    }
+
+    private void checkWord(String text, int start, int end, SpellingDictionary overlay, StringBuilder word,
+                           List<SpellingIssue> issues) {
+        int length = end - start;
+        if (length < 2 || length > SpellingDictionary.MAX_WORD_LENGTH) {
+            return;
+        }
+        for (int i = start + 1; i < end; i++) {
+            if (Character.isUpperCase(text.charAt(i))) {
+                return;
+            }
+        }
+        word.setLength(0);
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            word.append(isApostrophe(c) ? '\'' : Character.toLowerCase(c));
+        }
+        if (isKnown(word, word.length(), overlay)) {
+            return;
+        }
+        int stem = word.length() - 2;
+        if (stem > 1 && word.charAt(stem) == '\'' && word.charAt(stem + 1) == 's' && isKnown(word, stem, overlay)) {
+            return;
+        }
+        String misspelled = text.substring(start, end);
+        List<String> suggestions = new ArrayList<>();
+        for (SpellingDictionary.Suggestion suggestion : suggest(word.toString(), overlay)) {
+            suggestions.add(Character.isUpperCase(misspelled.charAt(0))
+                ? Character.toUpperCase(suggestion.word().charAt(0)) + suggestion.word().substring(1)
+                : suggestion.word());
+        }
+        issues.add(new SpellingIssue(start, length, misspelled, suggestions));
+    }
+
+    private boolean isKnown(CharSequence word, int length, SpellingDictionary overlay) {
+        return dictionary.frequency(word, 0, length) >= 0 || overlay != null && overlay.frequency(word, 0, length) >= 0;
+    }
+
+    /**
+     * Ranked corrections for a lowercase word. Distance 2 is only searched for longer words and
+     * when distance 1 did not fill the list.
+     */
+    List<SpellingDictionary.Suggestion> suggest(String word, SpellingDictionary overlay) {
+        List<SpellingDictionary.Suggestion> suggestions;
+        synchronized (suggestionCache) {
+            suggestions = suggestionCache.get(word);
+        }
+        if (suggestions == null) {
+            suggestions = nearby(dictionary, word);
+            synchronized (suggestionCache) {
+                suggestionCache.put(word, suggestions);
+            }
+        }
+        if (overlay == null || overlay.size() == 0) {
+            return suggestions;
+        }
+        List<SpellingDictionary.Suggestion> merged = new ArrayList<>(suggestions);
+        for (SpellingDictionary.Suggestion custom : nearby(overlay, word)) {
+            if (merged.stream().noneMatch(existing -> existing.word().equals(custom.word()))) {
+                merged.add(custom);
+            }
+        }
+        merged.sort(RANKING);
+        return merged.subList(0, Math.min(MAX_SUGGESTIONS, merged.size()));
+    }
+
+    private static List<SpellingDictionary.Suggestion> nearby(SpellingDictionary dictionary, String word) {
+        List<SpellingDictionary.Suggestion> found = new ArrayList<>();
+        dictionary.nearby(word, 1, found);
+        if (found.size() < MAX_SUGGESTIONS && word.length() > 4) {
+            found.clear();
+            dictionary.nearby(word, 2, found);
+        }
+        found.sort(RANKING);
+        return List.copyOf(found.subList(0, Math.min(MAX_SUGGESTIONS, found.size())));
+    }
+
+    private static boolean isLink(String text, int start, int end, int limit) {
+        if (start > 0) {
+            char before = text.charAt(start - 1);
+            if (before == '@' || before == '#' || before == '/' || before == '\\') {
+                return true;
+            }
+        }
+        if (end >= limit) {
+            return false;
+        }
+        char after = text.charAt(end);
+        if (after == '@') {
+            return true;
+        }
+        if ((after == '.' || after == ':' || after == '/' || after == '\\') && end + 1 < limit) {
+            char next = text.charAt(end + 1);
+            return Character.isLetterOrDigit(next) || next == '/';
+        }
+        return false;
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '\u2019' || c == '\u02BC';
+    }
+}
@@ -0,0 +1,244 @@
+package com.writeit.rest.content;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Immutable word list packed into a trie of parallel primitive arrays. Nodes are numbered
+ * breadth-first so the children of a node are contiguous and sorted by label; a node stores its
+ * label, first child, child count and the frequency class of the word ending there. Lookups do
+ * not allocate, and suggestions walk the trie once computing a bounded Damerau-Levenshtein row
+ * per node, pruning branches that cannot get within the allowed distance.
+ */
+public final class SpellingDictionary {
+
+    public static final int MAX_FREQUENCY = 25;
+    static final int MAX_WORD_LENGTH = 32;
+    private static final byte NOT_A_WORD = -1;
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final byte[] childCount;
+    private final byte[] frequency;
+    private final int size;
+
+    private SpellingDictionary(char[] labels, int[] firstChild, byte[] childCount, byte[] frequency, int size) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.frequency = frequency;
+        this.size = size;
+    }
+
+    /**
+     * Reads a gzipped list of {@code word frequency} lines sorted by word. Lines starting with
+     * {@code #} are comments.
+     */
+    public static SpellingDictionary load(InputStream gzipped) {
+        List<String> words = new ArrayList<>(200_000);
+        byte[] frequencies = new byte[200_000];
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new GZIPInputStream(gzipped, 64 * 1024), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                int space = line.indexOf(' ');
+                String word = space < 0 ? line : line.substring(0, space);
+                int frequencyClass = space < 0 ? 0 : Integer.parseInt(line, space + 1, line.length(), 10);
+                if (!words.isEmpty() && words.get(words.size() - 1).compareTo(word) >= 0) {
+                    throw new IllegalStateException("Dictionary is not sorted at '" + word + "'");
+                }
+                if (words.size() == frequencies.length) {
+                    frequencies = Arrays.copyOf(frequencies, frequencies.length * 2);
+                }
+                frequencies[words.size()] = (byte) Math.min(MAX_FREQUENCY, Math.max(0, frequencyClass));
+                words.add(word);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read spelling dictionary", ex);
+        }
+        return build(words, frequencies);
+    }
+
+    /**
+     * Builds a dictionary from arbitrary words, e.g. a user's custom words. Words are lowercased
+     * and all get the highest frequency class.
+     */
+    public static SpellingDictionary of(Collection<String> words) {
+        List<String> sorted = words.stream()
+            .map(word -> word.strip().toLowerCase(Locale.ROOT))
+            .filter(word -> !word.isEmpty() && word.length() <= MAX_WORD_LENGTH)
+            .distinct()
+            .sorted()
+            .toList();
+        byte[] frequencies = new byte[sorted.size()];
+        Arrays.fill(frequencies, (byte) MAX_FREQUENCY);
+        return build(sorted, frequencies);
+    }
+
+    private static SpellingDictionary build(List<String> words, byte[] frequencies) {
+        int capacity = 1024;
+        char[] labels = new char[capacity];
+        int[] firstChild = new int[capacity];
+        byte[] childCount = new byte[capacity];
+        byte[] frequency = new byte[capacity];
+        // Pending nodes in breadth-first order: the node's word range [from, to) and depth.
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        int[] depth = new int[capacity];
+        from[0] = 0;
+        to[0] = words.size();
+        int nodes = 1;
+        for (int node = 0; node < nodes; node++) {
+            int start = from[node];
+            int end = to[node];
+            int length = depth[node];
+            frequency[node] = NOT_A_WORD;
+            if (start < end && words.get(start).length() == length) {
+                frequency[node] = frequencies[start++];
+            }
+            firstChild[node] = nodes;
+            int children = 0;
+            while (start < end) {
+                char label = words.get(start).charAt(length);
+                int groupEnd = start + 1;
+                while (groupEnd < end && words.get(groupEnd).charAt(length) == label) {
+                    groupEnd++;
+                }
+                if (nodes == capacity) {
+                    capacity *= 2;
+                    labels = Arrays.copyOf(labels, capacity);
+                    firstChild = Arrays.copyOf(firstChild, capacity);
+                    childCount = Arrays.copyOf(childCount, capacity);
+                    frequency = Arrays.copyOf(frequency, capacity);
+                    from = Arrays.copyOf(from, capacity);
+                    to = Arrays.copyOf(to, capacity);
+                    depth = Arrays.copyOf(depth, capacity);
+                }
+                labels[nodes] = label;
+                from[nodes] = start;
+                to[nodes] = groupEnd;
+                depth[nodes] = length + 1;
+                nodes++;
+                children++;
+                start = groupEnd;
+            }
+            if (children > 255) {
+                throw new IllegalStateException("Too many distinct letters after a prefix: " + children);
+            }
+            childCount[node] = (byte) children;
+        }
+        return new SpellingDictionary(Arrays.copyOf(labels, nodes), Arrays.copyOf(firstChild, nodes),
+            Arrays.copyOf(childCount, nodes), Arrays.copyOf(frequency, nodes), words.size());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int nodeCount() {
+        return labels.length;
+    }
+
+    public boolean contains(String word) {
+        return frequency(word, 0, word.length()) >= 0;
+    }
+
+    /**
+     * Returns the frequency class of {@code word[from, to)}, or -1 if it is not in the
+     * dictionary. The word must already be lowercase.
+     */
+    public int frequency(CharSequence word, int from, int to) {
+        int node = 0;
+        for (int i = from; i < to; i++) {
+            node = child(node, word.charAt(i));
+            if (node < 0) {
+                return -1;
+            }
+        }
+        return frequency[node];
+    }
+
+    private int child(int node, char label) {
+        int first = firstChild[node];
+        int last = first + (childCount[node] & 0xFF) - 1;
+        while (first <= last) {
+            int middle = (first + last) >>> 1;
+            char candidate = labels[middle];
+            if (candidate < label) {
+                first = middle + 1;
+            } else if (candidate > label) {
+                last = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Collects every word within {@code maxDistance} edits (insertions, deletions,
+     * substitutions and adjacent transpositions) of the lowercase {@code word}.
+     */
+    public void nearby(String word, int maxDistance, List<Suggestion> into) {
+        if (word.isEmpty() || word.length() > MAX_WORD_LENGTH) {
+            return;
+        }
+        int columns = word.length() + 1;
+        int maxDepth = word.length() + maxDistance;
+        int[][] rows = new int[maxDepth + 1][columns];
+        for (int column = 0; column < columns; column++) {
+            rows[0][column] = column;
+        }
+        char[] path = new char[maxDepth];
+        search(0, 0, word, maxDistance, rows, path, into);
+    }
+
+    private void search(int node, int depth, String word, int maxDistance, int[][] rows, char[] path, List<Suggestion> into) {
+        int first = firstChild[node];
+        int last = first + (childCount[node] & 0xFF);
+        int row = depth + 1;
+        if (row >= rows.length) {
+            return;
+        }
+        int[] previous = rows[depth];
+        int[] current = rows[row];
+        int columns = word.length() + 1;
+        for (int child = first; child < last; child++) {
+            char label = labels[child];
+            path[depth] = label;
+            current[0] = row;
+            int best = row;
+            for (int column = 1; column < columns; column++) {
+                char target = word.charAt(column - 1);
+                int cost = target == label ? 0 : 1;
+                int distance = Math.min(Math.min(current[column - 1] + 1, previous[column] + 1), previous[column - 1] + cost);
+                if (depth > 0 && column > 1 && label == word.charAt(column - 2) && path[depth - 1] == target) {
+                    distance = Math.min(distance, rows[depth - 1][column - 2] + 1);
+                }
+                current[column] = distance;
+                best = Math.min(best, distance);
+            }
+            if (current[columns - 1] <= maxDistance && frequency[child] >= 0) {
+                into.add(new Suggestion(new String(path, 0, row), current[columns - 1], frequency[child]));
+            }
+            if (best <= maxDistance) {
+                search(child, row, word, maxDistance, rows, path, into);
+            }
+        }
+    }
+
+    public record Suggestion(String word, int distance, int frequency) {}
+}
@@ -0,0 +1,5 @@
+package com.writeit.rest.content;
+
+import java.util.List;
+
+public record SpellingIssue(int offset, int length, String word, List<String> suggestions) {}
@@ -0,0 +1,39 @@
+package com.writeit.rest.content;
+
+import java.time.Duration;
+
+/**
+ * Local stand-in for a channel integration. It waits {@code latency} to mimic the upload, fails
+ * the first {@code failuresPerJob} attempts of every job with a retryable error, and then returns
+ * {@code urlPrefix + documentId}.
+ */
+public class StubPublishChannelAdapter implements PublishChannelAdapter {
+
+    private final PublishChannel channel;
+    private final String urlPrefix;
+    private final Duration latency;
+    private final int failuresPerJob;
+
+    public StubPublishChannelAdapter(PublishChannel channel, String urlPrefix, Duration latency, int failuresPerJob) {
+        this.channel = channel;
+        this.urlPrefix = urlPrefix;
+        this.latency = latency;
+        this.failuresPerJob = failuresPerJob;
+    }
+
+    @Override
+    public PublishChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public String publish(PublishJob job, DocumentHeader document) throws InterruptedException {
+        if (!latency.isZero()) {
+            Thread.sleep(latency.toMillis());
+        }
+        if (job.getAttempts() <= failuresPerJob) {
+            throw new PublishChannelException(channel + " stub failed attempt " + job.getAttempts(), true);
+        }
+        return urlPrefix + document.id();
+    }
+}
@@ -0,0 +1,114 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+public class SyncController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ChangeLog changeLog;
+    private final DocumentRepository documentRepository;
+    private final DocumentWriteBuffer writeBuffer;
+    private final ChapterRepository chapterRepository;
+    private final SectionRepository sectionRepository;
+    private final SnippetRepository snippetRepository;
+    private final MediaFileRepository mediaFileRepository;
+
+    public SyncController(ChangeLog changeLog, DocumentRepository documentRepository, DocumentWriteBuffer writeBuffer,
+                          ChapterRepository chapterRepository, SectionRepository sectionRepository,
+                          SnippetRepository snippetRepository, MediaFileRepository mediaFileRepository) {
+        this.changeLog = changeLog;
+        this.documentRepository = documentRepository;
+        this.writeBuffer = writeBuffer;
+        this.chapterRepository = chapterRepository;
+        this.sectionRepository = sectionRepository;
+        this.snippetRepository = snippetRepository;
+        this.mediaFileRepository = mediaFileRepository;
+    }
+
+    /**
+     * Returns what changed in the user's library since {@code since}; without a token, everything.
+     * Rows that were deleted after their change was logged are reported as deleted.
+     */
+    @GetMapping
+    public SyncResponse changes(@RequestParam("userId") Long userId,
+                                @RequestParam(value = "since", required = false) String since,
+                                @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        long after = parseToken(since);
+        long watermark = changeLog.watermark();
+        if (after > watermark) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Unknown sync token, sync again without one");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<ChangeLog.Change> changes = changeLog.changesSince(userId, after, watermark, pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+        String token = Long.toString(hasMore ? changes.get(changes.size() - 1).seq() : watermark);
+
+        Map<ChangeEntity, Set<Long>> changed = new EnumMap<>(ChangeEntity.class);
+        List<SyncResponse.Tombstone> deleted = new ArrayList<>();
+        for (ChangeLog.Change change : changes) {
+            if (change.deleted()) {
+                deleted.add(new SyncResponse.Tombstone(change.entity(), change.id()));
+            } else {
+                changed.computeIfAbsent(change.entity(), entity -> new HashSet<>()).add(change.id());
+            }
+        }
+        List<DocumentSummary> documents = load(ChangeEntity.DOCUMENT, changed, deleted,
+            keys -> writeBuffer.overlaySummaries(documentRepository.findSummariesByIdIn(keys)), DocumentSummary::id);
+        List<Chapter> chapters = load(ChangeEntity.CHAPTER, changed, deleted, chapterRepository::findAllById, Chapter::getId);
+        List<OutlineSection> sections = load(ChangeEntity.SECTION, changed, deleted, sectionRepository::findOutlineByIdIn,
+            OutlineSection::id);
+        List<SnippetSummary> snippets = load(ChangeEntity.SNIPPET, changed, deleted, snippetRepository::findSummariesByIdIn,
+            SnippetSummary::id);
+        List<MediaController.MediaFileResponse> media = load(ChangeEntity.MEDIA, changed, deleted,
+            keys -> mediaFileRepository.findAllById(keys).stream().map(MediaController.MediaFileResponse::from).toList(),
+            MediaController.MediaFileResponse::id);
+        return new SyncResponse(token, hasMore, documents, chapters, sections, snippets, media, deleted);
+    }
+
+    private static <T> List<T> load(ChangeEntity entity, Map<ChangeEntity, Set<Long>> changed,
+                                    List<SyncResponse.Tombstone> deleted, Function<Set<Long>, List<T>> finder,
+                                    Function<T, Long> idOf) {
+        Set<Long> ids = changed.get(entity);
+        if (ids == null) {
+            return List.of();
+        }
+        List<T> rows = finder.apply(ids);
+        Set<Long> missing = new HashSet<>(ids);
+        rows.forEach(row -> missing.remove(idOf.apply(row)));
+        missing.forEach(id -> deleted.add(new SyncResponse.Tombstone(entity, id)));
+        return rows;
+    }
+
+    private static long parseToken(String since) {
+        if (since == null || since.isBlank()) {
+            return 0;
+        }
+        try {
+            long token = Long.parseLong(since.strip());
+            if (token >= 0) {
+                return token;
+            }
+        } catch (NumberFormatException ignored) {
+            // Fall through to the error below.
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token");
+    }
+}
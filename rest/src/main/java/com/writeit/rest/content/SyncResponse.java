@@ -0,0 +1,22 @@
+package com.writeit.rest.content;
+
+import java.util.List;
+
+/**
+ * The entities changed since a sync token, as content-free summaries, and the ones deleted.
+ * {@code token} is passed as {@code since} on the next call; while {@code hasMore} is true the
+ * client should call again straight away.
+ */
+public record SyncResponse(
+    String token,
+    boolean hasMore,
+    List<DocumentSummary> documents,
+    List<Chapter> chapters,
+    List<OutlineSection> sections,
+    List<SnippetSummary> snippets,
+    List<MediaController.MediaFileResponse> media,
+    List<Tombstone> deleted
+) {
+    public record Tombstone(ChangeEntity type, Long id) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.writeit.rest.content;
+
+import java.util.List;
+
+public record TagFacets(int total, List<Count> tags, List<Count> categories) {
+
+    public record Count(String value, int count) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.writeit.rest.content;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Normalized tag filter: documents must carry every tag in {@code allOf}, at least one tag in
+ * {@code anyOf} when it is not empty, and the category when it is set.
+ */
+public record TagFilter(Set<String> allOf, Set<String> anyOf, String category) {
+
+    public static TagFilter of(List<String> allOf, List<String> anyOf, String category) {
+        return new TagFilter(normalize(allOf), normalize(anyOf), DocumentTagIndex.categoryKey(category));
+    }
+
+    public boolean isEmpty() {
+        return allOf.isEmpty() && anyOf.isEmpty() && category == null;
+    }
+
+    private static Set<String> normalize(List<String> tags) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                normalized.addAll(DocumentTagIndex.parseTags(tag));
+            }
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,12 @@
+package com.writeit.rest.content;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record TextOperation(
+    @NotNull TextOperationType type,
+    @Min(0) int offset,
+    @Min(0) int length,
+    String text
+) {
+}
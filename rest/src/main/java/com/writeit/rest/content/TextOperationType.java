@@ -0,0 +1,7 @@
+package com.writeit.rest.content;
+
+public enum TextOperationType {
+    INSERT,
+    DELETE,
+    REPLACE
+}
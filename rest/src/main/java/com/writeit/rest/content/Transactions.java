@@ -0,0 +1,30 @@
+package com.writeit.rest.content;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for keeping in-memory state in step with the database.
+ */
+final class Transactions {
+
+    private Transactions() {
+    }
+
+    /**
+     * Runs {@code action} once the current transaction commits, or immediately outside a
+     * transaction, so a rolled-back write never reaches an in-memory index.
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package com.writeit.rest.content;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+public class UserDictionaryService {
+
+    private static final int CACHED_USERS = 1024;
+
+    private final UserDictionaryWordRepository wordRepository;
+    private final Map<Long, SpellingDictionary> overlays = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, SpellingDictionary> eldest) {
+            return size() > CACHED_USERS;
+        }
+    };
+    private final Map<Long, Object> loading = new HashMap<>();
+
+    public UserDictionaryService(UserDictionaryWordRepository wordRepository) {
+        this.wordRepository = wordRepository;
+    }
+
+    public List<String> list(Long userId) {
+        return wordRepository.findByUserIdOrderByWordAsc(userId).stream().map(UserDictionaryWord::getWord).toList();
+    }
+
+    public String add(Long userId, String word) {
+        String normalized = normalize(word);
+        if (wordRepository.findByUserIdAndWord(userId, normalized).isEmpty()) {
+            UserDictionaryWord entry = new UserDictionaryWord();
+            entry.setUserId(userId);
+            entry.setWord(normalized);
+            try {
+                wordRepository.save(entry);
+            } catch (DataIntegrityViolationException ex) {
+                // Added concurrently; the unique constraint keeps a single row.
+            }
+        }
+        invalidate(userId);
+        return normalized;
+    }
+
+    public boolean remove(Long userId, String word) {
+        String normalized = normalize(word);
+        boolean removed = wordRepository.findByUserIdAndWord(userId, normalized)
+            .map(entry -> {
+                wordRepository.delete(entry);
+                return true;
+            })
+            .orElse(false);
+        invalidate(userId);
+        return removed;
+    }
+
+    /**
+     * The user's words as a spell-check overlay, built once and kept until the words change. An
+     * overlay whose words changed while it was being built is returned but not cached.
+     */
+    public SpellingDictionary overlay(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        Object load = new Object();
+        synchronized (overlays) {
+            SpellingDictionary cached = overlays.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            loading.put(userId, load);
+        }
+        SpellingDictionary overlay = null;
+        try {
+            overlay = SpellingDictionary.of(list(userId));
+            return overlay;
+        } finally {
+            synchronized (overlays) {
+                if (loading.remove(userId, load) && overlay != null) {
+                    overlays.put(userId, overlay);
+                }
+            }
+        }
+    }
+
+    private void invalidate(Long userId) {
+        synchronized (overlays) {
+            overlays.remove(userId);
+            loading.remove(userId);
+        }
+    }
+
+    static String normalize(String word) {
+        String normalized = word == null ? "" : word.strip().replace('\u2019', '\'').toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty() || normalized.length() > SpellingDictionary.MAX_WORD_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "A dictionary word must be 1-" + SpellingDictionary.MAX_WORD_LENGTH + " characters long");
+        }
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            boolean innerApostrophe = c == '\'' && i > 0 && i < normalized.length() - 1;
+            if (!Character.isLetter(c) && !innerApostrophe) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A dictionary word may only contain letters and apostrophes");
+            }
+        }
+        return normalized;
+    }
+}
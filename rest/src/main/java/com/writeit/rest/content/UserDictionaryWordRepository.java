@@ -0,0 +1,11 @@
+package com.writeit.rest.content;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserDictionaryWordRepository extends JpaRepository<UserDictionaryWord, Long> {
+    List<UserDictionaryWord> findByUserIdOrderByWordAsc(Long userId);
+
+    Optional<UserDictionaryWord> findByUserIdAndWord(Long userId, String word);
+}
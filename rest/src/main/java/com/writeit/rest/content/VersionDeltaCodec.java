@@ -0,0 +1,255 @@
+package com.writeit.rest.content;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes one text as an edit script against another. Texts are split into segments that end
+ * at a newline, a closing {@code >} or sentence punctuation, and diffed with Myers' algorithm.
+ * The script is plain text: {@code =n;} copies n base chars, {@code -n;} skips n base chars and
+ * {@code +n:text} inserts n literal chars.
+ */
+public final class VersionDeltaCodec {
+
+    private static final int MAX_EDIT_DISTANCE = 1000;
+    private static final byte EQUAL = 0;
+    private static final byte DELETE = 1;
+    private static final byte INSERT = 2;
+
+    private VersionDeltaCodec() {
+    }
+
+    /**
+     * Returns the edit script turning {@code base} into {@code target}, or {@code null} when the
+     * texts differ in too many segments for a delta to be worthwhile.
+     */
+    public static String diff(String base, String target) {
+        String source = base == null ? "" : base;
+        String result = target == null ? "" : target;
+        int[] sourceEnds = segmentEnds(source);
+        int[] targetEnds = segmentEnds(result);
+        Map<String, Integer> segmentIds = new HashMap<>();
+        int[] a = segmentIds(source, sourceEnds, segmentIds);
+        int[] b = segmentIds(result, targetEnds, segmentIds);
+
+        int prefix = 0;
+        while (prefix < a.length && prefix < b.length && a[prefix] == b[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.length - prefix && suffix < b.length - prefix
+            && a[a.length - 1 - suffix] == b[b.length - 1 - suffix]) {
+            suffix++;
+        }
+        byte[] script = editScript(
+            Arrays.copyOfRange(a, prefix, a.length - suffix),
+            Arrays.copyOfRange(b, prefix, b.length - suffix));
+        if (script == null) {
+            return null;
+        }
+
+        DeltaWriter writer = new DeltaWriter(result);
+        writer.copy(start(sourceEnds, prefix));
+        int sourceIndex = prefix;
+        int targetIndex = prefix;
+        for (byte step : script) {
+            switch (step) {
+                case EQUAL -> {
+                    writer.copy(length(sourceEnds, sourceIndex++));
+                    targetIndex++;
+                }
+                case DELETE -> writer.skip(length(sourceEnds, sourceIndex++));
+                default -> {
+                    writer.insert(start(targetEnds, targetIndex), targetEnds[targetIndex]);
+                    targetIndex++;
+                }
+            }
+        }
+        writer.copy(source.length() - start(sourceEnds, sourceIndex));
+        return writer.toString();
+    }
+
+    public static String apply(String base, String delta) {
+        String source = base == null ? "" : base;
+        StringBuilder out = new StringBuilder(source.length() + 64);
+        int sourcePosition = 0;
+        int i = 0;
+        while (i < delta.length()) {
+            char op = delta.charAt(i++);
+            int count = 0;
+            char c;
+            while (Character.isDigit(c = delta.charAt(i++))) {
+                count = count * 10 + (c - '0');
+            }
+            switch (op) {
+                case '=' -> {
+                    out.append(source, sourcePosition, sourcePosition + count);
+                    sourcePosition += count;
+                }
+                case '-' -> sourcePosition += count;
+                case '+' -> {
+                    out.append(delta, i, i + count);
+                    i += count;
+                }
+                default -> throw new IllegalArgumentException("Unknown delta operation '" + op + "'");
+            }
+        }
+        return out.toString();
+    }
+
+    private static byte[] editScript(int[] a, int[] b) {
+        int n = a.length;
+        int m = b.length;
+        int max = n + m;
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+        int distance = -1;
+        for (int d = 0; d <= Math.min(max, MAX_EDIT_DISTANCE) && distance < 0; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                    ? v[offset + k + 1]
+                    : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[x] == b[y]) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    distance = d;
+                    break;
+                }
+            }
+            trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+        }
+        if (distance < 0) {
+            return null;
+        }
+
+        byte[] script = new byte[(n + m + distance) / 2];
+        int position = script.length;
+        int x = n;
+        int y = m;
+        for (int d = distance; d > 0; d--) {
+            int[] previous = trace.get(d - 1);
+            int k = x - y;
+            boolean down = k == -d || (k != d && previous[k - 1 + d - 1] < previous[k + 1 + d - 1]);
+            int previousK = down ? k + 1 : k - 1;
+            int previousX = previous[previousK + d - 1];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                script[--position] = EQUAL;
+                x--;
+                y--;
+            }
+            script[--position] = down ? INSERT : DELETE;
+            x = previousX;
+            y = previousY;
+        }
+        while (x > 0) {
+            script[--position] = EQUAL;
+            x--;
+        }
+        return script;
+    }
+
+    static int[] segmentEnds(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (isBoundary(text.charAt(i)) || i == text.length() - 1) {
+                count++;
+            }
+        }
+        int[] ends = new int[count];
+        int index = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (isBoundary(text.charAt(i)) || i == text.length() - 1) {
+                ends[index++] = i + 1;
+            }
+        }
+        return ends;
+    }
+
+    private static boolean isBoundary(char c) {
+        return c == '\n' || c == '>' || c == '.' || c == '!' || c == '?';
+    }
+
+    private static int[] segmentIds(String text, int[] ends, Map<String, Integer> ids) {
+        int[] result = new int[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            String segment = text.substring(start(ends, i), ends[i]);
+            result[i] = ids.computeIfAbsent(segment, key -> ids.size());
+        }
+        return result;
+    }
+
+    private static int start(int[] ends, int index) {
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    private static int length(int[] ends, int index) {
+        return ends[index] - start(ends, index);
+    }
+
+    private static final class DeltaWriter {
+
+        private final String target;
+        private final StringBuilder out = new StringBuilder();
+        private char pendingOp;
+        private int pendingCount;
+        private int pendingFrom;
+
+        private DeltaWriter(String target) {
+            this.target = target;
+        }
+
+        void copy(int count) {
+            add('=', count, 0);
+        }
+
+        void skip(int count) {
+            add('-', count, 0);
+        }
+
+        void insert(int from, int to) {
+            add('+', to - from, from);
+        }
+
+        private void add(char op, int count, int from) {
+            if (count == 0) {
+                return;
+            }
+            if (op == pendingOp) {
+                pendingCount += count;
+                return;
+            }
+            flush();
+            pendingOp = op;
+            pendingCount = count;
+            pendingFrom = from;
+        }
+
+        private void flush() {
+            if (pendingCount == 0) {
+                return;
+            }
+            out.append(pendingOp).append(pendingCount);
+            if (pendingOp == '+') {
+                out.append(':').append(target, pendingFrom, pendingFrom + pendingCount);
+            } else {
+                out.append(';');
+            }
+        }
+
+        @Override
+        public String toString() {
+            flush();
+            pendingCount = 0;
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.writeit.rest.content;
+
+public enum VersionStorageKind {
+    FULL,
+    DELTA
+}
@@ -1,31 +1,120 @@
 package com.writeit.rest.content;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/blog")
 public class WriteItBlogController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+    private static final MediaType ATOM = new MediaType("application", "atom+xml", StandardCharsets.UTF_8);
+    private static final String PAGE_POLICY = "default-src 'none'; img-src 'self' https: data:; style-src 'unsafe-inline'; "
+        + "base-uri 'none'; form-action 'none'; frame-ancestors 'none'";
+
     private final DocumentRepository documentRepository;
+    private final BlogPostCache blogPostCache;
+    private final BlogFeedCache blogFeedCache;
 
-    public WriteItBlogController(DocumentRepository documentRepository) {
+    public WriteItBlogController(DocumentRepository documentRepository, BlogPostCache blogPostCache,
+                                 BlogFeedCache blogFeedCache) {
         this.documentRepository = documentRepository;
+        this.blogPostCache = blogPostCache;
+        this.blogFeedCache = blogFeedCache;
     }
 
     @GetMapping("/posts")
-    public List<Document> listPublishedPosts() {
-        return documentRepository.findByPublishedToWriteItTrueOrderByPublishedAtDesc();
+    public CursorPage<DocumentSummary> listPublishedPosts(@RequestParam(value = "cursor", required = false) String cursor,
+                                                          @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        int pageSize = PageCursor.clampLimit(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        List<DocumentSummary> rows = after == null
+            ? documentRepository.findPublishedSummaries(Limit.of(pageSize + 1))
+            : documentRepository.findPublishedSummariesAfter(after.sortKey(), after.id(), Limit.of(pageSize + 1));
+        return PageCursor.page(rows, pageSize, post -> new PageCursor(post.publishedAt(), post.id()));
     }
 
     @GetMapping("/posts/{slug}")
-    public ResponseEntity<Document> getPostBySlug(@PathVariable("slug") String slug) {
-        return documentRepository.findByWriteItSlugAndPublishedToWriteItTrue(slug)
-            .map(ResponseEntity::ok)
+    public ResponseEntity<byte[]> getPostBySlug(@PathVariable("slug") String slug, WebRequest request) {
+        return serve(slug, request, MediaType.APPLICATION_JSON, BlogPostCache.CachedPost::jsonEtag, BlogPostCache.CachedPost::json,
+            HttpHeaders.EMPTY);
+    }
+
+    /**
+     * The post as a standalone page. The content is sanitized when rendered, and the page is also
+     * served with a policy that allows no script, since it shares the API origin.
+     */
+    @GetMapping("/posts/{slug}/html")
+    public ResponseEntity<byte[]> getPostHtml(@PathVariable("slug") String slug, WebRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Content-Security-Policy", PAGE_POLICY);
+        headers.set("X-Content-Type-Options", "nosniff");
+        return serve(slug, request, new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8),
+            BlogPostCache.CachedPost::htmlEtag, BlogPostCache.CachedPost::html, headers);
+    }
+
+    @GetMapping("/feed.xml")
+    public ResponseEntity<byte[]> getFeed(WebRequest request) {
+        return serve(blogFeedCache.feed(), request, ATOM);
+    }
+
+    @GetMapping("/sitemap.xml")
+    public ResponseEntity<byte[]> getSitemap(WebRequest request) {
+        return serve(blogFeedCache.sitemap(), request, new MediaType(MediaType.APPLICATION_XML, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends a pre-rendered document, gzipped when the client accepts it.
+     */
+    private static ResponseEntity<byte[]> serve(BlogFeedCache.Rendered rendered, WebRequest request, MediaType mediaType) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? rendered.gzipEtag() : rendered.etag();
+        if (request.checkNotModified(etag, rendered.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(mediaType)
+            .eTag(etag)
+            .lastModified(rendered.lastModified())
+            .cacheControl(REVALIDATE)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? rendered.gzip() : rendered.body());
+    }
+
+    private ResponseEntity<byte[]> serve(String slug, WebRequest request, MediaType mediaType,
+                                         Function<BlogPostCache.CachedPost, String> etag,
+                                         Function<BlogPostCache.CachedPost, byte[]> body, HttpHeaders headers) {
+        return blogPostCache.find(slug)
+            .map(post -> {
+                if (request.checkNotModified(etag.apply(post), post.lastModified().toEpochMilli())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).cacheControl(REVALIDATE).<byte[]>build();
+                }
+                return ResponseEntity.ok()
+                    .headers(headers)
+                    .contentType(mediaType)
+                    .eTag(etag.apply(post))
+                    .lastModified(post.lastModified())
+                    .cacheControl(REVALIDATE)
+                    .body(body.apply(post));
+            })
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
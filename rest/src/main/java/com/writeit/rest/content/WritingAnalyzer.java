@@ -0,0 +1,8 @@
+package com.writeit.rest.content;
+
+public enum WritingAnalyzer {
+    SPELLING,
+    STYLE,
+    SEO,
+    AI_VERIFY
+}
@@ -0,0 +1,11 @@
+package com.writeit.rest.content;
+
+import java.util.List;
+
+/**
+ * One finding of the batch writing tools. {@code section} and {@code paragraph} index the
+ * submitted sections and their paragraphs, and {@code offset} is a character offset into the
+ * section text. Findings about the document as a whole have no section or paragraph.
+ */
+public record WritingFinding(WritingAnalyzer analyzer, Integer section, Integer paragraph, int offset, int length, String message,
+                             List<String> suggestions) {}
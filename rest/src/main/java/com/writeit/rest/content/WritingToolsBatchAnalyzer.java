@@ -0,0 +1,271 @@
+package com.writeit.rest.content;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the per-paragraph writing checks over many sections at once. Sections are split into
+ * paragraphs at blank lines and block tags, the paragraphs are cut into one contiguous run of
+ * roughly equal length per worker of a fixed pool, and the findings are merged back in text
+ * order. Offsets always refer to the submitted section text.
+ */
+@Component
+public class WritingToolsBatchAnalyzer {
+
+    private static final int MIN_CHARS_PER_TASK = 4 * 1024;
+
+    private final SpellChecker spellChecker;
+    private final int threads;
+    private final ExecutorService analysisPool;
+
+    public WritingToolsBatchAnalyzer(SpellChecker spellChecker, @Value("${writeit.writing-tools.batch.threads:0}") int threads) {
+        this.spellChecker = spellChecker;
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.analysisPool = Executors.newFixedThreadPool(this.threads, new DaemonThreadFactory("writing-tools-"));
+    }
+
+    /**
+     * Checks every paragraph of {@code sections} with the requested paragraph-level analyzers
+     * and returns the findings ordered by section, paragraph and offset.
+     */
+    public Result analyze(List<String> sections, boolean spelling, boolean style, SpellingDictionary overlay) {
+        List<Paragraph> paragraphs = new ArrayList<>();
+        long totalChars = 0;
+        for (int section = 0; section < sections.size(); section++) {
+            String text = sections.get(section);
+            if (text != null) {
+                for (Paragraph paragraph : paragraphs(text, section)) {
+                    paragraphs.add(paragraph);
+                    totalChars += paragraph.end() - paragraph.start();
+                }
+            }
+        }
+        if (!spelling && !style || paragraphs.isEmpty()) {
+            return new Result(paragraphs.size(), List.of());
+        }
+        int tasks = (int) Math.max(1, Math.min(threads, totalChars / MIN_CHARS_PER_TASK));
+        if (tasks == 1) {
+            return new Result(paragraphs.size(), check(sections, paragraphs, spelling, style, overlay));
+        }
+        long charsPerTask = totalChars / tasks + 1;
+        List<CompletableFuture<List<WritingFinding>>> futures = new ArrayList<>(tasks);
+        int from = 0;
+        long chars = 0;
+        for (int i = 0; i < paragraphs.size(); i++) {
+            Paragraph paragraph = paragraphs.get(i);
+            chars += paragraph.end() - paragraph.start();
+            if (chars >= charsPerTask || i == paragraphs.size() - 1) {
+                List<Paragraph> run = paragraphs.subList(from, i + 1);
+                futures.add(CompletableFuture.supplyAsync(() -> check(sections, run, spelling, style, overlay), analysisPool));
+                from = i + 1;
+                chars = 0;
+            }
+        }
+        List<WritingFinding> findings = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<WritingFinding>> future : futures) {
+                findings.addAll(future.join());
+            }
+        } catch (CompletionException ex) {
+            futures.forEach(future -> future.cancel(true));
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+        return new Result(paragraphs.size(), findings);
+    }
+
+    private List<WritingFinding> check(List<String> sections, List<Paragraph> paragraphs, boolean spelling,
+                                       boolean style, SpellingDictionary overlay) {
+        List<WritingFinding> findings = new ArrayList<>();
+        List<WritingFinding> paragraphFindings = new ArrayList<>();
+        for (Paragraph paragraph : paragraphs) {
+            String text = sections.get(paragraph.section());
+            if (spelling) {
+                for (SpellingIssue issue : spellChecker.check(text, paragraph.start(), paragraph.end(), overlay)) {
+                    String message = issue.suggestions().isEmpty()
+                        ? "Check the spelling of '" + issue.word() + "'."
+                        : "Replace '" + issue.word() + "' with '" + issue.suggestions().get(0) + "'.";
+                    paragraphFindings.add(finding(WritingAnalyzer.SPELLING, paragraph, issue.offset(), issue.length(), message, issue.suggestions()));
+                }
+            }
+            if (style) {
+                checkStyle(text, paragraph, paragraphFindings);
+            }
+            paragraphFindings.sort(Comparator.comparingInt(WritingFinding::offset));
+            findings.addAll(paragraphFindings);
+            paragraphFindings.clear();
+        }
+        return findings;
+    }
+
+    /**
+     * Flags runs of spaces, immediately repeated words and body paragraphs without closing
+     * punctuation. Markup is ignored.
+     */
+    static void checkStyle(String text, Paragraph paragraph, List<WritingFinding> into) {
+        int previousWordStart = -1;
+        int previousWordEnd = -1;
+        int lastVisible = -1;
+        int i = paragraph.start();
+        int end = paragraph.end();
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '<' && i + 1 < end && HtmlText.isTagStart(text.charAt(i + 1))) {
+                int tagEnd = text.indexOf('>', i);
+                i = tagEnd < 0 || tagEnd >= end ? end : tagEnd + 1;
+                continue;
+            }
+            if (c == ' ' && i + 1 < end && text.charAt(i + 1) == ' ') {
+                int runEnd = i;
+                while (runEnd < end && text.charAt(runEnd) == ' ') {
+                    runEnd++;
+                }
+                into.add(finding(WritingAnalyzer.STYLE, paragraph, i, runEnd - i, "Remove double spaces.", List.of(" ")));
+                i = runEnd;
+                continue;
+            }
+            if (Character.isLetter(c)) {
+                int wordEnd = i;
+                while (wordEnd < end && Character.isLetter(text.charAt(wordEnd))) {
+                    wordEnd++;
+                }
+                if (previousWordStart >= 0 && previousWordEnd - previousWordStart == wordEnd - i
+                    && onlySpacesBetween(text, previousWordEnd, i)
+                    && text.regionMatches(true, previousWordStart, text, i, wordEnd - i)) {
+                    String word = text.substring(i, wordEnd);
+                    into.add(finding(WritingAnalyzer.STYLE, paragraph, previousWordEnd, wordEnd - previousWordEnd,
+                        "Remove the repeated word '" + word + "'.", List.of("")));
+                }
+                previousWordStart = i;
+                previousWordEnd = wordEnd;
+                lastVisible = wordEnd - 1;
+                i = wordEnd;
+                continue;
+            }
+            if (!Character.isWhitespace(c)) {
+                lastVisible = i;
+                previousWordStart = -1;
+            }
+            i++;
+        }
+        if (!paragraph.fragment() && lastVisible >= 0 && !isClosingPunctuation(text.charAt(lastVisible))) {
+            into.add(finding(WritingAnalyzer.STYLE, paragraph, lastVisible + 1, 0, "Consider ending the paragraph with punctuation.", List.of()));
+        }
+    }
+
+    /**
+     * Splits {@code text} into paragraphs at blank lines and block-level tags. Each paragraph is
+     * trimmed of surrounding whitespace and skipped if it holds nothing but markup.
+     */
+    static List<Paragraph> paragraphs(String text, int section) {
+        List<Paragraph> paragraphs = new ArrayList<>();
+        int length = text.length();
+        int start = 0;
+        boolean fragment = false;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '<' && i + 1 < length && HtmlText.isTagStart(text.charAt(i + 1))) {
+                int tagEnd = text.indexOf('>', i);
+                if (tagEnd < 0) {
+                    break;
+                }
+                String name = HtmlText.tagName(text, i + 1, tagEnd);
+                if (HtmlText.BLOCK_TAGS.contains(name)) {
+                    add(paragraphs, text, section, start, i, fragment);
+                    boolean closing = text.charAt(i + 1) == '/';
+                    fragment = !closing && (name.equals("li") || name.length() == 2 && name.charAt(0) == 'h');
+                    start = tagEnd + 1;
+                }
+                i = tagEnd + 1;
+                continue;
+            }
+            if (c == '\n') {
+                int next = i + 1;
+                while (next < length && text.charAt(next) != '\n' && Character.isWhitespace(text.charAt(next))) {
+                    next++;
+                }
+                if (next < length && text.charAt(next) == '\n') {
+                    add(paragraphs, text, section, start, i, fragment);
+                    start = next + 1;
+                    i = next + 1;
+                    continue;
+                }
+            }
+            i++;
+        }
+        add(paragraphs, text, section, start, length, fragment);
+        return paragraphs;
+    }
+
+    private static void add(List<Paragraph> paragraphs, String text, int section, int start, int end, boolean fragment) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (hasText(text, start, end)) {
+            paragraphs.add(new Paragraph(section, paragraphs.size(), start, end, fragment));
+        }
+    }
+
+    private static boolean hasText(String text, int start, int end) {
+        boolean inTag = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (inTag) {
+                inTag = c != '>';
+            } else if (c == '<' && i + 1 < end && HtmlText.isTagStart(text.charAt(i + 1))) {
+                inTag = true;
+            } else if (!Character.isWhitespace(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static WritingFinding finding(WritingAnalyzer analyzer, Paragraph paragraph, int offset, int length, String message,
+                                          List<String> suggestions) {
+        return new WritingFinding(analyzer, paragraph.section(), paragraph.index(), offset, length, message, suggestions);
+    }
+
+    private static boolean onlySpacesBetween(String text, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isClosingPunctuation(char c) {
+        return c == '.' || c == '!' || c == '?' || c == ':' || c == ';' || c == '"' || c == '\'' || c == ')'
+            || c == '\u201D' || c == '\u2019' || c == '\u2026';
+    }
+
+    @PreDestroy
+    void shutdown() {
+        analysisPool.shutdownNow();
+    }
+
+    /**
+     * A paragraph of section {@code section}: {@code text[start, end)}, numbered from 0 within
+     * its section. Headings and list items are fragments and need no closing punctuation.
+     */
+    record Paragraph(int section, int index, int start, int end, boolean fragment) {
+    }
+
+    public record Result(int paragraphs, List<WritingFinding> findings) {
+    }
+}
@@ -1,22 +1,50 @@
 package com.writeit.rest.content;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/v1/writing-tools")
 public class WritingToolsController {
 
+    private static final Set<WritingAnalyzer> DEFAULT_BATCH_ANALYZERS = EnumSet.of(WritingAnalyzer.SPELLING, WritingAnalyzer.STYLE);
+
+    private final SpellChecker spellChecker;
+    private final UserDictionaryService userDictionaryService;
+    private final WritingToolsBatchAnalyzer batchAnalyzer;
+
+    public WritingToolsController(SpellChecker spellChecker, UserDictionaryService userDictionaryService,
+                                  WritingToolsBatchAnalyzer batchAnalyzer) {
+        this.spellChecker = spellChecker;
+        this.userDictionaryService = userDictionaryService;
+        this.batchAnalyzer = batchAnalyzer;
+    }
+
     @PostMapping("/spell-check")
     public SpellCheckResponse spellCheck(@RequestBody TextPayload payload) {
         String text = payload.text() == null ? "" : payload.text();
-        List<String> suggestions = new ArrayList<>();
-        if (text.contains(" teh ") || text.startsWith("teh ") || text.endsWith(" teh")) {
-            suggestions.add("Replace 'teh' with 'the'.");
+        SpellingDictionary overlay = payload.userId() == null ? null : userDictionaryService.overlay(payload.userId());
+        List<SpellingIssue> issues = spellChecker.check(text, overlay);
+        Set<String> suggestions = new LinkedHashSet<>();
+        for (SpellingIssue issue : issues) {
+            suggestions.add(issue.suggestions().isEmpty()
+                ? "Check the spelling of '" + issue.word() + "'."
+                : "Replace '" + issue.word() + "' with '" + issue.suggestions().get(0) + "'.");
         }
         if (text.contains("  ")) {
             suggestions.add("Remove double spaces.");
@@ -24,24 +52,61 @@ public class WritingToolsController {
         if (!text.isBlank() && !text.trim().endsWith(".") && !text.trim().endsWith("!") && !text.trim().endsWith("?")) {
             suggestions.add("Consider ending the paragraph with punctuation.");
         }
-        return new SpellCheckResponse(suggestions);
+        return new SpellCheckResponse(List.copyOf(suggestions), issues);
+    }
+
+    /**
+     * Checks a whole document, or its sections, in one request. Paragraph-level analyzers run in
+     * parallel; SEO and AI verification look at the document once.
+     */
+    @PostMapping("/batch")
+    public BatchResponse batch(@RequestBody BatchRequest payload) {
+        Set<WritingAnalyzer> analyzers = payload.analyzers() == null || payload.analyzers().isEmpty()
+            ? DEFAULT_BATCH_ANALYZERS
+            : EnumSet.copyOf(payload.analyzers());
+        List<String> sections = payload.sections() == null || payload.sections().isEmpty()
+            ? Collections.singletonList(payload.content())
+            : payload.sections().stream().map(BatchSection::content).toList();
+        SpellingDictionary overlay = analyzers.contains(WritingAnalyzer.SPELLING) && payload.userId() != null
+            ? userDictionaryService.overlay(payload.userId())
+            : null;
+        WritingToolsBatchAnalyzer.Result result = batchAnalyzer.analyze(sections,
+            analyzers.contains(WritingAnalyzer.SPELLING), analyzers.contains(WritingAnalyzer.STYLE), overlay);
+
+        List<WritingFinding> findings = new ArrayList<>(result.findings());
+        if (analyzers.contains(WritingAnalyzer.SEO) || analyzers.contains(WritingAnalyzer.AI_VERIFY)) {
+            String content = sections.stream().filter(Objects::nonNull).collect(Collectors.joining("\n\n"));
+            if (analyzers.contains(WritingAnalyzer.SEO)) {
+                seo(new SeoSuggestionRequest(payload.title(), content)).suggestions()
+                    .forEach(message -> findings.add(documentFinding(WritingAnalyzer.SEO, message)));
+            }
+            if (analyzers.contains(WritingAnalyzer.AI_VERIFY)) {
+                aiVerify(new TextPayload(content)).suggestions()
+                    .forEach(message -> findings.add(documentFinding(WritingAnalyzer.AI_VERIFY, message)));
+            }
+        }
+        return new BatchResponse(sections.size(), result.paragraphs(), findings);
+    }
+
+    @GetMapping("/dictionary")
+    public List<String> dictionary(@RequestParam("userId") Long userId) {
+        return userDictionaryService.list(userId);
+    }
+
+    @PostMapping("/dictionary")
+    public DictionaryWord addToDictionary(@RequestParam("userId") Long userId, @RequestBody DictionaryWord payload) {
+        return new DictionaryWord(userDictionaryService.add(userId, payload.word()));
+    }
+
+    @DeleteMapping("/dictionary/{word}")
+    public ResponseEntity<Void> removeFromDictionary(@RequestParam("userId") Long userId, @PathVariable("word") String word) {
+        return userDictionaryService.remove(userId, word) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
     @PostMapping("/seo-suggestions")
     public SeoSuggestionResponse seo(@RequestBody SeoSuggestionRequest payload) {
-        String title = payload.title() == null ? "" : payload.title();
-        String content = payload.content() == null ? "" : payload.content();
-        List<String> suggestions = new ArrayList<>();
-        if (title.length() < 20) {
-            suggestions.add("Use a longer title (20-60 chars) for better discoverability.");
-        }
-        if (ContentMetrics.countWords(content) < 300) {
-            suggestions.add("Add more depth; SEO content typically performs better beyond 300 words.");
-        }
-        if (!content.toLowerCase().contains("introduction")) {
-            suggestions.add("Consider adding an introduction heading for structure.");
-        }
-        return new SeoSuggestionResponse(ContentMetrics.countWords(content), suggestions);
+        SeoAnalyzer.Analysis analysis = SeoAnalyzer.analyze(payload.title(), payload.content());
+        return new SeoSuggestionResponse(analysis.wordCount(), SeoAnalyzer.suggestions(payload.title(), analysis), analysis);
     }
 
     @PostMapping("/ai-verify")
@@ -56,9 +121,21 @@ public class WritingToolsController {
         return new AiVerificationResponse("MOCKED", suggestions);
     }
 
-    public record TextPayload(String text) {}
+    private static WritingFinding documentFinding(WritingAnalyzer analyzer, String message) {
+        return new WritingFinding(analyzer, null, null, 0, 0, message, List.of());
+    }
+
+    public record TextPayload(String text, Long userId) {
+        public TextPayload(String text) {
+            this(text, null);
+        }
+    }
+    public record DictionaryWord(String word) {}
+    public record BatchSection(Long id, String title, String content) {}
+    public record BatchRequest(String title, String content, List<BatchSection> sections, Set<WritingAnalyzer> analyzers, Long userId) {}
+    public record BatchResponse(int sections, int paragraphs, List<WritingFinding> findings) {}
     public record SeoSuggestionRequest(String title, String content) {}
-    public record SpellCheckResponse(List<String> suggestions) {}
-    public record SeoSuggestionResponse(int wordCount, List<String> suggestions) {}
+    public record SpellCheckResponse(List<String> suggestions, List<SpellingIssue> issues) {}
+    public record SeoSuggestionResponse(int wordCount, List<String> suggestions, SeoAnalyzer.Analysis analysis) {}
     public record AiVerificationResponse(String provider, List<String> suggestions) {}
 }
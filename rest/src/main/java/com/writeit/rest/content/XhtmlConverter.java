@@ -0,0 +1,104 @@
+package com.writeit.rest.content;
+
+import java.util.Locale;
+import java.util.Set;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Converts editor HTML into XHTML that EPUB readers accept: void elements are self-closed,
+ * named HTML entities become numeric references and stray ampersands are escaped.
+ * Plain text without markup is wrapped into paragraphs.
+ */
+public final class XhtmlConverter {
+
+    private static final Set<String> VOID_ELEMENTS = Set.of(
+        "area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta", "source", "track", "wbr");
+    private static final Set<String> XML_ENTITIES = Set.of("amp", "lt", "gt", "quot", "apos");
+
+    private XhtmlConverter() {
+    }
+
+    public static String toXhtml(String html) {
+        if (html == null || html.isBlank()) {
+            return "";
+        }
+        if (html.indexOf('<') < 0) {
+            return paragraphs(html);
+        }
+        StringBuilder out = new StringBuilder(html.length() + 32);
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                int end = html.indexOf('>', i);
+                if (end < 0) {
+                    out.append("&lt;");
+                    i++;
+                    continue;
+                }
+                appendTag(out, html, i, end);
+                i = end + 1;
+            } else if (c == '&') {
+                i = appendEntity(out, html, i);
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    public static String escape(String text) {
+        return text == null ? "" : HtmlUtils.htmlEscapeDecimal(text);
+    }
+
+    private static void appendTag(StringBuilder out, String html, int start, int end) {
+        int nameStart = start + 1;
+        int nameEnd = nameStart;
+        while (nameEnd < end && Character.isLetterOrDigit(html.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String name = html.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+        boolean selfClosed = html.charAt(end - 1) == '/';
+        if (VOID_ELEMENTS.contains(name) && !selfClosed) {
+            out.append(html, start, end).append("/>");
+        } else {
+            out.append(html, start, end + 1);
+        }
+    }
+
+    private static int appendEntity(StringBuilder out, String html, int start) {
+        int end = start + 1;
+        int limit = Math.min(html.length(), start + 12);
+        while (end < limit && (Character.isLetterOrDigit(html.charAt(end)) || html.charAt(end) == '#')) {
+            end++;
+        }
+        if (end == start + 1 || end >= html.length() || html.charAt(end) != ';') {
+            out.append("&amp;");
+            return start + 1;
+        }
+        String name = html.substring(start + 1, end);
+        if (name.startsWith("#") || XML_ENTITIES.contains(name)) {
+            out.append(html, start, end + 1);
+        } else {
+            String decoded = HtmlUtils.htmlUnescape("&" + name + ";");
+            if (decoded.startsWith("&")) {
+                out.append("&amp;").append(name).append(';');
+            } else {
+                decoded.codePoints().forEach(codePoint -> out.append("&#").append(codePoint).append(';'));
+            }
+        }
+        return end + 1;
+    }
+
+    private static String paragraphs(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 32);
+        for (String paragraph : text.split("\\R\\s*\\R")) {
+            if (!paragraph.isBlank()) {
+                out.append("<p>").append(escape(paragraph.trim())).append("</p>\n");
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset writeit:007-delta-document-versions
+ALTER TABLE document_versions ADD COLUMN IF NOT EXISTS storage_kind VARCHAR(10) NOT NULL DEFAULT 'FULL';
+ALTER TABLE document_versions ADD COLUMN IF NOT EXISTS content_length INT;
+
+CREATE INDEX IF NOT EXISTS idx_document_versions_keyframes ON document_versions(document_id, storage_kind, version_number);
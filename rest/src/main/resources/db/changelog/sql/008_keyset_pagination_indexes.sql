@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset writeit:008-keyset-pagination-indexes
+CREATE INDEX IF NOT EXISTS idx_documents_user_updated ON documents(user_id, updated_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_documents_published_feed ON documents(published_to_write_it, published_at DESC, id DESC);
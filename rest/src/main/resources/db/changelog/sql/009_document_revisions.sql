@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset writeit:009-document-revisions
+ALTER TABLE documents ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
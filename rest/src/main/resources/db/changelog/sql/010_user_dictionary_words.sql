@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset writeit:010-user-dictionary-words
+CREATE TABLE IF NOT EXISTS user_dictionary_words (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    word VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_dictionary_users FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uq_user_dictionary_word UNIQUE (user_id, word)
+);
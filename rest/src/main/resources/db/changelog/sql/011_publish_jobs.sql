@@ -0,0 +1,22 @@
+--liquibase formatted sql
+
+--changeset writeit:011-publish-jobs
+CREATE TABLE IF NOT EXISTS publish_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    document_id BIGINT NOT NULL,
+    channel VARCHAR(40) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payload TEXT,
+    attempts INT NOT NULL DEFAULT 0,
+    max_attempts INT NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    external_url VARCHAR(2048),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+    CONSTRAINT fk_publish_jobs_documents FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_publish_jobs_due ON publish_jobs(status, channel, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_publish_jobs_document ON publish_jobs(document_id, id);
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset writeit:012-outline-position-indexes
+CREATE INDEX IF NOT EXISTS idx_chapters_document_position ON chapters (document_id, position, id);
+CREATE INDEX IF NOT EXISTS idx_sections_chapter_position ON sections (chapter_id, position, id);
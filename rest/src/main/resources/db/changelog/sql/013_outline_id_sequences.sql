@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset writeit:013-outline-id-sequences
+CREATE SEQUENCE IF NOT EXISTS chapters_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sections_seq START WITH 1 INCREMENT BY 50;
+
+--changeset writeit:013-outline-id-sequences-restart dbms:postgresql
+SELECT setval('chapters_seq', COALESCE((SELECT MAX(id) FROM chapters), 0) + 50, false);
+SELECT setval('sections_seq', COALESCE((SELECT MAX(id) FROM sections), 0) + 50, false);
@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+--changeset writeit:014-document-tags
+CREATE TABLE IF NOT EXISTS document_tags (
+    id BIGSERIAL PRIMARY KEY,
+    document_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    tag VARCHAR(100) NOT NULL,
+    CONSTRAINT fk_document_tags_documents FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE,
+    CONSTRAINT uq_document_tag UNIQUE (document_id, tag)
+);
+CREATE INDEX IF NOT EXISTS idx_document_tags_user_tag ON document_tags (user_id, tag);
+DROP INDEX IF EXISTS idx_documents_tags;
+
+--changeset writeit:014-document-tags-backfill dbms:postgresql
+INSERT INTO document_tags (document_id, user_id, tag)
+SELECT DISTINCT d.id, d.user_id, LEFT(LOWER(REGEXP_REPLACE(TRIM(LTRIM(TRIM(t.tag), '#')), '\s+', ' ', 'g')), 100)
+FROM documents d
+CROSS JOIN LATERAL UNNEST(STRING_TO_ARRAY(d.tags, ',')) AS t(tag)
+WHERE d.tags IS NOT NULL AND TRIM(LTRIM(TRIM(t.tag), '#')) <> ''
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset writeit:015-section-content-length
+ALTER TABLE sections ADD COLUMN IF NOT EXISTS content_length INT;
+
+UPDATE sections SET content_length = LENGTH(content) WHERE content IS NOT NULL;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset writeit:016-media-storage
+ALTER TABLE media_files ADD COLUMN IF NOT EXISTS storage_key VARCHAR(64);
+ALTER TABLE media_files ADD COLUMN IF NOT EXISTS content_type VARCHAR(255);
+ALTER TABLE media_files ADD COLUMN IF NOT EXISTS size_bytes BIGINT;
+ALTER TABLE media_files ADD COLUMN IF NOT EXISTS file_name VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS idx_media_files_storage_key ON media_files(storage_key);
@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset writeit:017-change-log
+CREATE SEQUENCE IF NOT EXISTS change_log_seq START WITH 1 INCREMENT BY 1;
+CREATE TABLE IF NOT EXISTS change_log (
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    user_id BIGINT,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_change_log PRIMARY KEY (entity_type, entity_id)
+);
+CREATE INDEX IF NOT EXISTS idx_change_log_user_seq ON change_log (user_id, seq);
+
+--changeset writeit:017-change-log-backfill
+INSERT INTO change_log (entity_type, entity_id, seq, user_id)
+SELECT 'DOCUMENT', d.id, NEXTVAL('change_log_seq'), d.user_id FROM documents d;
+INSERT INTO change_log (entity_type, entity_id, seq, user_id)
+SELECT 'CHAPTER', c.id, NEXTVAL('change_log_seq'), d.user_id FROM chapters c JOIN documents d ON d.id = c.document_id;
+INSERT INTO change_log (entity_type, entity_id, seq, user_id)
+SELECT 'SECTION', s.id, NEXTVAL('change_log_seq'), d.user_id
+FROM sections s JOIN chapters c ON c.id = s.chapter_id JOIN documents d ON d.id = c.document_id;
+INSERT INTO change_log (entity_type, entity_id, seq, user_id)
+SELECT 'SNIPPET', s.id, NEXTVAL('change_log_seq'), s.user_id FROM snippets s;
+INSERT INTO change_log (entity_type, entity_id, seq, user_id)
+SELECT 'MEDIA', m.id, NEXTVAL('change_log_seq'), d.user_id FROM media_files m JOIN documents d ON d.id = m.document_id;
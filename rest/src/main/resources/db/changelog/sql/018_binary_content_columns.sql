@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset writeit:018-binary-content-columns dbms:postgresql
+ALTER TABLE documents ALTER COLUMN content TYPE BYTEA USING convert_to(content, 'UTF8');
+ALTER TABLE sections ALTER COLUMN content TYPE BYTEA USING convert_to(content, 'UTF8');
+ALTER TABLE document_versions ALTER COLUMN content TYPE BYTEA USING convert_to(content, 'UTF8');
+
+--changeset writeit:018-binary-content-columns-h2 dbms:h2
+ALTER TABLE documents ALTER COLUMN content SET DATA TYPE BYTEA;
+ALTER TABLE sections ALTER COLUMN content SET DATA TYPE BYTEA;
+ALTER TABLE document_versions ALTER COLUMN content SET DATA TYPE BYTEA;
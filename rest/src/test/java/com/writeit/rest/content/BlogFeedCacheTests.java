@@ -0,0 +1,136 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class BlogFeedCacheTests {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T09:30:00Z");
+
+    @Test
+    void publishingAddsEntriesNewestFirst() throws IOException {
+        BlogFeedCache cache = new BlogFeedCache(null, "https://example.com/", 10);
+
+        cache.update(post(1L, "First & foremost", NOW));
+        cache.update(post(2L, "Second", NOW.plusSeconds(60)));
+
+        String feed = text(cache.feed().body());
+        assertTrue(feed.indexOf("urn:writeit:document:2") < feed.indexOf("urn:writeit:document:1"));
+        assertTrue(feed.contains("<title>First &#38; foremost</title>"));
+        assertTrue(feed.contains("<link href=\"https://example.com/blog/post-1\"/>"));
+        assertTrue(feed.contains("<updated>2026-10-18T09:31:00Z</updated>"));
+        String sitemap = text(cache.sitemap().body());
+        assertTrue(sitemap.contains("<url><loc>https://example.com/blog/post-2</loc><lastmod>2026-10-18</lastmod></url>"));
+        assertArrayEquals(cache.feed().body(), new GZIPInputStream(new ByteArrayInputStream(cache.feed().gzip())).readAllBytes());
+    }
+
+    @Test
+    void feedKeepsOnlyTheNewestPostsButSitemapKeepsAll() {
+        BlogFeedCache cache = new BlogFeedCache(null, "https://example.com", 2);
+
+        cache.update(post(1L, "One", NOW));
+        cache.update(post(2L, "Two", NOW.plusSeconds(1)));
+        cache.update(post(3L, "Three", NOW.plusSeconds(2)));
+        BlogFeedCache.Rendered feed = cache.feed();
+        cache.update(post(0L, "Older", NOW.minusSeconds(1)));
+
+        assertSame(feed, cache.feed());
+        assertFalse(text(cache.feed().body()).contains("urn:writeit:document:1<"));
+        String sitemap = text(cache.sitemap().body());
+        for (long id = 0; id <= 3; id++) {
+            assertTrue(sitemap.contains("/blog/post-" + id + "<"));
+        }
+    }
+
+    @Test
+    void unchangedSitemapEntryKeepsSitemapAndEditChangesFeed() {
+        BlogFeedCache cache = new BlogFeedCache(null, "https://example.com", 10);
+        Document post = post(1L, "Title", NOW);
+        cache.update(post);
+        BlogFeedCache.Rendered feed = cache.feed();
+        BlogFeedCache.Rendered sitemap = cache.sitemap();
+
+        post.setContent("<p>Edited</p>");
+        cache.update(post);
+
+        assertSame(sitemap, cache.sitemap());
+        assertNotEquals(feed.etag(), cache.feed().etag());
+        assertTrue(text(cache.feed().body()).contains("<summary>Edited</summary>"));
+    }
+
+    @Test
+    void unpublishedPostsAreRemovedFromTheSitemap() {
+        BlogFeedCache cache = new BlogFeedCache(null, "https://example.com", 1);
+        cache.update(post(1L, "Old", NOW));
+        cache.update(post(2L, "New", NOW.plusSeconds(1)));
+
+        Document old = post(1L, "Old", NOW);
+        old.setPublishedToWriteIt(false);
+        cache.update(old);
+
+        assertFalse(text(cache.sitemap().body()).contains("/blog/post-1<"));
+        assertTrue(text(cache.feed().body()).contains("urn:writeit:document:2"));
+    }
+
+    @Test
+    void summaryStripsMarkupAndTruncatesAtAWord() {
+        assertEquals("Hello world & friends", BlogFeedCache.summary("<h1>Hello</h1><p>world &amp; <b>friends</b></p>"));
+        String summary = BlogFeedCache.summary("<p>" + "word ".repeat(100) + "</p>");
+        assertTrue(summary.length() <= 281);
+        assertTrue(summary.endsWith("word\u2026"));
+    }
+
+    @Test
+    void changesInsideATransactionWaitForCommit() {
+        BlogFeedCache cache = new BlogFeedCache(null, "https://example.com", 10);
+        BlogFeedCache.Rendered empty = cache.feed();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.update(post(1L, "Rolled back", NOW));
+            assertSame(empty, cache.feed());
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertSame(empty, cache.feed());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.update(post(2L, "Committed", NOW));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(text(cache.feed().body()).contains("urn:writeit:document:2<"));
+    }
+
+    private static Document post(Long id, String title, Instant publishedAt) {
+        Document document = new Document();
+        document.setId(id);
+        document.setTitle(title);
+        document.setContent("<p>Body of " + title + "</p>");
+        document.setPublishedToWriteIt(true);
+        document.setWriteItSlug("post-" + id);
+        document.setPublishedAt(publishedAt);
+        return document;
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
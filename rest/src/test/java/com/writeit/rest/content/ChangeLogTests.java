@@ -0,0 +1,144 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class ChangeLogTests {
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private SyncController syncController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // The seeded user has an explicit id, so the identity column cannot be relied on here.
+        userId = jdbcTemplate.queryForObject("SELECT MAX(id) + 1 FROM users", Long.class);
+        jdbcTemplate.update("INSERT INTO users (id, email, password_hash, role) VALUES (?, ?, 'x', 'WRITER')",
+            userId, UUID.randomUUID() + "@example.com");
+    }
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM change_log WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM documents WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void shouldHoldTheWatermarkBelowAChangeThatCommitsLate() throws Exception {
+        Long late = document();
+        Long early = document();
+        long before = changeLog.watermark();
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> lateCommit = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                changeLog.changed(ChangeEntity.DOCUMENT, late);
+                logged.countDown();
+                await(release);
+            }));
+            assertTrue(logged.await(10, TimeUnit.SECONDS));
+            transactionTemplate.executeWithoutResult(status -> changeLog.changed(ChangeEntity.DOCUMENT, early));
+
+            long watermark = changeLog.watermark();
+            assertTrue(ids(before, watermark).isEmpty());
+
+            release.countDown();
+            lateCommit.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(Set.of(late, early), ids(before, changeLog.watermark()));
+    }
+
+    @Test
+    void shouldMovePastARolledBackSequenceNumber() {
+        Long id = document();
+        long before = changeLog.watermark();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            changeLog.changed(ChangeEntity.DOCUMENT, id);
+            status.setRollbackOnly();
+        });
+
+        long afterRollback = changeLog.watermark();
+        assertTrue(afterRollback > before);
+        assertTrue(ids(before, afterRollback).isEmpty());
+
+        changeLog.changed(ChangeEntity.DOCUMENT, id);
+        assertEquals(Set.of(id), ids(afterRollback, changeLog.watermark()));
+    }
+
+    @Test
+    void shouldPageSyncResultsByToken() {
+        Long first = document();
+        Long second = document();
+        Long third = document();
+        String token = Long.toString(changeLog.watermark());
+        changeLog.changed(ChangeEntity.DOCUMENT, first);
+        changeLog.changed(ChangeEntity.DOCUMENT, second);
+        changeLog.changed(ChangeEntity.DOCUMENT, third);
+
+        SyncResponse page = syncController.changes(userId, token, 2);
+        assertTrue(page.hasMore());
+        assertEquals(List.of(first, second), page.documents().stream().map(DocumentSummary::id).sorted().toList());
+
+        SyncResponse rest = syncController.changes(userId, page.token(), 2);
+        assertFalse(rest.hasMore());
+        assertEquals(List.of(third), rest.documents().stream().map(DocumentSummary::id).toList());
+        assertTrue(syncController.changes(userId, rest.token(), 2).documents().isEmpty());
+    }
+
+    private Set<Long> ids(long since, long upTo) {
+        return changeLog.changesSince(userId, since, upTo, 100).stream()
+            .map(ChangeLog.Change::id)
+            .collect(Collectors.toSet());
+    }
+
+    private Long document() {
+        jdbcTemplate.update("INSERT INTO documents (title, type, user_id) VALUES ('Synced', 'ARTICLE', ?)", userId);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM documents", Long.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class ChapterControllerTests {
+
+    @Autowired
+    private ChapterController chapterController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long documentId;
+
+    @BeforeEach
+    void createDocument() {
+        // The seeded user has an explicit id, so the identity column cannot be relied on here.
+        userId = jdbcTemplate.queryForObject("SELECT MAX(id) + 1 FROM users", Long.class);
+        jdbcTemplate.update("INSERT INTO users (id, email, password_hash, role) VALUES (?, ?, 'x', 'WRITER')",
+            userId, UUID.randomUUID() + "@example.com");
+        jdbcTemplate.update("INSERT INTO documents (title, type, user_id) VALUES ('Outline', 'BOOK', ?)", userId);
+        documentId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM documents", Long.class);
+    }
+
+    @AfterEach
+    void deleteDocument() {
+        jdbcTemplate.update("DELETE FROM change_log WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM documents WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void shouldGiveConcurrentAppendsDistinctRanks() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Chapter>> creates = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                creates.add(() -> chapterController.create(documentId, chapter(null)));
+            }
+            Set<Integer> positions = new HashSet<>();
+            for (Future<Chapter> created : executor.invokeAll(creates, 30, TimeUnit.SECONDS)) {
+                positions.add(created.get().getPosition());
+            }
+            assertEquals(16, positions.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldKeepAnExplicitPositionOfZero() {
+        chapterController.create(documentId, chapter(null));
+
+        assertEquals(0, chapterController.create(documentId, chapter(0)).getPosition());
+        assertEquals(0, chapterController.list(documentId).get(0).getPosition());
+    }
+
+    private static Chapter chapter(Integer position) {
+        Chapter chapter = new Chapter();
+        chapter.setTitle("Chapter");
+        chapter.setPosition(position);
+        return chapter;
+    }
+}
@@ -0,0 +1,75 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class CompressedTextConverterTests {
+
+    private static final String MANUSCRIPT = "<p>It was a dark and stormy night; the rain fell in torrents.</p>\n".repeat(200)
+        + "<p>Caf\u00E9, na\u00EFve, \u201Cquoted\u201D and \uD83D\uDCDA.</p>";
+
+    @Test
+    void shouldCompressLargeBodiesAndReadThemBack() {
+        CompressedTextConverter converter = new CompressedTextConverter(true, 2048);
+
+        byte[] stored = converter.convertToDatabaseColumn(MANUSCRIPT);
+
+        assertTrue(CompressedTextConverter.isCompressed(stored));
+        assertTrue(stored.length * 5 < MANUSCRIPT.length());
+        assertEquals(MANUSCRIPT, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void shouldStoreSmallBodiesAndDisabledModePlain() {
+        assertArrayEquals(utf8("<p>Short.</p>"), new CompressedTextConverter(true, 2048).convertToDatabaseColumn("<p>Short.</p>"));
+        assertArrayEquals(utf8(MANUSCRIPT), new CompressedTextConverter(false, 2048).convertToDatabaseColumn(MANUSCRIPT));
+        assertNull(new CompressedTextConverter(true, 0).convertToDatabaseColumn(null));
+    }
+
+    @Test
+    void shouldReadLegacyAndCompressedRowsInAnyMode() {
+        CompressedTextConverter disabled = new CompressedTextConverter(false, 2048);
+
+        assertEquals("<p>Legacy row.</p>", disabled.convertToEntityAttribute(utf8("<p>Legacy row.</p>")));
+        assertEquals(MANUSCRIPT, disabled.convertToEntityAttribute(CompressedTextConverter.compress(utf8(MANUSCRIPT))));
+        assertNull(disabled.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void shouldReadBase64RowsWrittenWhileTheColumnsWereText() {
+        byte[] deflated = CompressedTextConverter.compress(utf8(MANUSCRIPT));
+        byte[] raw = Arrays.copyOfRange(deflated, CompressedTextConverter.HEADER.length, deflated.length);
+        String legacy = CompressedTextConverter.LEGACY_MARKER + Base64.getEncoder().encodeToString(raw);
+
+        assertEquals(MANUSCRIPT, new CompressedTextConverter(false, 2048).convertToEntityAttribute(utf8(legacy)));
+    }
+
+    @Test
+    void shouldKeepTextPlainWhenDeflateDoesNotShrinkIt() {
+        CompressedTextConverter converter = new CompressedTextConverter(true, 0);
+
+        assertArrayEquals(utf8("<p>Hi.</p>"), converter.convertToDatabaseColumn("<p>Hi.</p>"));
+    }
+
+    @Test
+    void shouldEscapePlainTextThatLooksCompressed() {
+        CompressedTextConverter converter = new CompressedTextConverter(false, 2048);
+        String tricky = CompressedTextConverter.LEGACY_MARKER + "not really";
+
+        byte[] stored = converter.convertToDatabaseColumn(tricky);
+
+        assertTrue(CompressedTextConverter.isCompressed(stored));
+        assertEquals(tricky, converter.convertToEntityAttribute(stored));
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
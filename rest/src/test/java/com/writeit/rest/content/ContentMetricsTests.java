@@ -2,6 +2,7 @@ package com.writeit.rest.content;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class ContentMetricsTests {
@@ -18,4 +19,39 @@ class ContentMetricsTests {
         assertEquals(0, ContentMetrics.countWords("  \n  "));
         assertEquals(0, ContentMetrics.estimateReadingTimeMinutes(0));
     }
+
+    @Test
+    void shouldMatchWhitespaceSplitWordCounts() {
+        Random random = new Random(42);
+        char[] alphabet = {'a', 'b', '.', '<', '>', ' ', ' ', '\n', '\t', '\r', '\u00A0'};
+        for (int run = 0; run < 2000; run++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String content = text.toString();
+            int expected = content.isBlank() ? 0 : content.trim().split("\\s+").length;
+            assertEquals(expected, ContentMetrics.countWords(content), () -> "content: [" + content + "]");
+        }
+    }
+
+    @Test
+    void shouldCountSentencesAndParagraphsInPlainText() {
+        ContentMetrics.Summary summary = ContentMetrics.analyze("It rained. Did it stop? No!\n\nVersion 2.5 shipped today\n");
+
+        assertEquals(10, summary.words());
+        assertEquals(4, summary.sentences());
+        assertEquals(2, summary.paragraphs());
+        assertEquals(1, summary.readingTimeMinutes());
+    }
+
+    @Test
+    void shouldIgnoreMarkupForSentencesAndSplitParagraphsAtBlockTags() {
+        ContentMetrics.Summary summary = ContentMetrics.analyze("<h2>Intro</h2><p>First one.</p><p>Second <em>here</em></p>");
+
+        assertEquals(3, summary.sentences());
+        assertEquals(3, summary.paragraphs());
+        assertEquals(3, summary.words());
+        assertEquals(23 / 3.0, summary.averageWordLength(), 0.001);
+    }
 }
@@ -0,0 +1,51 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class ContentPatcherTests {
+
+    @Test
+    void shouldApplyOperationsInSequence() {
+        StringBuilder content = new StringBuilder("The quick fox");
+
+        assertEquals(1, ContentPatcher.apply(content, new TextOperation(TextOperationType.INSERT, 10, 0, "brown ")));
+        assertEquals(0, ContentPatcher.apply(content, new TextOperation(TextOperationType.REPLACE, 4, 5, "slow")));
+        assertEquals(-1, ContentPatcher.apply(content, new TextOperation(TextOperationType.DELETE, 0, 4, null)));
+
+        assertEquals("slow brown fox", content.toString());
+    }
+
+    @Test
+    void shouldTrackWordCountAcrossRandomEdits() {
+        Random random = new Random(7);
+        String alphabet = "ab  \n.";
+        StringBuilder content = new StringBuilder("alpha beta gamma\n\ndelta");
+        int words = ContentMetrics.countWords(content.toString());
+        for (int run = 0; run < 5000; run++) {
+            int offset = random.nextInt(content.length() + 1);
+            int length = random.nextInt(Math.min(6, content.length() - offset) + 1);
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(5); i > 0; i--) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            TextOperationType type = TextOperationType.values()[random.nextInt(3)];
+            words += ContentPatcher.apply(content, new TextOperation(type, offset, length, text.toString()));
+            assertEquals(ContentMetrics.countWords(content.toString()), words, content::toString);
+        }
+    }
+
+    @Test
+    void shouldRejectOperationsOutsideTheContent() {
+        StringBuilder content = new StringBuilder("short");
+
+        assertThrows(ResponseStatusException.class,
+            () -> ContentPatcher.apply(content, new TextOperation(TextOperationType.DELETE, 3, 5, null)));
+        assertThrows(ResponseStatusException.class,
+            () -> ContentPatcher.apply(content, new TextOperation(TextOperationType.INSERT, 6, 0, "x")));
+    }
+}
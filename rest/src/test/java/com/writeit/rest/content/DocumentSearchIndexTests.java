@@ -0,0 +1,111 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class DocumentSearchIndexTests {
+
+    private final DocumentSearchIndex index = new DocumentSearchIndex();
+
+    @Test
+    void shouldRankTitleMatchesAboveBodyMatches() {
+        index.indexDocument(document(1L, 7L, "Travel notes", "<p>A trip to the <b>mountains</b>.</p>"));
+        index.indexDocument(document(2L, 7L, "Mountains of Peru", "<p>Trail log</p>"));
+
+        assertEquals(List.of(2L, 1L), index.search(7L, "mountains", 10));
+    }
+
+    @Test
+    void shouldMatchLastTermAsPrefixAndRequireAllTerms() {
+        index.indexDocument(document(1L, 7L, "Spring guide", "writing java services"));
+        index.indexDocument(document(2L, 7L, "Java puzzles", "brain teasers"));
+
+        assertEquals(List.of(1L), index.search(7L, "java serv", 10));
+        assertEquals(2, index.search(7L, "ja", 10).size());
+    }
+
+    @Test
+    void shouldScopeResultsToOwnerAndIncludeSections() {
+        index.indexDocument(document(1L, 7L, "Novel", ""));
+        index.indexDocument(document(2L, 8L, "Dragon diaries", ""));
+        Section section = new Section();
+        section.setId(11L);
+        section.setTitle("Chapter one");
+        section.setContent("The dragon woke up.");
+        index.indexSection(1L, section);
+
+        assertEquals(List.of(1L), index.search(7L, "dragon", 10));
+    }
+
+    @Test
+    void shouldPostSectionsUnderTheirDocumentsCurrentOwner() {
+        Section section = new Section();
+        section.setId(11L);
+        section.setTitle("Prologue");
+        section.setContent("The lighthouse keeper.");
+        index.indexSection(1L, section);
+        assertTrue(index.search(7L, "lighthouse", 10).isEmpty());
+
+        index.indexDocument(document(1L, 7L, "Novel", ""));
+        assertEquals(List.of(1L), index.search(7L, "lighthouse", 10));
+
+        index.indexDocument(document(1L, 8L, "Novel", ""));
+        assertTrue(index.search(7L, "lighthouse", 10).isEmpty());
+        assertEquals(List.of(1L), index.search(8L, "lighthouse", 10));
+    }
+
+    @Test
+    void shouldNotExpandSingleCharacterPrefixes() {
+        index.indexDocument(document(1L, 7L, "Jam", "jelly"));
+
+        assertTrue(index.search(7L, "j", 10).isEmpty());
+        assertEquals(List.of(1L), index.search(7L, "jam j", 10));
+    }
+
+    @Test
+    void shouldForgetReplacedAndRemovedContent() {
+        index.indexDocument(document(1L, 7L, "Draft", "obsolete paragraph"));
+        index.indexDocument(document(1L, 7L, "Draft", "fresh paragraph"));
+        assertTrue(index.search(7L, "obsolete", 10).isEmpty());
+
+        index.removeDocument(1L);
+        assertTrue(index.search(7L, "fresh", 10).isEmpty());
+    }
+
+    @Test
+    void shouldOnlyApplyTransactionalChangesOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.indexDocument(document(1L, 7L, "Draft", "committed text"));
+            assertTrue(index.search(7L, "committed", 10).isEmpty());
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(1L), index.search(7L, "committed", 10));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.indexDocument(document(2L, 7L, "Draft", "rolled back text"));
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(index.search(7L, "rolled", 10).isEmpty());
+    }
+
+    private Document document(Long id, Long userId, String title, String content) {
+        Document document = new Document();
+        document.setId(id);
+        document.setUserId(userId);
+        document.setTitle(title);
+        document.setContent(content);
+        return document;
+    }
+}
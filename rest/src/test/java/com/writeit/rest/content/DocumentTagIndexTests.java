@@ -0,0 +1,98 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DocumentTagIndexTests {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void shouldNormalizeTagField() {
+        assertEquals(Set.of("java", "spring boot", "seo"), DocumentTagIndex.parseTags(" Java, #Spring   Boot ,,seo, JAVA"));
+        assertTrue(DocumentTagIndex.parseTags("  ").isEmpty());
+    }
+
+    @Test
+    void shouldMatchWholeTagsWithAndOrFilters() {
+        DocumentTagIndex index = new DocumentTagIndex();
+        index.put(1L, 7L, DocumentTagIndex.parseTags("java, spring"), "Technology", NOW.plusSeconds(1));
+        index.put(2L, 7L, DocumentTagIndex.parseTags("javascript"), "Technology", NOW.plusSeconds(2));
+        index.put(3L, 7L, DocumentTagIndex.parseTags("java, writing"), "Craft", NOW.plusSeconds(3));
+        index.put(4L, 8L, DocumentTagIndex.parseTags("java"), null, NOW.plusSeconds(4));
+
+        assertEquals(List.of(3L, 1L), index.find(7L, TagFilter.of(List.of("java"), null, null), null, 10));
+        assertEquals(List.of(1L), index.find(7L, TagFilter.of(List.of("java", "spring"), null, null), null, 10));
+        assertEquals(List.of(3L, 2L, 1L), index.find(7L, TagFilter.of(null, List.of("java", "javascript"), null), null, 10));
+        assertEquals(List.of(1L), index.find(7L, TagFilter.of(List.of("java"), null, "technology"), null, 10));
+        assertEquals(List.of(), index.find(7L, TagFilter.of(List.of("missing"), null, null), null, 10));
+    }
+
+    @Test
+    void shouldCountFacetsWithinFilter() {
+        DocumentTagIndex index = new DocumentTagIndex();
+        index.put(1L, 7L, DocumentTagIndex.parseTags("java, spring"), "Technology", NOW);
+        index.put(2L, 7L, DocumentTagIndex.parseTags("java"), "Technology", NOW);
+        index.put(3L, 7L, DocumentTagIndex.parseTags("poetry"), "Craft", NOW);
+
+        TagFacets all = index.facets(7L, TagFilter.of(null, null, null));
+        assertEquals(3, all.total());
+        assertEquals(List.of(new TagFacets.Count("java", 2), new TagFacets.Count("poetry", 1), new TagFacets.Count("spring", 1)), all.tags());
+        assertEquals(List.of(new TagFacets.Count("Technology", 2), new TagFacets.Count("Craft", 1)), all.categories());
+
+        TagFacets java = index.facets(7L, TagFilter.of(List.of("java"), null, null));
+        assertEquals(2, java.total());
+        assertEquals(List.of(new TagFacets.Count("Technology", 2)), java.categories());
+    }
+
+    @Test
+    void shouldUpdateAndRemoveDocuments() {
+        DocumentTagIndex index = new DocumentTagIndex();
+        index.put(1L, 7L, DocumentTagIndex.parseTags("java"), null, NOW);
+        index.put(1L, 7L, DocumentTagIndex.parseTags("kotlin"), null, NOW);
+        index.put(2L, 7L, DocumentTagIndex.parseTags("java"), null, NOW);
+        index.remove(2L);
+        index.put(3L, 7L, DocumentTagIndex.parseTags("go"), null, NOW);
+
+        assertEquals(List.of(), index.find(7L, TagFilter.of(List.of("java"), null, null), null, 10));
+        assertEquals(List.of(1L), index.find(7L, TagFilter.of(List.of("kotlin"), null, null), null, 10));
+        assertEquals(List.of(3L), index.find(7L, TagFilter.of(List.of("go"), null, null), null, 10));
+        assertEquals(2, index.facets(7L, TagFilter.of(null, null, null)).total());
+        assertEquals(Set.of("kotlin"), index.tags(1L));
+        assertNull(index.tags(2L));
+    }
+
+    @Test
+    void shouldPageNewestFirstAcrossManyDocuments() {
+        DocumentTagIndex index = new DocumentTagIndex();
+        String[] tags = {"fiction", "essay", "draft", "seo", "java", "poetry", "travel", "food"};
+        int documents = 50_000;
+        for (int i = 1; i <= documents; i++) {
+            index.put((long) i, 7L, List.of(tags[i % tags.length], tags[(i / 3) % tags.length]), i % 2 == 0 ? "Even" : "Odd",
+                NOW.plusSeconds(i));
+        }
+        TagFilter filter = TagFilter.of(List.of("fiction"), List.of("essay", "draft"), null);
+        for (int warmup = 0; warmup < 200; warmup++) {
+            index.find(7L, filter, null, 21);
+            index.facets(7L, filter);
+        }
+
+        long started = System.nanoTime();
+        List<Long> first = index.find(7L, filter, null, 21);
+        TagFacets facets = index.facets(7L, filter);
+        long elapsedMicros = (System.nanoTime() - started) / 1_000;
+
+        assertEquals(21, first.size());
+        Long last = first.get(19);
+        List<Long> second = index.find(7L, filter, new PageCursor(NOW.plusSeconds(last), last), 21);
+        assertEquals(first.get(20), second.get(0));
+        assertTrue(facets.total() > 0);
+        assertTrue(elapsedMicros < 5_000, () -> "Filter and facets took " + elapsedMicros + " us");
+    }
+}
@@ -0,0 +1,32 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class EpubExportWriterTests {
+
+    private static final String KEY = "a".repeat(64);
+    private static final String MISSING = "b".repeat(64);
+
+    @Test
+    void shouldPointStoredImagesAtPackagedCopies() {
+        Map<String, EpubExportWriter.PackagedMedia> packaged = Map.of(KEY,
+            new EpubExportWriter.PackagedMedia("media-0001", "media/" + KEY + ".png", "image/png", Path.of("unused")));
+
+        String xhtml = EpubExportWriter.packageImages(
+            "<p><img alt=\"Map\" src=\"/api/v1/media/" + KEY + "/display\"/></p>", packaged);
+
+        assertEquals("<p><img alt=\"Map\" src=\"media/" + KEY + ".png\"/></p>", xhtml);
+    }
+
+    @Test
+    void shouldReplaceImagesThatCannotBePackagedByTheirAltText() {
+        String xhtml = EpubExportWriter.packageImages(
+            "<p>See <img src=\"/api/v1/media/" + MISSING + "\" alt=\"the map\"/>.</p>", Map.of());
+
+        assertEquals("<p>See the map.</p>", xhtml);
+    }
+}
@@ -0,0 +1,36 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HtmlSanitizerTests {
+
+    @Test
+    void shouldDropActiveElementsWithTheirContent() {
+        assertEquals("<p>Hello world</p>", HtmlSanitizer.sanitize(
+            "<p>Hello<script>alert('x')</script> <SCRIPT/>steal()</script>world<!-- note --></p><style>p{}</style>"));
+    }
+
+    @Test
+    void shouldKeepAllowedAttributesAndDropHandlersAndScriptUrls() {
+        assertEquals("<p><a href=\"https://example.org/?a=1&#38;b=2\">ok</a> <a>bad</a> <img src=\"/api/v1/media/x\" alt=\"x\"/>"
+                + " <b>unwrapped</b></p>",
+            HtmlSanitizer.sanitize("<p onclick=\"go()\"><a href='https://example.org/?a=1&amp;b=2' target=_blank>ok</a> "
+                + "<a href=\"jav&#x09;ascript:alert(1)\">bad</a> <img src=\"/api/v1/media/x\" onerror=\"x()\" alt=\"x\"/>"
+                + " <font color=red><b>unwrapped</b></font></p>"));
+    }
+
+    @Test
+    void shouldAcceptOnlyRelativeAndWebUrls() {
+        assertTrue(HtmlSanitizer.isSafeUrl("chapter-2.xhtml#top", false));
+        assertTrue(HtmlSanitizer.isSafeUrl("/a:b", false));
+        assertTrue(HtmlSanitizer.isSafeUrl("HTTPS://example.org", false));
+        assertTrue(HtmlSanitizer.isSafeUrl("mailto:me@example.org", true));
+        assertFalse(HtmlSanitizer.isSafeUrl("mailto:me@example.org", false));
+        assertFalse(HtmlSanitizer.isSafeUrl(" java\nscript:alert(1)", true));
+        assertFalse(HtmlSanitizer.isSafeUrl("data:text/html;base64,PHNjcmlwdD4=", true));
+    }
+}
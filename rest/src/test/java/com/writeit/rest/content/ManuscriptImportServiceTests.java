@@ -0,0 +1,79 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ManuscriptImportServiceTests {
+
+    @Test
+    void shouldSplitChapterAtSecondLevelHeadings() {
+        String markdown = "# The Harbor\n\nOpening lines.\n\n## Dawn\n\nNets.\n\n```\n## not a heading\n```\n\n## Dusk\n\nLanterns.\n";
+
+        List<ManuscriptImportService.ParsedSection> sections = ManuscriptImportService.split(markdown, "fallback");
+
+        assertEquals(3, sections.size());
+        assertEquals("The Harbor", sections.get(0).chapterTitle());
+        assertEquals(List.of("The Harbor", "Dawn", "Dusk"), sections.stream().map(ManuscriptImportService.ParsedSection::title).toList());
+        assertEquals("\nOpening lines.\n\n", sections.get(0).markdown());
+        assertTrue(sections.get(1).markdown().contains("## not a heading"));
+    }
+
+    @Test
+    void shouldFallBackToFileNameForTitle() {
+        assertEquals("Chapter three", ManuscriptImportService.split("Text only.", "Chapter three").get(0).chapterTitle());
+        assertEquals("The long night", ManuscriptImportService.titleFromPath("book/03_the-long-night.md"));
+        assertEquals("2024", ManuscriptImportService.titleFromPath("2024.md"));
+    }
+
+    @Test
+    void shouldAcceptOnlyVisibleMarkdownFiles() {
+        assertTrue(ManuscriptImportService.isManuscriptFile("book/01-intro.md"));
+        assertTrue(ManuscriptImportService.isManuscriptFile("notes.TXT"));
+        assertFalse(ManuscriptImportService.isManuscriptFile("book/cover.png"));
+        assertFalse(ManuscriptImportService.isManuscriptFile("__MACOSX/book/._01-intro.md"));
+        assertFalse(ManuscriptImportService.isManuscriptFile("book/.draft.md"));
+    }
+
+    @Test
+    void shouldSortPathsNaturally() {
+        List<String> paths = new ArrayList<>(List.of("book/10-end.md", "book/part/1.md", "book/2-middle.md", "book/01-start.md"));
+
+        paths.sort(ManuscriptImportService::comparePaths);
+
+        assertEquals(List.of("book/01-start.md", "book/2-middle.md", "book/10-end.md", "book/part/1.md"), paths);
+    }
+
+    @Test
+    void shouldRerankOnlyChaptersThatArrivedOutOfOrder() {
+        List<ManuscriptImportService.ImportedChapter> chapters = List.of(
+            new ManuscriptImportService.ImportedChapter(1L, "a/1.md", 1024),
+            new ManuscriptImportService.ImportedChapter(2L, "a/3.md", 2048),
+            new ManuscriptImportService.ImportedChapter(3L, "a/2.md", 3072),
+            new ManuscriptImportService.ImportedChapter(4L, "a/4.md", 4096));
+
+        assertEquals(Map.of(2L, 3072, 3L, 2048), ManuscriptImportService.misplacedChapters(chapters));
+    }
+
+    @Test
+    void shouldSpoolUploadToTemporaryFile() throws IOException {
+        byte[] body = "zip bytes".getBytes(StandardCharsets.UTF_8);
+
+        Path spooled = ManuscriptImportService.spool(new ByteArrayInputStream(body));
+        try {
+            assertEquals("zip bytes", Files.readString(spooled));
+        } finally {
+            Files.delete(spooled);
+        }
+    }
+}
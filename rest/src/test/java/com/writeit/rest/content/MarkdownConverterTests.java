@@ -0,0 +1,69 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class MarkdownConverterTests {
+
+    @Test
+    void shouldConvertBlocks() {
+        String markdown = """
+            # Title
+
+            First line
+            continues here.
+
+            - one
+            - two
+
+            1. first
+            2. second
+
+            > quoted
+            > text
+
+            ---
+            ```java
+            if (a < b) {}
+            ```
+            """;
+
+        assertEquals("""
+            <h1>Title</h1>
+            <p>First line continues here.</p>
+            <ul>
+            <li>one</li>
+            <li>two</li>
+            </ul>
+            <ol>
+            <li>first</li>
+            <li>second</li>
+            </ol>
+            <blockquote>
+            <p>quoted text</p>
+            </blockquote>
+            <hr>
+            <pre><code class="language-java">if (a &lt; b) {}</code></pre>""", MarkdownConverter.toHtml(markdown));
+    }
+
+    @Test
+    void shouldConvertInlineMarkupAndEscapeHtml() {
+        assertEquals("<p><strong>Bold</strong>, <em>em</em>, <code>&lt;b&gt;</code>, "
+                + "<a href=\"https://example.org\">a <em>link</em></a> and <img src=\"cover.png\" alt=\"Cover\"> "
+                + "&lt;script&gt; snake_case_name</p>",
+            MarkdownConverter.toHtml("**Bold**, *em*, `<b>`, [a _link_](https://example.org \"t\") and ![Cover](cover.png) "
+                + "<script> snake_case_name"));
+    }
+
+    @Test
+    void shouldKeepHardLineBreaks() {
+        assertEquals("<p>Roses are red,<br>violets are blue.</p>", MarkdownConverter.toHtml("Roses are red,  \nviolets are blue."));
+    }
+
+    @Test
+    void shouldDropScriptUrls() {
+        assertEquals("<p>click and pic</p>",
+            MarkdownConverter.toHtml("[click](javascript:alert%281%29) and ![pic](JavaScript:void)"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class MediaContentControllerTests {
+
+    @Test
+    void shouldOnlyServeMediaTypesInline() {
+        assertEquals("image/png", MediaContentController.inlineType("image/png"));
+        assertEquals("video/mp4", MediaContentController.inlineType(" Video/MP4; codecs=avc1"));
+        assertNull(MediaContentController.inlineType("text/html"));
+        assertNull(MediaContentController.inlineType("image/svg+xml"));
+        assertNull(MediaContentController.inlineType("application/octet-stream"));
+        assertNull(MediaContentController.inlineType(null));
+    }
+}
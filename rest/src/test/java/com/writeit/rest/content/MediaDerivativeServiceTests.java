@@ -0,0 +1,91 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class MediaDerivativeServiceTests {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void shouldWriteDownscaledVariantsNextToTheOriginal() throws IOException {
+        MediaStore store = new MediaStore(root.toString(), DataSize.ofMegabytes(10));
+        MediaDerivativeService service = new MediaDerivativeService(store, 1, 4, 50_000_000);
+        String key = store.store(new ByteArrayInputStream(image(2400, 1600, BufferedImage.TYPE_INT_RGB, "jpg"))).key();
+
+        service.generate(key);
+
+        BufferedImage thumbnail = ImageIO.read(service.find(key, MediaVariant.THUMBNAIL).orElseThrow().toFile());
+        BufferedImage display = ImageIO.read(service.find(key, MediaVariant.DISPLAY).orElseThrow().toFile());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(213, thumbnail.getHeight());
+        assertEquals(1024, display.getWidth());
+        assertEquals(683, display.getHeight());
+        assertEquals(store.find(key).orElseThrow().getParent(), service.find(key, MediaVariant.DISPLAY).orElseThrow().getParent());
+        assertEquals("image/jpeg", MediaDerivativeService.variantType(service.find(key, MediaVariant.DISPLAY).orElseThrow(), "image/webp"));
+        service.shutdown();
+    }
+
+    @Test
+    void shouldKeepTransparencyAndReuseSmallOriginals() throws IOException {
+        MediaStore store = new MediaStore(root.toString(), DataSize.ofMegabytes(10));
+        MediaDerivativeService service = new MediaDerivativeService(store, 1, 4, 50_000_000);
+        byte[] logo = image(600, 300, BufferedImage.TYPE_INT_ARGB, "png");
+        String key = store.store(new ByteArrayInputStream(logo)).key();
+
+        service.generate(key);
+
+        BufferedImage thumbnail = ImageIO.read(service.find(key, MediaVariant.THUMBNAIL).orElseThrow().toFile());
+        assertTrue(thumbnail.getColorModel().hasAlpha());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(logo.length, Files.size(service.find(key, MediaVariant.DISPLAY).orElseThrow()));
+        assertEquals("image/png", MediaDerivativeService.variantType(service.find(key, MediaVariant.THUMBNAIL).orElseThrow(), "image/gif"));
+        service.shutdown();
+    }
+
+    @Test
+    void shouldSkipFilesThatAreNotImages() throws IOException {
+        MediaStore store = new MediaStore(root.toString(), DataSize.ofMegabytes(10));
+        MediaDerivativeService service = new MediaDerivativeService(store, 1, 4, 50_000_000);
+        String key = store.store(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})).key();
+
+        service.generate(key);
+
+        assertTrue(service.find(key, MediaVariant.THUMBNAIL).isEmpty());
+        service.shutdown();
+    }
+
+    @Test
+    void shouldPointStoredImagesAtAVariant() {
+        String key = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+        String html = "<p><img alt=\"a\" src=\"/api/v1/media/" + key + "\"/> <img src=\"https://example.com/x.png\"/></p>";
+
+        assertEquals("<p><img alt=\"a\" src=\"/api/v1/media/" + key + "/display\"/> <img src=\"https://example.com/x.png\"/></p>",
+            MediaVariant.DISPLAY.rewriteImages(html));
+    }
+
+    private static byte[] image(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(200, 40, 40, 160));
+        graphics.fillOval(width / 4, height / 4, width / 2, height / 2);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+class MediaStoreTests {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void shouldStoreUploadsUnderTheirSha256() throws IOException {
+        MediaStore store = new MediaStore(root.toString(), DataSize.ofMegabytes(1));
+        byte[] bytes = "hello".getBytes(StandardCharsets.UTF_8);
+
+        MediaStore.StoredMedia stored = store.store(new ByteArrayInputStream(bytes));
+
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", stored.key());
+        assertEquals(5, stored.size());
+        Path file = store.find(stored.key()).orElseThrow();
+        assertEquals(root.resolve("2c").resolve("f2").resolve(stored.key()), file);
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    @Test
+    void shouldShareOneObjectForIdenticalUploads() throws IOException {
+        MediaStore store = new MediaStore(root.toString(), DataSize.ofMegabytes(1));
+
+        String first = store.store(new ByteArrayInputStream(new byte[] {1, 2, 3})).key();
+        String second = store.store(new ByteArrayInputStream(new byte[] {1, 2, 3})).key();
+
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void shouldRejectOversizedUploadsAndLeaveNothingBehind() throws IOException {
+        MediaStore store = new MediaStore(root.toString(), DataSize.ofBytes(1024));
+
+        assertThrows(ResponseStatusException.class, () -> store.store(new ByteArrayInputStream(new byte[1025])));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void shouldOnlyResolveWellFormedKeys() {
+        MediaStore store = new MediaStore(root.toString(), DataSize.ofMegabytes(1));
+
+        assertTrue(store.find("../../etc/passwd").isEmpty());
+        assertTrue(store.find("2CF24DBA5FB0A30E26E83B2AC5B9E29E1B161E5C1FA7425E73043362938B9824").isEmpty());
+        assertTrue(store.find("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824").isEmpty());
+    }
+
+    @Test
+    void shouldParseSingleByteRanges() {
+        assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=0-99", 1000));
+        assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=900-", 1000));
+        assertEquals(new ByteRange(990, 999), ByteRange.parse("bytes=-10", 1000));
+        assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", 1000));
+        assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-5000", 1000));
+        assertEquals(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertEquals(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("bytes=0-1,5-6", 1000));
+        assertNull(ByteRange.parse("bytes=9-3", 1000));
+        assertNull(ByteRange.parse("items=0-1", 1000));
+    }
+}
@@ -0,0 +1,189 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class OperationalTransformTests {
+
+    @Test
+    void concurrentInsertsAtTheSameOffsetKeepServerOrder() {
+        List<TextOperation> server = List.of(insert(5, " there"));
+        List<TextOperation> client = List.of(insert(5, " world"));
+
+        String merged = apply(apply("Hello", server), OperationalTransform.transform(client, server));
+
+        assertEquals("Hello there world", merged);
+    }
+
+    @Test
+    void deleteAroundAConcurrentInsertKeepsTheInsertedText() {
+        List<TextOperation> server = List.of(insert(4, "big "));
+        List<TextOperation> client = List.of(delete(2, 6));
+
+        String merged = apply(apply("a small dog", server), OperationalTransform.transform(client, server));
+
+        assertEquals("a big dog", merged);
+    }
+
+    @Test
+    void overlappingDeletesRemoveTheUnionOnce() {
+        List<TextOperation> server = List.of(delete(2, 4));
+        List<TextOperation> client = List.of(delete(4, 4));
+
+        String merged = apply(apply("0123456789", server), OperationalTransform.transform(client, server));
+
+        assertEquals("0189", merged);
+    }
+
+    @Test
+    void replaceIsSplitIntoDeleteAndInsert() {
+        List<TextOperation> operations = OperationalTransform.normalize(
+            List.of(new TextOperation(TextOperationType.REPLACE, 0, 5, "Howdy")));
+
+        assertEquals(List.of(delete(0, 5), insert(0, "Howdy")), operations);
+    }
+
+    @Test
+    void validateRejectsOperationsOutsideTheContent() {
+        assertThrows(ResponseStatusException.class,
+            () -> OperationalTransform.validate(List.of(insert(0, "ab"), delete(1, 5)), 3));
+    }
+
+    @Test
+    void randomConcurrentEditsConverge() {
+        Random random = new Random(42);
+        for (int round = 0; round < 2000; round++) {
+            String base = randomText(random, random.nextInt(20));
+            List<TextOperation> server = randomOperations(random, base);
+            List<TextOperation> client = randomOperations(random, base);
+
+            List<List<TextOperation>> rebased = OperationalTransform.transformPair(client, server);
+            String serverFirst = apply(apply(base, server), rebased.get(0));
+            String clientFirst = apply(apply(base, client), rebased.get(1));
+
+            assertEquals(serverFirst, clientFirst, "base=" + base + " server=" + server + " client=" + client);
+        }
+    }
+
+    @Test
+    void sessionRebasesEditsWrittenAgainstAnOlderRevision() {
+        CollaborationSession session = new CollaborationSession(
+            new CollaborationService.Target(CollaborationService.Kind.DOCUMENT, 1L), "one three", 2, 10);
+
+        session.apply(0, List.of(insert(0, "zero ")));
+        CollaborationSession.Applied applied = session.apply(0, List.of(insert(3, " two")));
+
+        assertEquals(2, applied.revision());
+        assertEquals(List.of(insert(8, " two")), applied.operations());
+        assertEquals("zero one two three", session.content());
+        assertEquals(4, session.takePending().wordCount());
+        assertThrows(ResponseStatusException.class, () -> session.apply(3, List.of(insert(0, "x"))));
+    }
+
+    @Test
+    void diffTurnsOneTextIntoTheOther() {
+        assertEquals(List.of(delete(2, 1), insert(2, "XY")), OperationalTransform.diff("abcde", "abXYde"));
+        assertEquals(List.of(), OperationalTransform.diff("same", "same"));
+        assertEquals(List.of(insert(0, "new")), OperationalTransform.diff("", "new"));
+        assertEquals("aaXa", apply("aaa", OperationalTransform.diff("aaa", "aaXa")));
+    }
+
+    @Test
+    void sessionRebasesTextStoredElsewhereOverUnsavedEdits() {
+        CollaborationSession session = new CollaborationSession(
+            new CollaborationService.Target(CollaborationService.Kind.DOCUMENT, 1L), "one three", 2, 10);
+        session.apply(0, List.of(insert(3, " two")));
+        CollaborationSession.Pending pending = session.takePending();
+        assertEquals("one three", pending.saved());
+
+        session.mergeExternal("one three four");
+
+        assertEquals("one two three four", session.content());
+        CollaborationSession.Pending merged = session.takePending();
+        assertEquals("one three four", merged.saved());
+        assertThrows(ResponseStatusException.class, () -> session.mergeExternal("other"));
+        session.markSaved(merged);
+        session.apply(2, List.of(insert(0, "zero ")));
+        session.mergeExternal("one two three four five");
+        assertEquals("zero one two three four five", session.content());
+    }
+
+    @Test
+    void sessionResetDropsUnsavedEdits() {
+        CollaborationSession session = new CollaborationSession(
+            new CollaborationService.Target(CollaborationService.Kind.SECTION, 1L), "draft", 1, 10);
+        session.apply(0, List.of(insert(5, " text")));
+
+        session.reset("stored elsewhere");
+
+        assertEquals("stored elsewhere", session.content());
+        assertEquals(2, session.revision());
+        assertEquals(null, session.takePending());
+        assertThrows(ResponseStatusException.class, () -> session.apply(1, List.of(insert(0, "x"))));
+    }
+
+    @Test
+    void sessionClosesOnlyOnceItsEditsAreStored() {
+        CollaborationSession session = new CollaborationSession(
+            new CollaborationService.Target(CollaborationService.Kind.DOCUMENT, 1L), "draft", 1, 10);
+        session.apply(0, List.of(insert(5, " text")));
+
+        assertFalse(session.closeIfIdle());
+        CollaborationSession.Pending pending = session.takePending();
+        session.markDirty();
+        assertFalse(session.closeIfIdle());
+        session.takePending();
+        session.markSaved(pending);
+
+        assertTrue(session.closeIfIdle());
+        assertFalse(session.addEditor(null));
+    }
+
+    private static List<TextOperation> randomOperations(Random random, String base) {
+        List<TextOperation> operations = new ArrayList<>();
+        int length = base.length();
+        for (int i = random.nextInt(3) + 1; i > 0; i--) {
+            int offset = random.nextInt(length + 1);
+            if (random.nextBoolean() && offset < length) {
+                int removed = 1 + random.nextInt(length - offset);
+                operations.add(delete(offset, removed));
+                length -= removed;
+            } else {
+                String text = randomText(random, 1 + random.nextInt(3));
+                operations.add(insert(offset, text));
+                length += text.length();
+            }
+        }
+        return operations;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+
+    private static String apply(String content, List<TextOperation> operations) {
+        StringBuilder text = new StringBuilder(content);
+        operations.forEach(operation -> ContentPatcher.apply(text, operation));
+        return text.toString();
+    }
+
+    private static TextOperation insert(int offset, String text) {
+        return new TextOperation(TextOperationType.INSERT, offset, text.length(), text);
+    }
+
+    private static TextOperation delete(int offset, int length) {
+        return new TextOperation(TextOperationType.DELETE, offset, length, null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OutlineOrderingTests {
+
+    @Test
+    void shouldMoveSingleRowBetweenSparseNeighbours() {
+        long[] ids = {1, 2, 3, 4};
+        int[] positions = {1024, 2048, 3072, 4096};
+
+        OutlineOrdering.Placement toFront = OutlineOrdering.place(ids, positions, 4L, null);
+        assertEquals(512, toFront.position());
+        assertEquals(Map.of(4L, 512), toFront.changes());
+
+        OutlineOrdering.Placement afterFirst = OutlineOrdering.place(ids, positions, 4L, 1L);
+        assertEquals(1536, afterFirst.position());
+        assertEquals(Map.of(4L, 1536), afterFirst.changes());
+
+        OutlineOrdering.Placement toEnd = OutlineOrdering.place(ids, positions, 1L, 4L);
+        assertEquals(Map.of(1L, 5120), toEnd.changes());
+    }
+
+    @Test
+    void shouldAppendNewRowAfterLast() {
+        OutlineOrdering.Placement empty = OutlineOrdering.place(new long[0], new int[0], null, null);
+        assertEquals(OutlineOrdering.GAP, empty.position());
+        assertTrue(empty.changes().isEmpty());
+
+        OutlineOrdering.Placement last = OutlineOrdering.place(new long[] {7, 8}, new int[] {1024, 2048}, null, 8L);
+        assertEquals(3072, last.position());
+        assertTrue(last.changes().isEmpty());
+    }
+
+    @Test
+    void shouldRebalanceDenseLegacyPositionsOnlyWhenNeeded() {
+        long[] ids = {1, 2, 3};
+        int[] positions = {0, 1, 2};
+
+        OutlineOrdering.Placement placement = OutlineOrdering.place(ids, positions, 3L, 1L);
+
+        assertEquals(2048, placement.position());
+        assertEquals(Map.of(1L, 1024, 3L, 2048, 2L, 3072), placement.changes());
+    }
+
+    @Test
+    void shouldWriteOneRowPerDragUntilGapIsExhausted() {
+        int count = 200;
+        long[] ids = new long[count];
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            positions[i] = (i + 1) * OutlineOrdering.GAP;
+        }
+
+        for (int drag = 1; drag <= 10; drag++) {
+            OutlineOrdering.Placement placement = OutlineOrdering.place(ids, positions, ids[count - 1], null);
+            assertEquals(1, placement.changes().size());
+            apply(ids, positions, placement.changes());
+        }
+
+        OutlineOrdering.Placement rebalance = OutlineOrdering.place(ids, positions, ids[count - 1], null);
+        assertEquals(OutlineOrdering.GAP, rebalance.position());
+        assertEquals(count, rebalance.changes().size());
+    }
+
+    private static void apply(long[] ids, int[] positions, Map<Long, Integer> changes) {
+        for (int i = 0; i < ids.length; i++) {
+            Integer position = changes.get(ids[i]);
+            if (position != null) {
+                positions[i] = position;
+            }
+        }
+        for (int i = 1; i < ids.length; i++) {
+            for (int j = i; j > 0 && positions[j - 1] > positions[j]; j--) {
+                int position = positions[j];
+                positions[j] = positions[j - 1];
+                positions[j - 1] = position;
+                long id = ids[j];
+                ids[j] = ids[j - 1];
+                ids[j - 1] = id;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PdfBookRendererTests {
+
+    @Test
+    void shouldWriteXrefOffsetsPointingAtEachObject() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfBookRenderer renderer = new PdfBookRenderer(out);
+        renderer.titlePage("A (small) book");
+        renderer.chapter("One");
+        renderer.section("Start");
+        renderer.body("<p>Hello <b>world</b> &amp; friends.</p>");
+        int pages = renderer.finish("A (small) book");
+
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+        assertEquals(2, pages);
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+        assertTrue(pdf.contains("/Count 2 "));
+
+        int startxref = Integer.parseInt(pdf.substring(pdf.lastIndexOf("startxref\n") + 10, pdf.lastIndexOf("\n%%EOF")));
+        assertTrue(pdf.startsWith("xref\n", startxref));
+        String[] header = pdf.substring(startxref).split("\n", 4);
+        int size = Integer.parseInt(header[1].split(" ")[1]);
+        for (int object = 1; object < size; object++) {
+            int entry = startxref + header[0].length() + header[1].length() + 2 + object * 20;
+            int offset = Integer.parseInt(pdf.substring(entry, entry + 10));
+            assertTrue(pdf.startsWith(object + " 0 obj\n", offset), "object " + object);
+        }
+    }
+
+    @Test
+    void shouldBreakLinesWithinTextWidth() {
+        String text = "The quick brown fox jumps over the lazy dog and keeps running far beyond the fence. ".repeat(12).strip();
+        int[] ends = PdfBookRenderer.lineEnds(text, PdfFont.TIMES_ROMAN, 11, PdfBookRenderer.TEXT_WIDTH);
+
+        assertTrue(ends.length > 5);
+        assertEquals(text.length(), ends[ends.length - 1]);
+        int start = 0;
+        for (int end : ends) {
+            float width = PdfFont.TIMES_ROMAN.width(text, start, end) * 11 / 1000f;
+            assertTrue(width <= PdfBookRenderer.TEXT_WIDTH, "line too wide: " + width);
+            assertTrue(text.charAt(end - 1) != ' ');
+            start = end + 1;
+        }
+        assertEquals(ends, PdfBookRenderer.lineEnds(text, PdfFont.TIMES_ROMAN, 11, PdfBookRenderer.TEXT_WIDTH));
+    }
+
+    @Test
+    void shouldNotCacheLongParagraphs() {
+        String text = "An unbroken plain-text manuscript line. ".repeat(100).strip();
+        int[] ends = PdfBookRenderer.lineEnds(text, PdfFont.TIMES_ROMAN, 11, PdfBookRenderer.TEXT_WIDTH);
+
+        assertNotSame(ends, PdfBookRenderer.lineEnds(text, PdfFont.TIMES_ROMAN, 11, PdfBookRenderer.TEXT_WIDTH));
+        assertEquals(text.length(), ends[ends.length - 1]);
+    }
+
+    @Test
+    void shouldSplitWordsWiderThanALine() {
+        String word = "x".repeat(200);
+        int[] ends = PdfBookRenderer.lineEnds(word, PdfFont.HELVETICA_BOLD, 18, PdfBookRenderer.TEXT_WIDTH);
+
+        assertTrue(ends.length > 1);
+        assertEquals(word.length(), ends[ends.length - 1]);
+    }
+
+    @Test
+    void shouldSplitHtmlIntoParagraphs() {
+        List<PdfBookRenderer.Block> blocks = PdfBookRenderer.blocks(
+            "<h2>Intro</h2><p>One&nbsp;<em>two</em>\n  three</p><ul><li>Item</li></ul>");
+
+        assertEquals(List.of(
+            new PdfBookRenderer.Block("Intro", true),
+            new PdfBookRenderer.Block("One\u00A0two three", false),
+            new PdfBookRenderer.Block("\u2022 Item", false)), blocks);
+    }
+
+    @Test
+    void shouldSplitPlainTextAtBlankLines() {
+        assertEquals(List.of(new PdfBookRenderer.Block("First line continues", false),
+                new PdfBookRenderer.Block("Second", false)),
+            PdfBookRenderer.blocks("First line\ncontinues\n\nSecond"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.writeit.rest.content;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Measures PDF typesetting throughput for a synthetic manuscript. Not a unit test; run with
+ * {@code java -cp target/classes:target/test-classes:<classpath> com.writeit.rest.content.PdfExportBenchmark [chapters] [rounds]}.
+ */
+public final class PdfExportBenchmark {
+
+    private static final String PARAGRAPH = "<p>She walked along the harbour wall while the boats knocked against "
+        + "their moorings, counting the lights on the far shore and wondering whether the letter had arrived "
+        + "before the storm, or whether it was still somewhere out there on the water, waiting.</p>\n";
+
+    private PdfExportBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int chapters = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String[] sections = new String[4];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = (PARAGRAPH.replace("letter", "letter " + i)).repeat(10);
+        }
+        for (int round = 1; round <= rounds; round++) {
+            CountingSink sink = new CountingSink();
+            Runtime.getRuntime().gc();
+            long started = System.nanoTime();
+            PdfBookRenderer renderer = new PdfBookRenderer(sink);
+            renderer.titlePage("Benchmark Manuscript");
+            for (int chapter = 1; chapter <= chapters; chapter++) {
+                renderer.chapter("Chapter " + chapter);
+                for (int section = 0; section < sections.length; section++) {
+                    renderer.section("Part " + (section + 1));
+                    renderer.body(sections[section]);
+                }
+            }
+            int pages = renderer.finish("Benchmark Manuscript");
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long usedMb = (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) >> 20;
+            System.out.printf("round %d: %d pages, %d KB in %.3fs = %.0f pages/s, heap %d MB%n",
+                round, pages, sink.bytes >> 10, seconds, pages / seconds, usedMb);
+        }
+    }
+
+    private static final class CountingSink extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+        }
+    }
+}
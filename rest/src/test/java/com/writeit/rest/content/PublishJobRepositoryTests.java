@@ -0,0 +1,130 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class PublishJobRepositoryTests {
+
+    @Autowired
+    private PublishJobRepository jobRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long documentId;
+
+    @BeforeEach
+    void createDocument() {
+        jdbcTemplate.update("INSERT INTO documents (title, type, user_id) SELECT 'Queued', 'ARTICLE', MIN(id) FROM users");
+        documentId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM documents", Long.class);
+    }
+
+    @Test
+    void shouldClaimQueuedJobOnce() {
+        Instant now = Instant.now();
+        Long id = queue(2);
+
+        assertEquals(1, jobRepository.claim(id, now));
+        assertEquals(0, jobRepository.claim(id, now));
+
+        PublishJob job = reload(id);
+        assertEquals(PublishJobStatus.RUNNING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+    }
+
+    @Test
+    void shouldRequeueOnlyJobsWhoseLeaseExpired() {
+        Instant now = Instant.now();
+        Long stale = queue(2);
+        Long fresh = queue(2);
+        jobRepository.claim(stale, now.minus(Duration.ofMinutes(20)));
+        jobRepository.claim(fresh, now.minus(Duration.ofMinutes(1)));
+
+        assertEquals(1, jobRepository.requeueStale(now.minus(Duration.ofMinutes(10)), now));
+
+        assertEquals(PublishJobStatus.QUEUED, reload(stale).getStatus());
+        assertEquals(PublishJobStatus.RUNNING, reload(fresh).getStatus());
+        assertEquals(1, jobRepository.claim(stale, now));
+        assertEquals(2, reload(stale).getAttempts());
+    }
+
+    @Test
+    void shouldFailRunningJobWithoutAttemptsLeft() {
+        Instant now = Instant.now();
+        Long retried = queue(2);
+        Long exhausted = queue(1);
+        jobRepository.claim(retried, now);
+        jobRepository.claim(exhausted, now);
+
+        assertEquals(1, jobRepository.requeueRunning(retried, "lost", now.plusSeconds(5), now));
+        assertEquals(0, jobRepository.requeueRunning(exhausted, "lost", now.plusSeconds(5), now));
+        assertEquals(1, jobRepository.failRunning(exhausted, "lost", now));
+
+        assertEquals(PublishJobStatus.QUEUED, reload(retried).getStatus());
+        PublishJob failed = reload(exhausted);
+        assertEquals(PublishJobStatus.FAILED, failed.getStatus());
+        assertEquals("lost", failed.getLastError());
+    }
+
+    @Test
+    void shouldDropTheResultOfAnAttemptWhoseLeaseExpired() {
+        Instant now = Instant.now();
+        Long id = queue(3);
+        jobRepository.claim(id, now.minus(Duration.ofMinutes(20)));
+        assertEquals(1, jobRepository.requeueStale(now.minus(Duration.ofMinutes(10)), now));
+        assertEquals(1, jobRepository.claim(id, now));
+
+        assertEquals(0, jobRepository.finish(id, 1, PublishJobStatus.SUCCEEDED, "https://stale.example", null, now, now, now));
+        assertEquals(PublishJobStatus.RUNNING, reload(id).getStatus());
+        assertEquals(1, jobRepository.finish(id, 2, PublishJobStatus.SUCCEEDED, "https://fresh.example", null, now, now, now));
+
+        PublishJob job = reload(id);
+        assertEquals(PublishJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertEquals("https://fresh.example", job.getExternalUrl());
+    }
+
+    @Test
+    void shouldKeepRenewedJobsRunning() {
+        Instant now = Instant.now();
+        Long id = queue(2);
+        jobRepository.claim(id, now.minus(Duration.ofMinutes(20)));
+
+        assertEquals(1, jobRepository.renew(List.of(id), now.minus(Duration.ofMinutes(1))));
+
+        assertEquals(0, jobRepository.requeueStale(now.minus(Duration.ofMinutes(10)), now));
+        assertEquals(PublishJobStatus.RUNNING, reload(id).getStatus());
+    }
+
+    private Long queue(int maxAttempts) {
+        PublishJob job = new PublishJob();
+        job.setDocumentId(documentId);
+        job.setChannel(PublishChannel.MEDIUM);
+        job.setStatus(PublishJobStatus.QUEUED);
+        job.setMaxAttempts(maxAttempts);
+        job.setNextAttemptAt(Instant.now());
+        entityManager.persist(job);
+        entityManager.flush();
+        return job.getId();
+    }
+
+    private PublishJob reload(Long id) {
+        entityManager.clear();
+        return jobRepository.findById(id).orElseThrow();
+    }
+}
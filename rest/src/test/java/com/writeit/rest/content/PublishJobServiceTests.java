@@ -0,0 +1,39 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PublishJobServiceTests {
+
+    @Test
+    void shouldDoubleBackoffUpToMaximum() {
+        Duration base = Duration.ofSeconds(5);
+        Duration max = Duration.ofMinutes(1);
+
+        assertEquals(Duration.ofSeconds(5), PublishJobService.backoff(1, base, max));
+        assertEquals(Duration.ofSeconds(10), PublishJobService.backoff(2, base, max));
+        assertEquals(Duration.ofSeconds(40), PublishJobService.backoff(4, base, max));
+        assertEquals(max, PublishJobService.backoff(5, base, max));
+        assertEquals(max, PublishJobService.backoff(200, base, max));
+    }
+
+    @Test
+    void stubAdapterShouldFailConfiguredAttemptsThenSucceed() throws Exception {
+        StubPublishChannelAdapter adapter = new StubPublishChannelAdapter(PublishChannel.MEDIUM, "https://stub/", Duration.ZERO, 2);
+        DocumentHeader document = new DocumentHeader(7L, "Title", DocumentType.ARTICLE, 1L);
+        PublishJob job = new PublishJob();
+        job.setDocumentId(7L);
+
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            job.setAttempts(attempt);
+            PublishChannelException failure = assertThrows(PublishChannelException.class, () -> adapter.publish(job, document));
+            assertTrue(failure.isRetryable());
+        }
+        job.setAttempts(3);
+        assertEquals("https://stub/7", adapter.publish(job, document));
+    }
+}
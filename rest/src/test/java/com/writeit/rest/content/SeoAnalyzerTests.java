@@ -0,0 +1,79 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SeoAnalyzerTests {
+
+    @Test
+    void shouldCountWordsLikeContentMetrics() {
+        Random random = new Random(11);
+        char[] alphabet = {'a', 'b', '.', '<', '>', '#', '&', ';', ' ', '\n', '\t', '\u2003', '\u00A0'};
+        for (int run = 0; run < 2000; run++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String content = text.toString();
+            assertEquals(ContentMetrics.countWords(content), SeoAnalyzer.analyze("title", content).wordCount(),
+                () -> "content: [" + content + "]");
+        }
+    }
+
+    @Test
+    void shouldCollectHeadingsKeywordsAndSentences() {
+        String content = "<h1>Sourdough Basics</h1><h2>Introduction</h2><p>Baking sourdough bread is slow. "
+            + "It rewards patience!</p><h3>The <em>starter</em> &amp; flour</h3>"
+            + "<p>Feed the starter daily <img src=\"a.png\"> and watch it rise <a href=\"/x\">here</a></p>\n"
+            + "## Shaping the loaf\n\nShape gently.";
+
+        SeoAnalyzer.Analysis analysis = SeoAnalyzer.analyze("Sourdough bread for beginners", content);
+
+        assertEquals(List.of(new SeoAnalyzer.Heading(1, "Sourdough Basics"), new SeoAnalyzer.Heading(2, "Introduction"),
+            new SeoAnalyzer.Heading(3, "The starter flour"), new SeoAnalyzer.Heading(2, "Shaping the loaf")), analysis.headings());
+        assertEquals(List.of("sourdough", "bread", "beginners"), analysis.keywords().stream().map(SeoAnalyzer.KeywordUsage::term).toList());
+        assertEquals(2, analysis.keywords().get(0).occurrences());
+        assertEquals(0, analysis.keywords().get(0).firstWordIndex());
+        assertEquals(0, analysis.keywords().get(2).occurrences());
+        assertEquals(4, analysis.sentences() - analysis.headings().size());
+        assertEquals(1, analysis.links());
+        assertEquals(1, analysis.imagesWithoutAlt());
+        assertEquals(ContentMetrics.countWords(content), analysis.wordCount());
+    }
+
+    @Test
+    void shouldScoreReadability() {
+        SeoAnalyzer.Analysis easy = SeoAnalyzer.analyze(null, "The cat sat on the mat. The dog ran to the park. We had fun.");
+        SeoAnalyzer.Analysis hard = SeoAnalyzer.analyze(null, "Institutional accountability necessitates comprehensive "
+            + "organizational documentation, particularly regarding interdepartmental communication methodologies.");
+
+        assertEquals(3, easy.sentences());
+        assertEquals(15, easy.textWords());
+        assertTrue(easy.fleschReadingEase() > 90, () -> "easy: " + easy.fleschReadingEase());
+        assertTrue(hard.fleschReadingEase() < 10, () -> "hard: " + hard.fleschReadingEase());
+        assertTrue(hard.fleschKincaidGrade() > easy.fleschKincaidGrade());
+        assertEquals(1, hard.sentenceLengths().upTo20());
+    }
+
+    @Test
+    void shouldEvaluateRulesAgainstAnalysis() {
+        List<String> shortPost = SeoAnalyzer.suggestions("short", SeoAnalyzer.analyze("short", "tiny content"));
+        assertTrue(shortPost.contains("Use a longer title (20-60 chars) for better discoverability."));
+        assertTrue(shortPost.contains("Add more depth; SEO content typically performs better beyond 300 words."));
+        assertTrue(shortPost.contains("Consider adding an introduction heading for structure."));
+        List<String> mentioned = SeoAnalyzer.suggestions("short", SeoAnalyzer.analyze("short", "<p>A brief Introduction.</p>"));
+        assertFalse(mentioned.contains("Consider adding an introduction heading for structure."));
+
+        String stuffed = "<h2>Introduction</h2><h4>Details</h4><p>" + "Widgets are great. ".repeat(20) + "<img src=x.png alt=\"\"></p>";
+        List<String> suggestions = SeoAnalyzer.suggestions("Why widgets matter for teams", SeoAnalyzer.analyze("Why widgets matter for teams", stuffed));
+        assertFalse(suggestions.contains("Consider adding an introduction heading for structure."));
+        assertTrue(suggestions.stream().anyMatch(s -> s.startsWith("Heading levels jump from H2 to H4")));
+        assertTrue(suggestions.stream().anyMatch(s -> s.startsWith("'widgets' makes up 32.3% of the words")));
+        assertFalse(suggestions.stream().anyMatch(s -> s.startsWith("Add alt text")));
+    }
+}
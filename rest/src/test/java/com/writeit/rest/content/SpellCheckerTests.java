@@ -0,0 +1,93 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SpellCheckerTests {
+
+    private static final SpellChecker SPELL_CHECKER = new SpellChecker();
+
+    @Test
+    void shouldPackWordsIntoTrie() {
+        SpellingDictionary dictionary = SpellingDictionary.of(List.of("car", "cart", "Care", "cat", "dog"));
+
+        assertEquals(5, dictionary.size());
+        assertEquals(10, dictionary.nodeCount());
+        assertTrue(dictionary.contains("care"));
+        assertTrue(dictionary.contains("cart"));
+        assertFalse(dictionary.contains("ca"));
+        assertFalse(dictionary.contains("cars"));
+    }
+
+    @Test
+    void shouldFindWordsWithinEditDistance() {
+        SpellingDictionary dictionary = SpellingDictionary.of(List.of("form", "from", "farm", "forum", "fork", "storm"));
+        List<SpellingDictionary.Suggestion> found = new ArrayList<>();
+
+        dictionary.nearby("from", 1, found);
+        assertEquals(List.of("form", "from"), found.stream().map(SpellingDictionary.Suggestion::word).sorted().toList());
+
+        found.clear();
+        dictionary.nearby("from", 2, found);
+        assertEquals(List.of("farm", "fork", "form", "forum", "from"), found.stream().map(SpellingDictionary.Suggestion::word).sorted().toList());
+        assertEquals(1, found.stream().filter(s -> s.word().equals("form")).findFirst().orElseThrow().distance());
+        assertEquals(2, found.stream().filter(s -> s.word().equals("forum")).findFirst().orElseThrow().distance());
+    }
+
+    @Test
+    void shouldReportOffsetsAndRankedSuggestions() {
+        String text = "<p>Teh quick brown fox jumsp over the lazy dog.</p>";
+
+        List<SpellingIssue> issues = SPELL_CHECKER.check(text);
+
+        assertEquals(2, issues.size());
+        assertEquals(new SpellingIssue(3, 3, "Teh", issues.get(0).suggestions()), issues.get(0));
+        assertEquals("The", issues.get(0).suggestions().get(0));
+        assertEquals("jumsp", text.substring(issues.get(1).offset(), issues.get(1).offset() + issues.get(1).length()));
+        assertTrue(issues.get(1).suggestions().contains("jumps"), issues.get(1).suggestions()::toString);
+    }
+
+    @Test
+    void shouldSkipMarkupLinksNumbersAndAcronyms() {
+        String text = "<a href=\"https://exmaple.org/pathh\">Visit</a> https://exmaple.org or mail jdoe@exmaple.org "
+            + "about NASA, iPhone, 3rd-party, v2 &amp; well-known writer\u2019s don\u2019t";
+
+        assertEquals(List.of(), SPELL_CHECKER.check(text));
+    }
+
+    @Test
+    void shouldAcceptUserDictionaryOverlay() {
+        SpellingDictionary overlay = SpellingDictionary.of(List.of("Zorblax"));
+
+        assertEquals(1, SPELL_CHECKER.check("Zorblax attacks").size());
+        assertTrue(SPELL_CHECKER.check("Zorblax attacks", overlay).isEmpty());
+        assertEquals(List.of("Zorblax"), SPELL_CHECKER.check("Zorblx attacks", overlay).get(0).suggestions().subList(0, 1));
+    }
+
+    @Test
+    void shouldCheckLongChapterQuickly() {
+        String[] words = {"the", "writer", "opened", "her", "notebook", "and", "began", "another", "chapter", "about",
+            "quiet", "harbors", "where", "fishermen", "mended", "their", "nets", "before", "dawn", "recieve"};
+        StringBuilder chapter = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            chapter.append(i % 12 == 0 ? "<p>" : "").append(words[(i * 7) % words.length]).append(i % 12 == 11 ? ".</p>" : " ");
+        }
+        String text = chapter.toString();
+        for (int warmup = 0; warmup < 20; warmup++) {
+            SPELL_CHECKER.check(text);
+        }
+
+        long started = System.nanoTime();
+        List<SpellingIssue> issues = SPELL_CHECKER.check(text);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(250, issues.size());
+        assertEquals("receive", issues.get(0).suggestions().get(0));
+        assertTrue(elapsedMillis < 50, () -> "5000 words took " + elapsedMillis + " ms");
+    }
+}
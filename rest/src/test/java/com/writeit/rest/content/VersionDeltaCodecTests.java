@@ -0,0 +1,51 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class VersionDeltaCodecTests {
+
+    @Test
+    void shouldRoundTripSmallEditInLargeDocument() {
+        StringBuilder base = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            base.append("<p>Paragraph ").append(i).append(" of the manuscript. It has two sentences.</p>\n");
+        }
+        String target = base.toString().replace("Paragraph 250 of", "Paragraph 250, rewritten, of");
+
+        String delta = VersionDeltaCodec.diff(base.toString(), target);
+
+        assertNotNull(delta);
+        assertTrue(delta.length() < 200, "delta should only carry the changed segment");
+        assertEquals(target, VersionDeltaCodec.apply(base.toString(), delta));
+    }
+
+    @Test
+    void shouldRoundTripRandomEdits() {
+        Random random = new Random(42);
+        String text = "Once upon a time.\nThere was a <b>writer</b>! Did they finish? Not yet.\n";
+        for (int round = 0; round < 200; round++) {
+            StringBuilder next = new StringBuilder(text);
+            int position = random.nextInt(next.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0 -> next.insert(position, "new words. ");
+                case 1 -> next.delete(position, Math.min(next.length(), position + random.nextInt(12)));
+                default -> next.replace(position, Math.min(next.length(), position + 3), "xyz>\n");
+            }
+            String delta = VersionDeltaCodec.diff(text, next.toString());
+            assertEquals(next.toString(), VersionDeltaCodec.apply(text, delta));
+            text = next.toString();
+        }
+    }
+
+    @Test
+    void shouldHandleEmptyAndMissingText() {
+        assertEquals("hello", VersionDeltaCodec.apply(null, VersionDeltaCodec.diff(null, "hello")));
+        assertEquals("", VersionDeltaCodec.apply("hello", VersionDeltaCodec.diff("hello", "")));
+        assertEquals("same", VersionDeltaCodec.apply("same", VersionDeltaCodec.diff("same", "same")));
+    }
+}
@@ -0,0 +1,65 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class WritingToolsBatchAnalyzerTests {
+
+    private static final WritingToolsBatchAnalyzer ANALYZER = new WritingToolsBatchAnalyzer(new SpellChecker(), 4);
+
+    @Test
+    void shouldSplitParagraphsAtBlankLinesAndBlockTags() {
+        String text = "  Intro line\nstill intro\n \nNext one\n\n<h2>Title</h2><p>Body <b>bold</b></p><p> </p><ul><li>Item</li></ul>";
+
+        List<WritingToolsBatchAnalyzer.Paragraph> paragraphs = WritingToolsBatchAnalyzer.paragraphs(text, 3);
+
+        assertEquals(List.of("Intro line\nstill intro", "Next one", "Title", "Body <b>bold</b>", "Item"),
+            paragraphs.stream().map(p -> text.substring(p.start(), p.end())).toList());
+        assertEquals(List.of(0, 1, 2, 3, 4), paragraphs.stream().map(WritingToolsBatchAnalyzer.Paragraph::index).toList());
+        assertEquals(List.of(false, false, true, false, true), paragraphs.stream().map(WritingToolsBatchAnalyzer.Paragraph::fragment).toList());
+        assertEquals(3, paragraphs.get(0).section());
+    }
+
+    @Test
+    void shouldFlagSpacingRepeatedWordsAndMissingPunctuation() {
+        String text = "<p>It was the  the best of times</p>";
+        WritingToolsBatchAnalyzer.Paragraph paragraph = WritingToolsBatchAnalyzer.paragraphs(text, 0).get(0);
+        List<WritingFinding> findings = new ArrayList<>();
+
+        WritingToolsBatchAnalyzer.checkStyle(text, paragraph, findings);
+
+        assertEquals(List.of(13, 13, 32), findings.stream().map(WritingFinding::offset).toList());
+        assertEquals(List.of(2, 5, 0), findings.stream().map(WritingFinding::length).toList());
+        assertEquals("Remove the repeated word 'the'.", findings.get(1).message());
+    }
+
+    @Test
+    void shouldMergeParallelFindingsInTextOrder() {
+        List<String> sections = new ArrayList<>();
+        for (int section = 0; section < 40; section++) {
+            StringBuilder text = new StringBuilder();
+            for (int paragraph = 0; paragraph < 30; paragraph++) {
+                text.append("<p>Paragraph ").append(paragraph).append(" of section ").append(section)
+                    .append(paragraph % 3 == 0 ? " has a speling mistake" : " reads fine")
+                    .append(paragraph % 4 == 0 ? "" : ".").append("</p>\n");
+            }
+            sections.add(text.toString());
+        }
+
+        WritingToolsBatchAnalyzer.Result result = ANALYZER.analyze(sections, true, true, null);
+
+        assertEquals(1200, result.paragraphs());
+        List<WritingFinding> expected = new ArrayList<>();
+        for (int section = 0; section < sections.size(); section++) {
+            for (WritingFinding finding : ANALYZER.analyze(List.of(sections.get(section)), true, true, null).findings()) {
+                expected.add(new WritingFinding(finding.analyzer(), section, finding.paragraph(), finding.offset(),
+                    finding.length(), finding.message(), finding.suggestions()));
+            }
+        }
+        assertEquals(400 + 320, expected.size());
+        assertEquals(expected, result.findings());
+    }
+}
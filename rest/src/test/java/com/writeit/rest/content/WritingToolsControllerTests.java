@@ -1,18 +1,56 @@
 package com.writeit.rest.content;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 class WritingToolsControllerTests {
 
-    private final WritingToolsController controller = new WritingToolsController();
+    private static final SpellChecker SPELL_CHECKER = new SpellChecker();
+
+    private static final WritingToolsBatchAnalyzer BATCH_ANALYZER = new WritingToolsBatchAnalyzer(SPELL_CHECKER, 2);
+
+    private final WritingToolsController controller = new WritingToolsController(SPELL_CHECKER, null, BATCH_ANALYZER);
 
     @Test
     void spellCheckShouldReturnSuggestionsForKnownIssues() {
         WritingToolsController.SpellCheckResponse response = controller.spellCheck(new WritingToolsController.TextPayload("teh text  with double space"));
         assertFalse(response.suggestions().isEmpty());
+        assertTrue(response.suggestions().contains("Replace 'teh' with 'the'."));
+        assertTrue(response.suggestions().contains("Remove double spaces."));
+        assertEquals(1, response.issues().size());
+        assertEquals(0, response.issues().get(0).offset());
+    }
+
+    @Test
+    void spellCheckShouldAcceptCorrectText() {
+        WritingToolsController.SpellCheckResponse response = controller.spellCheck(new WritingToolsController.TextPayload("The house is quiet tonight."));
+        assertTrue(response.issues().isEmpty(), response.issues()::toString);
+        assertTrue(response.suggestions().isEmpty(), response.suggestions()::toString);
+    }
+
+    @Test
+    void batchShouldReportFindingsPerSectionAndParagraph() {
+        WritingToolsController.BatchResponse response = controller.batch(new WritingToolsController.BatchRequest("Short", null, List.of(
+            new WritingToolsController.BatchSection(11L, "One", "<p>All good here.</p><p>Teh end.</p>"),
+            new WritingToolsController.BatchSection(12L, "Two", "First paragraph.\n\nSecond  paragraph without a stop")),
+            Set.of(WritingAnalyzer.SPELLING, WritingAnalyzer.STYLE, WritingAnalyzer.SEO), null));
+
+        assertEquals(2, response.sections());
+        assertEquals(4, response.paragraphs());
+        WritingFinding spelling = response.findings().get(0);
+        assertEquals(WritingAnalyzer.SPELLING, spelling.analyzer());
+        assertEquals(0, spelling.section());
+        assertEquals(1, spelling.paragraph());
+        assertEquals(24, spelling.offset());
+        List<WritingFinding> style = response.findings().stream().filter(f -> f.analyzer() == WritingAnalyzer.STYLE).toList();
+        assertEquals(List.of(1, 1), style.stream().map(WritingFinding::section).toList());
+        assertEquals(List.of(24, 50), style.stream().map(WritingFinding::offset).toList());
+        assertTrue(response.findings().stream().anyMatch(f -> f.analyzer() == WritingAnalyzer.SEO && f.section() == null));
     }
 
     @Test
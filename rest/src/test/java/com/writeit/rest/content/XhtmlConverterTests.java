@@ -0,0 +1,24 @@
+package com.writeit.rest.content;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class XhtmlConverterTests {
+
+    @Test
+    void shouldCloseVoidElementsAndConvertNamedEntities() {
+        assertEquals("<p>a&#160;b<br/><img src=\"x.png\"/></p>",
+            XhtmlConverter.toXhtml("<p>a&nbsp;b<br><img src=\"x.png\"></p>"));
+    }
+
+    @Test
+    void shouldEscapeStrayAmpersandsAndKeepXmlEntities() {
+        assertEquals("<p>Tom &amp; Jerry &lt;3 &#169;</p>", XhtmlConverter.toXhtml("<p>Tom & Jerry &lt;3 &copy;</p>"));
+    }
+
+    @Test
+    void shouldWrapPlainTextIntoParagraphs() {
+        assertEquals("<p>First</p>\n<p>Second &#38; last</p>\n", XhtmlConverter.toXhtml("First\n\nSecond & last"));
+    }
+}
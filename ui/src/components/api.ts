@@ -1,4 +1,4 @@
-import type { DocumentItem, SnippetItem } from '../types/content';
+import type { DocumentItem, DocumentSummary, SnippetItem, SnippetSummary } from '../types/content';
 
 const API_BASE = 'http://localhost:8080/api/v1';
 
@@ -9,10 +9,14 @@ type PublishResponse = {
   generatedAt: string;
 };
 
-type ExportResponse = {
+type CursorPage<T> = {
+  items: T[];
+  nextCursor: string | null;
+};
+
+type ExportFile = {
   fileName: string;
-  mimeType: string;
-  contentBase64: string;
+  blob: Blob;
 };
 
 async function ensureOk(response: Response) {
@@ -23,12 +27,13 @@ async function ensureOk(response: Response) {
   return response;
 }
 
-export async function getDocuments(userId: number, query?: string, tag?: string): Promise<DocumentItem[]> {
+export async function getDocuments(userId: number, query?: string, tag?: string): Promise<DocumentSummary[]> {
   const params = new URLSearchParams({ userId: String(userId) });
   if (query) params.set('query', query);
   if (tag) params.set('tag', tag);
   const response = await ensureOk(await fetch(`${API_BASE}/documents?${params.toString()}`));
-  return response.json();
+  const page: CursorPage<DocumentSummary> = await response.json();
+  return page.items;
 }
 
 export async function createDocument(payload: {
@@ -52,7 +57,7 @@ export async function createSnapshot(documentId: number): Promise<{ versionNumbe
   return response.json();
 }
 
-export async function getSnippets(userId: number): Promise<SnippetItem[]> {
+export async function getSnippets(userId: number): Promise<SnippetSummary[]> {
   const response = await ensureOk(await fetch(`${API_BASE}/snippets?userId=${userId}`));
   return response.json();
 }
@@ -93,9 +98,12 @@ export async function aiVerify(text: string): Promise<{ provider: string; sugges
   return response.json();
 }
 
-export async function exportDocument(documentId: number, format: 'MARKDOWN' | 'HTML' | 'PDF' | 'EPUB'): Promise<ExportResponse> {
-  const response = await ensureOk(await fetch(`${API_BASE}/documents/${documentId}/export?format=${format}`));
-  return response.json();
+export async function exportDocument(documentId: number, format: 'MARKDOWN' | 'HTML' | 'PDF' | 'EPUB'): Promise<ExportFile> {
+  const response = await ensureOk(await fetch(`${API_BASE}/documents/${documentId}/export/download?format=${format}`));
+  const disposition = response.headers.get('Content-Disposition') ?? '';
+  const match = /filename\*?=(?:UTF-8'')?"?([^";]+)"?/i.exec(disposition);
+  const fileName = match ? decodeURIComponent(match[1]) : `document-${documentId}.${format.toLowerCase()}`;
+  return { fileName, blob: await response.blob() };
 }
 
 export async function publishMedium(documentId: number, tags: string[], canonicalUrl: string): Promise<PublishResponse> {
@@ -131,9 +139,10 @@ export async function publishWriteIt(documentId: number): Promise<PublishRespons
   return response.json();
 }
 
-export async function getBlogPosts(): Promise<DocumentItem[]> {
+export async function getBlogPosts(): Promise<DocumentSummary[]> {
   const response = await ensureOk(await fetch(`${API_BASE}/blog/posts`));
-  return response.json();
+  const page: CursorPage<DocumentSummary> = await response.json();
+  return page.items;
 }
 
 
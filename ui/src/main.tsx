@@ -16,7 +16,7 @@ import {
   spellCheck,
   getBlogPosts
 } from './components/api';
-import type { DocumentItem, SnippetItem } from './types/content';
+import type { DocumentSummary, SnippetSummary } from './types/content';
 import './main.css';
 
 const userId = 1;
@@ -33,9 +33,9 @@ type EditorMemory = {
 };
 
 function HomePage() {
-  const [documents, setDocuments] = useState<DocumentItem[]>([]);
-  const [snippets, setSnippets] = useState<SnippetItem[]>([]);
-  const [blogPosts, setBlogPosts] = useState<DocumentItem[]>([]);
+  const [documents, setDocuments] = useState<DocumentSummary[]>([]);
+  const [snippets, setSnippets] = useState<SnippetSummary[]>([]);
+  const [blogPosts, setBlogPosts] = useState<DocumentSummary[]>([]);
   const [title, setTitle] = useState('');
   const [docType, setDocType] = useState<'ARTICLE' | 'BOOK'>('ARTICLE');
   const [content, setContent] = useState('');
@@ -338,9 +338,7 @@ function EditorPage() {
     if (!lastSavedId) return setStatus('Please save document before export.');
     try {
       const result = await exportDocument(lastSavedId, format);
-      const bytes = Uint8Array.from(atob(result.contentBase64), (ch) => ch.charCodeAt(0));
-      const blob = new Blob([bytes], { type: result.mimeType });
-      const url = URL.createObjectURL(blob);
+      const url = URL.createObjectURL(result.blob);
       const anchor = document.createElement('a');
       anchor.href = url;
       anchor.download = result.fileName;
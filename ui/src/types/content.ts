@@ -15,9 +15,13 @@ export interface DocumentItem {
   publishedAt?: string;
 }
 
+export type DocumentSummary = Omit<DocumentItem, 'content'>;
+
 export interface SnippetItem {
   id: number;
   title: string;
   content: string;
   userId: number;
 }
+
+export type SnippetSummary = Omit<SnippetItem, 'content'>;